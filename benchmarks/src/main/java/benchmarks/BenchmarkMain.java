@@ -0,0 +1,41 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Точка входа benchmarks.jar: те же параметры командной строки, что у JMH, но GC-профайлер включен всегда
+// (gc.alloc.rate.norm - байт на операцию), а результаты по умолчанию пишутся в jmh-result.json,
+// чтобы их можно было сравнивать между версиями
+//
+// Примеры:
+//     java -jar benchmarks/target/benchmarks.jar                            - все наборы
+//     java -jar benchmarks/target/benchmarks.jar ParserBenchmark -p corpus=twitter
+//     java -jar benchmarks/target/benchmarks.jar StructuralIndexBenchmark  - прямой проход, скалярный и векторный индекс
+public final class BenchmarkMain {
+
+    static final String RESULT_FILE = "jmh-result.json";
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        var options = new CommandLineOptions(args);
+        if (options.shouldHelp() || options.shouldList() || options.shouldListWithParams() || options.shouldListProfilers()
+                || options.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        var builder = new OptionsBuilder().parent(options);
+        if (options.getProfilers().stream().noneMatch(profiler -> profiler.getKlass().equals("gc")
+                || profiler.getKlass().equals(GCProfiler.class.getName()))) {
+            builder.addProfiler(GCProfiler.class);
+        }
+        if (!options.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON).result(options.getResult().orElse(RESULT_FILE));
+        }
+        new Runner(builder.build()).run();
+    }
+}
@@ -0,0 +1,210 @@
+package benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+// Корпуса документов для бенчмарков, генерируются локально и детерминированно (фиксированное зерно)
+// Формы повторяют типичные публичные наборы: twitter.json (ленты статусов), canada.json (GeoJSON с координатами),
+// citm_catalog.json (каталог с картами идентификаторов), а также крайние случаи - одни числа, длинные строки,
+// глубокая вложенность и объект с множеством ключей
+public enum Corpus {
+    numbers {
+        @Override
+        void value(StringBuilder out, Random random) {
+            out.append('[');
+            for (int i = 0; i < 64; i++) {
+                comma(out, i);
+                switch (i % 3) {
+                    case 0 -> out.append(random.nextInt());
+                    case 1 -> out.append(random.nextLong());
+                    default -> out.append(random.nextDouble() * Math.pow(10, random.nextInt(20) - 10));
+                }
+            }
+            out.append(']');
+        }
+    },
+    strings {
+        @Override
+        void value(StringBuilder out, Random random) {
+            out.append('[');
+            for (int i = 0; i < 8; i++) {
+                comma(out, i);
+                text(out, random, 200 + random.nextInt(400));
+            }
+            out.append(']');
+        }
+    },
+    deep {
+        @Override
+        void value(StringBuilder out, Random random) {
+            int depth = 200;
+            for (int i = 0; i < depth; i++) {
+                out.append(i % 2 == 0 ? "{\"n\":" : "[");
+            }
+            out.append(random.nextInt(1000));
+            for (int i = depth - 1; i >= 0; i--) {
+                out.append(i % 2 == 0 ? '}' : ']');
+            }
+        }
+    },
+    wide {
+        @Override
+        String generate(int size) {
+            // один объект с множеством разных ключей
+            var random = new Random(SEED);
+            var out = new StringBuilder(size + 256).append('{');
+            for (int i = 0; out.length() < size; i++) {
+                comma(out, i);
+                out.append("\"field_").append(i).append("\":");
+                switch (i % 4) {
+                    case 0 -> out.append(random.nextInt(100_000));
+                    case 1 -> out.append('"').append(word(random)).append('"');
+                    case 2 -> out.append(random.nextBoolean());
+                    default -> out.append(random.nextDouble());
+                }
+            }
+            return out.append('}').toString();
+        }
+
+        @Override
+        void value(StringBuilder out, Random random) {
+            throw new UnsupportedOperationException();
+        }
+    },
+    twitter {
+        @Override
+        void value(StringBuilder out, Random random) {
+            long id = 500_000_000_000_000_000L + random.nextInt(1_000_000_000);
+            out.append("{\"created_at\":\"Sun Aug 31 00:29:15 +0000 2014\",\"id\":").append(id)
+                    .append(",\"id_str\":\"").append(id).append("\",\"text\":");
+            text(out, random, 60 + random.nextInt(80));
+            out.append(",\"source\":\"<a href=\\\"https://example.com/\\\" rel=\\\"nofollow\\\">client</a>\",")
+                    .append("\"truncated\":false,\"in_reply_to_status_id\":null,\"user\":{\"id\":").append(random.nextInt(Integer.MAX_VALUE))
+                    .append(",\"name\":\"").append(word(random)).append("\",\"screen_name\":\"").append(word(random))
+                    .append("\",\"location\":\"\",\"description\":");
+            text(out, random, 40 + random.nextInt(60));
+            out.append(",\"followers_count\":").append(random.nextInt(100_000))
+                    .append(",\"friends_count\":").append(random.nextInt(5_000))
+                    .append(",\"verified\":").append(random.nextBoolean())
+                    .append(",\"profile_background_color\":\"C0DEED\",\"lang\":\"ja\"},")
+                    .append("\"entities\":{\"hashtags\":[");
+            int tags = random.nextInt(3);
+            for (int i = 0; i < tags; i++) {
+                comma(out, i);
+                out.append("{\"text\":\"").append(word(random)).append("\",\"indices\":[")
+                        .append(random.nextInt(100)).append(',').append(100 + random.nextInt(40)).append("]}");
+            }
+            out.append("],\"urls\":[],\"user_mentions\":[]},\"retweet_count\":").append(random.nextInt(1000))
+                    .append(",\"favorite_count\":").append(random.nextInt(1000))
+                    .append(",\"favorited\":false,\"retweeted\":false,\"lang\":\"ja\"}");
+        }
+
+        @Override
+        String generate(int size) {
+            return "{\"statuses\":" + super.generate(size) + ",\"search_metadata\":{\"completed_in\":0.087,\"count\":100}}";
+        }
+    },
+    canada {
+        @Override
+        void value(StringBuilder out, Random random) {
+            // полигон: массив колец, кольцо - массив пар координат с большим числом знаков
+            out.append("{\"type\":\"Feature\",\"properties\":{\"name\":\"Canada\"},\"geometry\":{\"type\":\"Polygon\",\"coordinates\":[[");
+            double lon = -140 + random.nextDouble() * 80;
+            double lat = 40 + random.nextDouble() * 40;
+            for (int i = 0; i < 100; i++) {
+                comma(out, i);
+                lon += random.nextGaussian() * 0.01;
+                lat += random.nextGaussian() * 0.01;
+                out.append('[').append(lon).append(',').append(lat).append(']');
+            }
+            out.append("]]}}");
+        }
+
+        @Override
+        String generate(int size) {
+            return "{\"type\":\"FeatureCollection\",\"features\":" + super.generate(size) + "}";
+        }
+    },
+    citm {
+        @Override
+        void value(StringBuilder out, Random random) {
+            int id = 138_586_341 + random.nextInt(1_000_000);
+            out.append("{\"eventId\":").append(id).append(",\"id\":").append(id + 1)
+                    .append(",\"logo\":null,\"name\":null,\"prices\":[");
+            for (int i = 0; i < 4; i++) {
+                comma(out, i);
+                out.append("{\"amount\":").append(9_000 + random.nextInt(100_000))
+                        .append(",\"audienceSubCategoryId\":337100890,\"seatCategoryId\":").append(338_937_000 + random.nextInt(1000)).append('}');
+            }
+            out.append("],\"seatCategories\":[");
+            for (int i = 0; i < 3; i++) {
+                comma(out, i);
+                out.append("{\"areas\":[{\"areaId\":").append(205_705_000 + random.nextInt(1000))
+                        .append(",\"blockIds\":[]}],\"seatCategoryId\":").append(338_937_000 + random.nextInt(1000)).append('}');
+            }
+            out.append("],\"seatMapImage\":null,\"start\":").append(1_372_608_000_000L + random.nextInt(1_000_000_000))
+                    .append(",\"venueCode\":\"PLEYEL_PLEYEL\",\"subTopicIds\":[337184262,337184283],\"topicIds\":[324846099]}");
+        }
+
+        @Override
+        String generate(int size) {
+            return "{\"areaNames\":{\"205705993\":\"Arrière-scène central\",\"205705994\":\"1er balcon central\"},"
+                    + "\"audienceSubCategoryNames\":{\"337100890\":\"Abonné\"},\"performances\":" + super.generate(size) + "}";
+        }
+    };
+
+    static final long SEED = 42;
+    static final int DEFAULT_SIZE = 256 * 1024;
+
+    private static final String[] WORDS = {
+            "json", "parser", "token", "value", "array", "object", "stream", "buffer", "город", "данные", "東京", "😀"
+    };
+
+    // Документ примерно из size символов: массив однотипных значений
+    String generate(int size) {
+        return array(size);
+    }
+
+    // Корневой массив значений без обертки корпуса (twitter, canada, citm) - вход параллельного разбора массива
+    final String array(int size) {
+        var random = new Random(SEED);
+        var out = new StringBuilder(size + 1024).append('[');
+        for (int i = 0; out.length() < size; i++) {
+            comma(out, i);
+            value(out, random);
+        }
+        return out.append(']').toString();
+    }
+
+    byte[] bytes(int size) {
+        return generate(size).getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Одно значение - элемент корневого массива
+    abstract void value(StringBuilder out, Random random);
+
+    private static void comma(StringBuilder out, int index) {
+        if (index > 0) {
+            out.append(',');
+        }
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    // Строка JSON из слов с редкими escape-последовательностями
+    private static void text(StringBuilder out, Random random, int length) {
+        out.append('"');
+        int start = out.length();
+        while (out.length() - start < length) {
+            switch (random.nextInt(40)) {
+                case 0 -> out.append("\\n");
+                case 1 -> out.append("\\\"");
+                case 2 -> out.append("\\u00e9");
+                default -> out.append(word(random)).append(' ');
+            }
+        }
+        out.append('"');
+    }
+}
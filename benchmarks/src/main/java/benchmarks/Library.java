@@ -0,0 +1,190 @@
+package benchmarks;
+
+import model.JsonArray;
+import model.JsonValue;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Iterator;
+
+// Доступ к классам библиотеки из бенчмарков
+// Библиотека лежит в безымянном пакете, а JMH требует, чтобы бенчмарки были в именованном пакете;
+// из именованного пакета классы безымянного недоступны по имени. Поэтому конструкторы и методы берутся
+// через MethodHandle один раз при загрузке класса: static final ссылки JIT сворачивает в константы,
+// и вызов через invokeExact компилируется так же, как прямой вызов
+// Все классы загружены одним загрузчиком в один безымянный модуль, поэтому privateLookupIn открывает
+// и package-private классы (JsonTokenizer, JsonParser, наблюдатели, ObjectMapper)
+final class Library {
+
+    // JsonToken.String - токен, после которого доступно значение строки
+    static final Object STRING_TOKEN;
+
+    private static final MethodHandle TOKENIZER_OF_STRING;
+    private static final MethodHandle TOKENIZER_OF_STRING_ENGINE;
+    private static final MethodHandle TOKENIZER_OF_BYTES;
+    private static final MethodHandle TOKENIZER_OF_BYTES_INDEXED;
+    private static final MethodHandle GET_CHARS;
+    private static final MethodHandle NEW_INDEXER;
+    private static final MethodHandle INDEX;
+    private static final MethodHandle NEW_PARSER;
+    private static final MethodHandle NEW_PARSER_ENGINE;
+    private static final MethodHandle PARSE;
+    private static final MethodHandle NEW_JSON_OBSERVER;
+    private static final MethodHandle NEW_PLAIN_OBSERVER;
+    private static final MethodHandle NEW_TAPE_OBSERVER;
+    private static final MethodHandle NEW_OBJECT_MAPPER;
+    private static final MethodHandle AS_PROVIDED;
+    private static final MethodHandle FROM_OBJECT;
+    private static final MethodHandle TO_BYTES;
+    private static final MethodHandle BIND_STRING;
+    private static final MethodHandle PARSE_ARRAY_PARALLEL;
+
+    static {
+        try {
+            Class<?> tokenizer = Class.forName("JsonTokenizer");
+            Class<?> parser = Class.forName("JsonParser");
+            Class<?> observer = Class.forName("JsonParser$Observer");
+            Class<?> mapper = Class.forName("ObjectMapper");
+            Class<?> json = Class.forName("Json");
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(tokenizer, MethodHandles.lookup());
+
+            TOKENIZER_OF_STRING = lookup.findStatic(tokenizer, "of", MethodType.methodType(tokenizer, String.class))
+                    .asType(MethodType.methodType(Iterator.class, String.class));
+            TOKENIZER_OF_BYTES = lookup.findStatic(tokenizer, "of", MethodType.methodType(tokenizer, byte[].class))
+                    .asType(MethodType.methodType(Iterator.class, byte[].class));
+            Class<?> indexer = Class.forName("StructuralIndexer");
+            Class<?> indexMode = Class.forName("StructuralIndexer$Mode");
+            TOKENIZER_OF_BYTES_INDEXED = lookup.findStatic(tokenizer, "of", MethodType.methodType(tokenizer, byte[].class, indexMode))
+                    .asType(MethodType.methodType(Iterator.class, byte[].class, Object.class));
+            NEW_INDEXER = lookup.findStatic(indexer, "create", MethodType.methodType(indexer, indexMode))
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            INDEX = lookup.findVirtual(indexer, "index", MethodType.methodType(int[].class, byte[].class, int.class, int.class))
+                    .asType(MethodType.methodType(int[].class, Object.class, byte[].class, int.class, int.class));
+            GET_CHARS = lookup.findVirtual(tokenizer, "getChars", MethodType.methodType(CharSequence.class))
+                    .asType(MethodType.methodType(CharSequence.class, Iterator.class));
+            STRING_TOKEN = constant("JsonToken", "String");
+            Class<?> tokenizerEngine = Class.forName("JsonTokenizer$Engine");
+            TOKENIZER_OF_STRING_ENGINE = lookup.findStatic(tokenizer, "of", MethodType.methodType(tokenizer, String.class, tokenizerEngine))
+                    .asType(MethodType.methodType(Iterator.class, String.class, Object.class));
+            Class<?> parserEngine = Class.forName("JsonParser$Engine");
+            NEW_PARSER_ENGINE = lookup.findConstructor(parser, MethodType.methodType(void.class, tokenizer, observer, parserEngine))
+                    .asType(MethodType.methodType(Object.class, Object.class, Object.class, Object.class));
+            NEW_PARSER = lookup.findConstructor(parser, MethodType.methodType(void.class, tokenizer, observer))
+                    .asType(MethodType.methodType(Object.class, Object.class, Object.class));
+            PARSE = lookup.findVirtual(parser, "parse", MethodType.methodType(Object.class))
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            NEW_JSON_OBSERVER = constructor(lookup, "JsonObserver");
+            NEW_PLAIN_OBSERVER = constructor(lookup, "PlainObserver");
+            NEW_TAPE_OBSERVER = constructor(lookup, "TapeObserver");
+            NEW_OBJECT_MAPPER = constructor(lookup, "ObjectMapper");
+            AS_PROVIDED = lookup.findVirtual(mapper, "asProvided", MethodType.methodType(Object.class, JsonValue.class, Class.class))
+                    .asType(MethodType.methodType(Object.class, Object.class, JsonValue.class, Class.class));
+            FROM_OBJECT = lookup.findStatic(json, "from", MethodType.methodType(JsonValue.class, Object.class));
+            TO_BYTES = lookup.findStatic(json, "toBytes", MethodType.methodType(byte[].class, Object.class));
+            BIND_STRING = lookup.findStatic(json, "parseObject", MethodType.methodType(Object.class, String.class, Class.class));
+            PARSE_ARRAY_PARALLEL = lookup.findStatic(json, "parseJsonArrayParallel", MethodType.methodType(JsonArray.class, byte[].class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private Library() {
+    }
+
+    private static MethodHandle constructor(MethodHandles.Lookup lookup, String className) throws ReflectiveOperationException {
+        Class<?> type = Class.forName(className);
+        return lookup.findConstructor(type, MethodType.methodType(void.class)).asType(MethodType.methodType(Object.class));
+    }
+
+    // JsonTokenizer.of(String) / JsonTokenizer.of(byte[]); токенайзер - Iterator<JsonToken>, End - последний токен
+    static Iterator<?> tokenizer(String input) throws Throwable {
+        return (Iterator<?>) TOKENIZER_OF_STRING.invokeExact(input);
+    }
+
+    static Iterator<?> tokenizer(byte[] input) throws Throwable {
+        return (Iterator<?>) TOKENIZER_OF_BYTES.invokeExact(input);
+    }
+
+    // Константа перечисления библиотеки по имени, например constant("JsonParser$Engine", "FlatTable")
+    // Вызывается в @Setup, поэтому достаточно отражения
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Object constant(String enumClass, String name) throws ClassNotFoundException {
+        return Enum.valueOf((Class) Class.forName(enumClass), name);
+    }
+
+    // JsonTokenizer.of(String, engine): Scanner - CharJsonTokenizer, Regex - RegexJsonTokenizer
+    static Iterator<?> tokenizer(String input, Object engine) throws Throwable {
+        return (Iterator<?>) TOKENIZER_OF_STRING_ENGINE.invokeExact(input, engine);
+    }
+
+    // JsonTokenizer.of(byte[], mode): прямой проход (Off) или проход по структурному индексу
+    static Iterator<?> tokenizer(byte[] input, Object indexMode) throws Throwable {
+        return (Iterator<?>) TOKENIZER_OF_BYTES_INDEXED.invokeExact(input, indexMode);
+    }
+
+    // Длина значения текущей строки: tokenizer.getChars() декодирует escape-последовательности
+    static int stringLength(Iterator<?> tokenizer) throws Throwable {
+        return ((CharSequence) GET_CHARS.invokeExact(tokenizer)).length();
+    }
+
+    // StructuralIndexer.create(mode).index(input, 0, input.length) - только построение индекса
+    static int[] index(byte[] input, Object indexMode) throws Throwable {
+        Object indexer = (Object) NEW_INDEXER.invokeExact(indexMode);
+        return (int[]) INDEX.invokeExact(indexer, input, 0, input.length);
+    }
+
+    // new JsonParser<>(tokenizer, observer).parse()
+    static Object parse(Iterator<?> tokenizer, Object observer) throws Throwable {
+        Object parser = (Object) NEW_PARSER.invokeExact((Object) tokenizer, observer);
+        return (Object) PARSE.invokeExact(parser);
+    }
+
+    // new JsonParser<>(tokenizer, observer, engine).parse(); engine - константа JsonParser.Engine
+    static Object parse(Iterator<?> tokenizer, Object observer, Object engine) throws Throwable {
+        Object parser = (Object) NEW_PARSER_ENGINE.invokeExact((Object) tokenizer, observer, engine);
+        return (Object) PARSE.invokeExact(parser);
+    }
+
+    static Object newJsonObserver() throws Throwable {
+        return (Object) NEW_JSON_OBSERVER.invokeExact();
+    }
+
+    static Object newPlainObserver() throws Throwable {
+        return (Object) NEW_PLAIN_OBSERVER.invokeExact();
+    }
+
+    static Object newTapeObserver() throws Throwable {
+        return (Object) NEW_TAPE_OBSERVER.invokeExact();
+    }
+
+    static Object newObjectMapper() throws Throwable {
+        return (Object) NEW_OBJECT_MAPPER.invokeExact();
+    }
+
+    // ObjectMapper.asProvided(source, type)
+    static Object asProvided(Object mapper, JsonValue source, Class<?> type) throws Throwable {
+        return (Object) AS_PROVIDED.invokeExact(mapper, source, type);
+    }
+
+    // Json.from(object) - ObjectMapper.fromObject
+    static JsonValue fromObject(Object object) throws Throwable {
+        return (JsonValue) FROM_OBJECT.invokeExact(object);
+    }
+
+    // Json.toBytes(object) - запись POJO в UTF-8 без дерева JsonValue
+    static byte[] toBytes(Object object) throws Throwable {
+        return (byte[]) TO_BYTES.invokeExact(object);
+    }
+
+    // Json.parseObject(input, type) - разбор сразу в поля объекта (BindingObserver)
+    static Object bind(String input, Class<?> type) throws Throwable {
+        return (Object) BIND_STRING.invokeExact(input, type);
+    }
+
+    // Json.parseJsonArrayParallel(input) - структурный проход и разбор элементов в текущем fork-join пуле
+    static JsonArray parseArrayParallel(byte[] input) throws Throwable {
+        return (JsonArray) PARSE_ARRAY_PARALLEL.invokeExact(input);
+    }
+
+}
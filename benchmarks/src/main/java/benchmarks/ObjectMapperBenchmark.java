@@ -0,0 +1,71 @@
+package benchmarks;
+
+import model.JsonValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// ObjectMapper на POJO заказа (Pojos.Order) с items позициями:
+// fromObject - POJO в дерево, asProvided - дерево в POJO, bind - разбор строки сразу в поля (Json.parseObject),
+// toBytes - запись POJO в UTF-8 без дерева
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectMapperBenchmark {
+
+    @Param({"10", "1000"})
+    public int items;
+
+    private Pojos.Order order;
+    private JsonValue tree;
+    private String text;
+    private int length;
+    private Object mapper;
+
+    @Setup
+    public void setUp() throws Throwable {
+        order = Pojos.order(items);
+        tree = Library.fromObject(order);
+        text = tree.toString();
+        length = text.getBytes(StandardCharsets.UTF_8).length;
+        mapper = Library.newObjectMapper();
+    }
+
+    @Benchmark
+    public JsonValue fromObject(Throughput throughput) throws Throwable {
+        throughput.add(length);
+        return Library.fromObject(order);
+    }
+
+    @Benchmark
+    public Object asProvided(Throughput throughput) throws Throwable {
+        throughput.add(length);
+        return Library.asProvided(mapper, tree, Pojos.Order.class);
+    }
+
+    @Benchmark
+    public Object bind(Throughput throughput) throws Throwable {
+        throughput.add(length);
+        return Library.bind(text, Pojos.Order.class);
+    }
+
+    @Benchmark
+    public byte[] toBytes(Throughput throughput) throws Throwable {
+        throughput.add(length);
+        return Library.toBytes(order);
+    }
+}
@@ -0,0 +1,80 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Масштабирование Json.parseJsonArrayParallel по числу потоков: 1, 2, 4 и N (по числу ядер)
+// Разбор запускается задачей своего ForkJoinPool, поэтому параллельный поток элементов выполняется в нем,
+// а не в общем пуле; sequential - тот же массив одним JsonParser, точка отсчета для ускорения
+// Размер входа - SIZE символов, больше порога ParallelArrayParser.PARALLEL_THRESHOLD (1 МБ)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelArrayBenchmark {
+
+    static final int SIZE = 16 * 1024 * 1024;
+
+    @Param({"numbers", "strings", "twitter", "citm"})
+    public Corpus corpus;
+
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        bytes = corpus.array(SIZE).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Pool {
+        @Param({"1", "2", "4", "N"})
+        public String threads;
+
+        ForkJoinPool pool;
+
+        @Setup
+        public void setUp() {
+            pool = new ForkJoinPool(threads.equals("N") ? Runtime.getRuntime().availableProcessors()
+                    : Integer.parseInt(threads));
+        }
+
+        @TearDown
+        public void tearDown() {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public Object parallel(Pool pool, Throughput throughput) throws Exception {
+        throughput.add(bytes.length);
+        return pool.pool.submit(() -> {
+            try {
+                return Library.parseArrayParallel(bytes);
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }).get();
+    }
+
+    @Benchmark
+    public Object sequential(Throughput throughput) throws Throwable {
+        throughput.add(bytes.length);
+        return Library.parse(Library.tokenizer(bytes), Library.newJsonObserver());
+    }
+}
@@ -0,0 +1,69 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+// Полный разбор JsonParser с разными наблюдателями: дерево model (JsonObserver),
+// стандартные java объекты (PlainObserver) и лента TapeDocument (TapeObserver)
+// engine - JsonParser.Engine: FlatTable (по умолчанию), RecursiveDescent и исходная LookupTable
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+    @Param
+    public Corpus corpus;
+
+    @Param({"string", "utf8"})
+    public String input;
+
+    @Param({"FlatTable", "RecursiveDescent", "LookupTable"})
+    public String engine;
+
+    private String text;
+    private byte[] bytes;
+    private Object parserEngine;
+
+    @Setup
+    public void setUp() throws ClassNotFoundException {
+        text = corpus.generate(Corpus.DEFAULT_SIZE);
+        bytes = text.getBytes(StandardCharsets.UTF_8);
+        parserEngine = Library.constant("JsonParser$Engine", engine);
+    }
+
+    @Benchmark
+    public Object jsonObserver(Throughput throughput) throws Throwable {
+        return Library.parse(tokenizer(throughput), Library.newJsonObserver(), parserEngine);
+    }
+
+    @Benchmark
+    public Object plainObserver(Throughput throughput) throws Throwable {
+        return Library.parse(tokenizer(throughput), Library.newPlainObserver(), parserEngine);
+    }
+
+    @Benchmark
+    public Object tapeObserver(Throughput throughput) throws Throwable {
+        return Library.parse(tokenizer(throughput), Library.newTapeObserver(), parserEngine);
+    }
+
+    private Iterator<?> tokenizer(Throughput throughput) throws Throwable {
+        throughput.add(bytes.length);
+        return input.equals("string") ? Library.tokenizer(text) : Library.tokenizer(bytes);
+    }
+}
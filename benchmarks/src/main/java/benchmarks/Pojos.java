@@ -0,0 +1,71 @@
+package benchmarks;
+
+import java.util.Random;
+
+// Типичные POJO для ObjectMapper: примитивы, строки, вложенный объект, массивы объектов и примитивов
+// Коллекции не используются: asProvided заполняет коллекцию без информации о типе элементов
+public final class Pojos {
+
+    private Pojos() {
+    }
+
+    public static class Order {
+        public long id;
+        public String customer;
+        public boolean paid;
+        public double total;
+        public Address address;
+        public Item[] items;
+        public int[] quantities;
+        public String[] tags;
+
+        public Order() {
+        }
+    }
+
+    public static class Item {
+        public String sku;
+        public String title;
+        public double price;
+        public int count;
+
+        public Item() {
+        }
+    }
+
+    public static class Address {
+        public String city;
+        public String street;
+        public int zip;
+
+        public Address() {
+        }
+    }
+
+    // Заказ с items позициями; содержимое детерминировано
+    static Order order(int items) {
+        var random = new Random(Corpus.SEED);
+        var order = new Order();
+        order.id = 1_000_000_000_000L + random.nextInt(1_000_000);
+        order.customer = "customer-" + random.nextInt(10_000);
+        order.paid = random.nextBoolean();
+        order.address = new Address();
+        order.address.city = "Санкт-Петербург";
+        order.address.street = "Политехническая, 29";
+        order.address.zip = 195_251;
+        order.items = new Item[items];
+        order.quantities = new int[items];
+        for (int i = 0; i < items; i++) {
+            var item = new Item();
+            item.sku = "SKU-" + random.nextInt(1_000_000);
+            item.title = "item \"" + i + "\" of the order";
+            item.price = Math.round(random.nextDouble() * 100_000) / 100.0;
+            item.count = 1 + random.nextInt(5);
+            order.items[i] = item;
+            order.quantities[i] = item.count;
+            order.total += item.price * item.count;
+        }
+        order.tags = new String[]{"express", "gift", "paid-online"};
+        return order;
+    }
+}
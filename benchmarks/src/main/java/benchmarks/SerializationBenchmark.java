@@ -0,0 +1,57 @@
+package benchmarks;
+
+import model.JsonValue;
+import model.JsonWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Сериализация дерева model: toString() и запись в UTF-8 через JsonWriter в переиспользуемый поток
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param
+    public Corpus corpus;
+
+    private JsonValue tree;
+    private int length;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    @Setup
+    public void setUp() throws Throwable {
+        byte[] bytes = corpus.bytes(Corpus.DEFAULT_SIZE);
+        tree = (JsonValue) Library.parse(Library.tokenizer(bytes), Library.newJsonObserver());
+        length = tree.toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @Benchmark
+    public String toJsonString(Throughput throughput) {
+        throughput.add(length);
+        return tree.toString();
+    }
+
+    @Benchmark
+    public int writeUtf8(Throughput throughput) {
+        throughput.add(length);
+        out.reset();
+        new JsonWriter(out).write(tree).flush();
+        return out.size();
+    }
+}
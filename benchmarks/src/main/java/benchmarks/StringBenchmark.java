@@ -0,0 +1,91 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Сканирование строк токенайзером: массив строк одного вида и длины
+// shape: plain - только ASCII без escape-последовательностей (быстрый путь: SWAR для UTF-8, String.indexOf для String),
+// escaped - escape-последовательность примерно на каждые 8 символов, nonAscii - кириллица и иероглифы без escape
+// length - средняя длина строки в символах; input: string - CharJsonTokenizer, utf8 - Utf8JsonTokenizer
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringBenchmark {
+
+    private static final String ASCII = "abcdefghijklmnopqrstuvwxyz0123456789 ";
+    private static final String NON_ASCII = "городданные東京大阪データ";
+    private static final String[] ESCAPES = {"\\n", "\\t", "\\\"", "\\\\", "\\/", "\\u00e9", "\\ud83d\\ude00"};
+
+    @Param({"plain", "escaped", "nonAscii"})
+    public String shape;
+
+    @Param({"16", "256"})
+    public int length;
+
+    @Param({"string", "utf8"})
+    public String input;
+
+    private String text;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(Corpus.SEED);
+        var out = new StringBuilder(Corpus.DEFAULT_SIZE + 1024).append('[');
+        for (int i = 0; out.length() < Corpus.DEFAULT_SIZE; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append('"');
+            int n = length / 2 + random.nextInt(length);
+            for (int k = 0; k < n; k++) {
+                switch (shape) {
+                    case "plain" -> out.append(ASCII.charAt(random.nextInt(ASCII.length())));
+                    case "escaped" -> {
+                        if (random.nextInt(8) == 0) {
+                            out.append(ESCAPES[random.nextInt(ESCAPES.length)]);
+                        } else {
+                            out.append(ASCII.charAt(random.nextInt(ASCII.length())));
+                        }
+                    }
+                    case "nonAscii" -> out.append(NON_ASCII.charAt(random.nextInt(NON_ASCII.length())));
+                    default -> throw new IllegalArgumentException(shape);
+                }
+            }
+            out.append('"');
+        }
+        text = out.append(']').toString();
+        bytes = text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Значения строк запрашиваются, как это делает парсер: без этого декодирование escape-последовательностей не измеряется
+    @Benchmark
+    public int strings(Throughput throughput) throws Throwable {
+        Iterator<?> tokenizer = input.equals("string") ? Library.tokenizer(text) : Library.tokenizer(bytes);
+        int count = 0;
+        while (tokenizer.hasNext()) {
+            if (tokenizer.next() == Library.STRING_TOKEN) {
+                count += Library.stringLength(tokenizer);
+            }
+        }
+        throughput.add(bytes.length);
+        return count;
+    }
+}
@@ -0,0 +1,83 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+// Токенизация byte[] напрямую (Off) и по структурному индексу (Scalar, Vector) - байты в секунду для каждого пути
+// index - только построение индекса: скалярная и векторная классификация блоков
+// Модуль jdk.incubator.vector подключается во всех форках, чтобы пути отличались только выбранным режимом
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class StructuralIndexBenchmark {
+
+    @Param({"numbers", "strings", "twitter", "citm"})
+    public Corpus corpus;
+
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        bytes = corpus.generate(Corpus.DEFAULT_SIZE).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @State(Scope.Benchmark)
+    public static class TokenizerMode {
+        @Param({"Off", "Scalar", "Vector"})
+        public String mode;
+
+        Object value;
+
+        @Setup
+        public void setUp() throws Throwable {
+            value = Library.constant("StructuralIndexer$Mode", mode);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class IndexerMode {
+        @Param({"Scalar", "Vector"})
+        public String mode;
+
+        Object value;
+
+        @Setup
+        public void setUp() throws Throwable {
+            value = Library.constant("StructuralIndexer$Mode", mode);
+        }
+    }
+
+    @Benchmark
+    public int tokens(TokenizerMode mode, Throughput throughput) throws Throwable {
+        Iterator<?> tokenizer = Library.tokenizer(bytes, mode.value);
+        int count = 0;
+        while (tokenizer.hasNext()) {
+            tokenizer.next();
+            count++;
+        }
+        throughput.add(bytes.length);
+        return count;
+    }
+
+    @Benchmark
+    public int[] index(IndexerMode mode, Throughput throughput) throws Throwable {
+        throughput.add(bytes.length);
+        return Library.index(bytes, mode.value);
+    }
+}
@@ -0,0 +1,26 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Объем обработанного JSON в мегабайтах UTF-8
+// Счетчик типа OPERATIONS JMH делит на время итерации, поэтому в отчете он выводится как MB/s
+// (строка "megabytes" с единицами ops/s)
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class Throughput {
+
+    public double megabytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        megabytes = 0;
+    }
+
+    void add(int bytes) {
+        megabytes += bytes / 1_000_000.0;
+    }
+}
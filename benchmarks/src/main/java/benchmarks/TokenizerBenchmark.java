@@ -0,0 +1,66 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+// Только лексический анализ: проход токенайзера до End без парсера и наблюдателя
+// tokenizer: Scanner и Regex - JsonTokenizer.Engine по String (CharJsonTokenizer, RegexJsonTokenizer);
+// Utf8 - прямой проход Utf8JsonTokenizer по byte[], Utf8ScalarIndex и Utf8VectorIndex - проход по структурному индексу
+// Модуль jdk.incubator.vector подключен во всех форках, чтобы Utf8VectorIndex был доступен
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class TokenizerBenchmark {
+
+    @Param
+    public Corpus corpus;
+
+    @Param({"Scanner", "Regex", "Utf8", "Utf8ScalarIndex", "Utf8VectorIndex"})
+    public String tokenizer;
+
+    private String text;
+    private byte[] bytes;
+    private Object engine;     // JsonTokenizer.Engine для входа String
+    private Object indexMode;  // StructuralIndexer.Mode для входа byte[]
+
+    @Setup
+    public void setUp() throws ClassNotFoundException {
+        text = corpus.generate(Corpus.DEFAULT_SIZE);
+        bytes = text.getBytes(StandardCharsets.UTF_8);
+        switch (tokenizer) {
+            case "Scanner", "Regex" -> engine = Library.constant("JsonTokenizer$Engine", tokenizer);
+            case "Utf8" -> indexMode = Library.constant("StructuralIndexer$Mode", "Off");
+            case "Utf8ScalarIndex" -> indexMode = Library.constant("StructuralIndexer$Mode", "Scalar");
+            case "Utf8VectorIndex" -> indexMode = Library.constant("StructuralIndexer$Mode", "Vector");
+            default -> throw new IllegalArgumentException(tokenizer);
+        }
+    }
+
+    @Benchmark
+    public int tokens(Throughput throughput) throws Throwable {
+        Iterator<?> tokens = engine != null ? Library.tokenizer(text, engine) : Library.tokenizer(bytes, indexMode);
+        int count = 0;
+        while (tokens.hasNext()) {
+            tokens.next();
+            count++;
+        }
+        throughput.add(bytes.length);
+        return count;
+    }
+}
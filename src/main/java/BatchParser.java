@@ -0,0 +1,74 @@
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Пакетный разбор множества независимых документов (String или byte[]) для Json.parseAll / parseAllAsync
+// Запускается не более availableProcessors() задач; каждая берет следующий документ из общего счетчика,
+// поэтому документы разного размера распределяются между задачами сами. Результат i-го документа
+// записывается в ячейку i, и порядок результатов совпадает с порядком входа
+//
+// Буферы токенайзеров и стеки переиспользуются через пул сессий (JsonParserSession), а не ThreadLocal:
+// у виртуального потока свой ThreadLocal, который живет одну задачу, а пул переживает и задачи, и потоки
+class BatchParser {
+
+    // по умолчанию каждая задача - в своем виртуальном потоке
+    static final Executor VIRTUAL_THREADS = task -> Thread.ofVirtual().name("json-parse").start(task);
+
+    private static final int WORKERS = Runtime.getRuntime().availableProcessors();
+    // лишние сессии после пика нагрузки и сессии с большими буферами не сохраняются, чтобы не держать память;
+    // сессия в пуле не ссылается на документы вызывающего
+    private static final ArrayBlockingQueue<JsonParserSession> sessions = new ArrayBlockingQueue<>(2 * WORKERS);
+
+    private final Object[] inputs;
+    private final ParseResult[] results;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private BatchParser(Collection<?> inputs) {
+        this.inputs = inputs.toArray();
+        this.results = new ParseResult[this.inputs.length];
+    }
+
+    static CompletableFuture<List<ParseResult>> parseAsync(Collection<?> inputs, Executor executor) {
+        var batch = new BatchParser(inputs);
+        int workers = Math.min(WORKERS, batch.inputs.length);
+        var tasks = new CompletableFuture<?>[workers];
+        for (int i = 0; i < workers; i++) {
+            tasks[i] = CompletableFuture.runAsync(batch::work, executor);
+        }
+        return CompletableFuture.allOf(tasks).thenApply(ignored -> Arrays.asList(batch.results));
+    }
+
+    private void work() {
+        JsonParserSession session = sessions.poll();
+        if (session == null) {
+            session = new JsonParserSession();
+        }
+        for (int i = next.getAndIncrement(); i < inputs.length; i = next.getAndIncrement()) {
+            results[i] = parse(session, inputs[i]);
+        }
+        if (session.clear()) {
+            sessions.offer(session);
+        }
+    }
+
+    private static ParseResult parse(JsonParserSession session, Object input) {
+        try {
+            return ParseResult.success(switch (input) {
+                case String string -> session.parse(string);
+                case byte[] bytes -> session.parse(bytes);
+                case null -> throw new JsonException("input is null");
+                default -> throw new JsonException("unsupported input " + input.getClass().getName()
+                        + ", expected String or byte[]");
+            });
+        } catch (JsonException e) {
+            return ParseResult.failure(e);
+        } catch (RuntimeException e) {
+            // парсер сообщает о некоторых ошибках входа стандартными исключениями
+            return ParseResult.failure(new JsonException(String.valueOf(e.getMessage()), e));
+        }
+    }
+}
@@ -0,0 +1,321 @@
+import model.JsonValue;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+// Наблюдатель, который записывает значения прямо в поля объекта заданного класса, без промежуточного дерева JsonObject
+// Правила преобразования те же, что у ObjectMapper.asProvided: тип следующего значения берется из поля
+// (через ClassCodec) или из типа элементов массива, и по нему число разбирается сразу в нужный примитив
+// без JsonNumber и BigDecimal. Содержимое полей-Map собирается JsonObserver и передается asProvided
+//
+// В грамматике нет действия "конец объекта/массива": объект или массив считается законченным,
+// когда приходит PutEntry/AddElement его родителя или вызывается result()
+class BindingObserver<T> implements JsonParser.Observer<T> {
+
+    private final Class<T> type;
+    private final ObjectMapper mapper;
+    private final Deque<Frame> frames = new ArrayDeque<>();
+
+    BindingObserver(Class<T> type, ObjectMapper mapper) {
+        this.type = type;
+        this.mapper = mapper;
+        frames.push(new Frame() {
+            @Override
+            Class<?> valueType() {
+                return type;
+            }
+        });
+    }
+
+    @Override
+    public Class<?> target() {
+        return type;
+    }
+
+    // Для примитивного класса корня (int.class) результат - обертка, как у ObjectMapper.asProvided
+    @Override
+    @SuppressWarnings("unchecked")
+    public T result() {
+        while (frames.size() > 1) {
+            finishTop();
+        }
+        return (T) frames.peek().pending;
+    }
+
+    @Override
+    public void accept(JsonParser.Action action, JsonTokenizer tokenizer) {
+        Frame top = frames.peek();
+        if (top instanceof DelegateFrame delegate) {
+            if (!delegate.complete(action)) {
+                delegate.forward(action, tokenizer);
+                return;
+            }
+            finishTop();
+            top = frames.peek();
+        }
+        switch (action) {
+            case CreateObject -> frames.push(createObject(top.valueType(), tokenizer));
+            case CreateArray -> frames.push(createArray(top.valueType()));
+            case KeySetValue -> ((ObjectFrame) top).key(tokenizer.getKey());
+            case StringSetValue -> top.accept(toString(top.valueType(), tokenizer));
+            case NumberSetValue -> top.accept(toNumber(top.valueType(), tokenizer));
+            case TrueSetValue -> top.accept(toBoolean(top.valueType(), true));
+            case FalseSetValue -> top.accept(toBoolean(top.valueType(), false));
+            case NullSetValue -> top.accept(null);
+            case PutEntry, AddElement -> {
+                // значение еще в незаконченном вложенном объекте/массиве - он закончен
+                if (!top.hasPending) {
+                    finishTop();
+                    top = frames.peek();
+                }
+                top.add();
+            }
+            default -> throw new IllegalStateException("Unexpected action: " + action);
+        }
+    }
+
+    private void finishTop() {
+        Object value = frames.pop().finish();
+        frames.peek().accept(value);
+    }
+
+    private Frame createObject(Class<?> type, JsonTokenizer tokenizer) {
+        if (Map.class.isAssignableFrom(type)) {
+            var delegate = new DelegateFrame(type, mapper);
+            delegate.forward(JsonParser.Action.CreateObject, tokenizer);
+            return delegate;
+        }
+        return new ObjectFrame(ClassCodec.of(type));
+    }
+
+    private Frame createArray(Class<?> type) {
+        if (type.isArray()) {
+            return new ArrayFrame(type.getComponentType());
+        }
+        if (!Collection.class.isAssignableFrom(type)) {
+            throw new JsonException(type + " is not a collection");
+        }
+        return new CollectionFrame(type);
+    }
+
+    private static Object toBoolean(Class<?> type, boolean value) {
+        if (!Boolean.TYPE.equals(type)) {
+            throw new RuntimeException("is not boolean");
+        }
+        return value;
+    }
+
+    private static Object toString(Class<?> type, JsonTokenizer tokenizer) {
+        if (!String.class.equals(type)) {
+            throw new JsonException(type + " is not a string type");
+        }
+        return tokenizer.getChars().toString();
+    }
+
+    // Число разбирается сразу в тип поля
+    // Целое в пределах типа и конечный double берутся прямо из токена; остальное (дробное число в целом поле,
+    // выход за диапазон, бесконечность, -0.0, float) - через asProvided, чтобы значение и исключение были те же
+    private Object toNumber(Class<?> type, JsonTokenizer tokenizer) {
+        if (Integer.TYPE.equals(type) || Long.TYPE.equals(type) || Short.TYPE.equals(type) || Byte.TYPE.equals(type)) {
+            if (tokenizer.readNumber()) {
+                long value = tokenizer.readLong();
+                if (Long.TYPE.equals(type)) {
+                    return value;
+                }
+                if (Integer.TYPE.equals(type) && (int) value == value) {
+                    return (int) value;
+                }
+                if (Short.TYPE.equals(type) && (short) value == value) {
+                    return (short) value;
+                }
+                if (Byte.TYPE.equals(type) && (byte) value == value) {
+                    return (byte) value;
+                }
+            }
+            return mapper.convert(tokenizer.getNumber(), type);
+        }
+        if (Double.TYPE.equals(type)) {
+            double value = tokenizer.getDouble();
+            if (Double.isFinite(value) && Double.doubleToRawLongBits(value) != Long.MIN_VALUE) {
+                return value;
+            }
+            return mapper.convert(tokenizer.getNumber(), type);
+        }
+        if (Float.TYPE.equals(type) || BigDecimal.class.equals(type)) {
+            return mapper.convert(tokenizer.getNumber(), type);
+        }
+        throw new JsonException(type + " is not numeric type");
+    }
+
+    // Незаконченное значение на стеке: принимает значения вложенных элементов
+    private abstract static class Frame {
+        Object pending;     // значение, ожидающее PutEntry/AddElement
+        boolean hasPending;
+
+        // тип следующего значения
+        abstract Class<?> valueType();
+
+        void accept(Object value) {
+            pending = value;
+            hasPending = true;
+        }
+
+        // PutEntry/AddElement: значение добавляется в объект или массив
+        void add() {
+            throw new IllegalStateException("Unexpected action for " + getClass().getSimpleName());
+        }
+
+        Object finish() {
+            return pending;
+        }
+    }
+
+    // Объект класса: значения записываются в поля сразу
+    private static final class ObjectFrame extends Frame {
+        private final ClassCodec codec;
+        private final Object target;
+        ClassCodec.Property property; // поле для текущего ключа; null - ожидается ключ
+
+        ObjectFrame(ClassCodec codec) {
+            this.codec = codec;
+            this.target = codec.newInstance();
+        }
+
+        void key(String key) {
+            property = codec.property(key);
+        }
+
+        @Override
+        Class<?> valueType() {
+            return property.type;
+        }
+
+        @Override
+        void add() {
+            property.set(target, pending);
+            property = null;
+            pending = null;
+            hasPending = false;
+        }
+
+        @Override
+        Object finish() {
+            return target;
+        }
+    }
+
+    // Массив java: длина заранее неизвестна, элементы копятся в растущем массиве нужного типа
+    private static final class ArrayFrame extends Frame {
+        private final Class<?> componentType;
+        private Object array;
+        private int size;
+
+        ArrayFrame(Class<?> componentType) {
+            this.componentType = componentType;
+            this.array = Array.newInstance(componentType, 8);
+        }
+
+        @Override
+        Class<?> valueType() {
+            return componentType;
+        }
+
+        @Override
+        void add() {
+            if (size == Array.getLength(array)) {
+                Object grown = Array.newInstance(componentType, size * 2);
+                System.arraycopy(array, 0, grown, 0, size);
+                array = grown;
+            }
+            Array.set(array, size++, pending);
+            pending = null;
+            hasPending = false;
+        }
+
+        @Override
+        Object finish() {
+            Object result = Array.newInstance(componentType, size);
+            System.arraycopy(array, 0, result, 0, size);
+            return result;
+        }
+    }
+
+    // Коллекция: создается так же, как в ObjectMapper.asProvided; тип элементов после стирания - Object
+    private static final class CollectionFrame extends Frame {
+        private final Collection<Object> collection;
+
+        @SuppressWarnings("unchecked")
+        CollectionFrame(Class<?> type) {
+            try {
+                collection = type.isAssignableFrom(List.class)
+                        ? new ArrayList<>()
+                        : (Collection<Object>) type.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        Class<?> valueType() {
+            return Object.class;
+        }
+
+        @Override
+        void add() {
+            collection.add(pending);
+            pending = null;
+            hasPending = false;
+        }
+
+        @Override
+        Object finish() {
+            return collection;
+        }
+    }
+
+    // Значение, тип которого задается содержимым (Map): поддерево собирается JsonObserver
+    // и преобразуется ObjectMapper.asProvided, когда закончено
+    private static final class DelegateFrame extends Frame {
+        private final Class<?> type;
+        private final ObjectMapper mapper;
+        private final JsonObserver observer = new JsonObserver();
+        private int values; // сколько значений сейчас на стеке observer
+
+        DelegateFrame(Class<?> type, ObjectMapper mapper) {
+            this.type = type;
+            this.mapper = mapper;
+        }
+
+        @Override
+        Class<?> valueType() {
+            return type;
+        }
+
+        // PutEntry/AddElement при единственном значении на стеке относится уже к родителю
+        // (ключи JsonObserver хранит отдельно, на стеке значений их нет)
+        boolean complete(JsonParser.Action action) {
+            return values == 1 && (action == JsonParser.Action.PutEntry || action == JsonParser.Action.AddElement);
+        }
+
+        void forward(JsonParser.Action action, JsonTokenizer tokenizer) {
+            observer.accept(action, tokenizer);
+            values += switch (action) {
+                case PutEntry, AddElement -> -1;
+                case KeySetValue -> 0;
+                default -> 1;
+            };
+        }
+
+        @Override
+        Object finish() {
+            JsonValue value = observer.result();
+            return mapper.convert(value, type);
+        }
+    }
+}
@@ -0,0 +1,396 @@
+import model.JsonString;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+// Лексический анализатор JSON без регулярных выражений
+// Идет по char[] напрямую, выбирает токен по первому символу и запоминает границы токена
+// вместо того, чтобы создавать подстроку на каждый токен
+// При чтении из Reader документ не держится в памяти целиком: символы читаются в окно фиксированного размера,
+// которое подкачивается по мере продвижения; незаконченный токен переносится в начало окна
+class CharJsonTokenizer extends JsonTokenizer {
+
+    static final int WINDOW_SIZE = 8192;
+    // Столько символов строки проверяется простым циклом, прежде чем перейти к String.indexOf
+    private static final int PLAIN_PREFIX = 32;
+
+    private char[] buf;
+    private int limit;
+    private int pos;
+    private boolean ended;
+    private long shifted; // сколько входа уже вытеснено из окна, за вычетом начального смещения
+    private final Reader source; // null, если весь вход уже лежит в buf
+    private String text; // исходная строка, совпадающая с buf[0, limit); null для Reader и char[]
+
+    // Границы текущего токена: для строки - содержимое без кавычек, для числа - весь литерал
+    private int tokenStart;
+    private int tokenEnd;
+    private int offset; // начало текущего токена, для строки - открывающая кавычка
+    private boolean escaped; // есть ли в текущей строке escape-последовательности
+
+    private final CharSlice slice = new CharSlice();
+    private char[] decoded = new char[0];
+
+    CharJsonTokenizer(String input) {
+        this(input.toCharArray(), 0, input.length());
+        this.text = input;
+    }
+
+    CharJsonTokenizer(char[] buf, int from, int to) {
+        this.buf = buf;
+        this.pos = from;
+        this.shifted = -from;
+        this.limit = to;
+        this.source = null;
+    }
+
+    CharJsonTokenizer(Reader source, int windowSize) {
+        this.buf = new char[windowSize];
+        this.source = source;
+    }
+
+    // Подготовка к следующему документу (JsonParserSession): строка копируется в собственный буфер токенайзера,
+    // который растет только при необходимости. Только для токенайзера, созданного из строки
+    CharJsonTokenizer reset(String input) {
+        if (source != null) {
+            throw new IllegalStateException("tokenizer reads from a Reader");
+        }
+        int length = input.length();
+        if (buf.length < length) {
+            buf = new char[Math.max(length, buf.length * 2)];
+        }
+        input.getChars(0, length, buf, 0);
+        text = input;
+        pos = 0;
+        limit = length;
+        ended = false;
+        shifted = 0;
+        tokenStart = 0;
+        tokenEnd = 0;
+        offset = 0;
+        escaped = false;
+        return this;
+    }
+
+    // Отпускает строку последнего документа (JsonParserSession.clear); буферы остаются для следующего
+    // Возвращает размер собственных буферов в символах
+    int release() {
+        text = null;
+        pos = 0;
+        limit = 0;
+        ended = true;
+        return buf.length + decoded.length;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !ended;
+    }
+
+    @Override
+    public JsonToken next() {
+        int p = pos;
+        while (true) {
+            if (p == limit) {
+                pos = p;
+                tokenStart = p;
+                if (!fill()) {
+                    ended = true;
+                    return JsonToken.End;
+                }
+                p = pos;
+            }
+            if (!isWhitespace(buf[p])) {
+                break;
+            }
+            p++;
+        }
+        tokenStart = p;
+        offset = p;
+        pos = p + 1;
+        switch (buf[p]) {
+            case '{':
+                return JsonToken.ObjectBegin;
+            case '}':
+                return JsonToken.ObjectEnd;
+            case '[':
+                return JsonToken.ArrayBegin;
+            case ']':
+                return JsonToken.ArrayEnd;
+            case ':':
+                return JsonToken.Colon;
+            case ',':
+                return JsonToken.Comma;
+            case '"':
+                return scanString();
+            case 't':
+                return scanLiteral("true", JsonToken.True);
+            case 'f':
+                return scanLiteral("false", JsonToken.False);
+            case 'n':
+                return scanLiteral("null", JsonToken.Null);
+            case '+':
+            case '-':
+            case '.':
+            case '0': case '1': case '2': case '3': case '4':
+            case '5': case '6': case '7': case '8': case '9':
+                return scanNumber();
+        }
+        throw new JsonException("input contains unrecognized token");
+    }
+
+    @Override
+    long inputLength() {
+        return shifted + limit;
+    }
+
+    @Override
+    int tokenOffset() {
+        return offset;
+    }
+
+    @Override
+    int position() {
+        return pos;
+    }
+
+    @Override
+    protected JsonString getString() {
+        return new JsonString(getChars().toString());
+    }
+
+    // Строка без escape-последовательностей отдается как участок буфера,
+    // иначе декодируется в переиспользуемый буфер decoded
+    @Override
+    protected CharSequence getChars() {
+        if (!escaped) {
+            return slice.set(buf, tokenStart, tokenEnd);
+        }
+        if (decoded.length < tokenEnd - tokenStart) {
+            decoded = new char[tokenEnd - tokenStart];
+        }
+        int n = 0;
+        for (int i = tokenStart; i < tokenEnd; i++) {
+            char c = buf[i];
+            if (c != '\\') {
+                decoded[n++] = c;
+                continue;
+            }
+            c = buf[++i];
+            switch (c) {
+                case 'u' -> {
+                    decoded[n++] = (char) hexValue(i + 1);
+                    i += 4;
+                }
+                case 'b' -> decoded[n++] = '\b';
+                case 'f' -> decoded[n++] = '\f';
+                case 'n' -> decoded[n++] = '\n';
+                case 'r' -> decoded[n++] = '\r';
+                case 't' -> decoded[n++] = '\t';
+                default -> decoded[n++] = c; // \" \\ \/
+            }
+        }
+        return slice.set(decoded, 0, n);
+    }
+
+    @Override
+    protected CharSequence getNumberText() {
+        return slice.set(buf, tokenStart, tokenEnd);
+    }
+
+    // STRING: " ( \["\\/bfnrt] | \\u[a-fA-F0-9]{4} | [^"\\] )* "
+    private JsonToken scanString() {
+        boolean esc = false;
+        boolean bulk = text != null;
+        int p = pos;
+        while (true) {
+            if (bulk) {
+                p = skipPlainChars(p);
+            }
+            if (p == limit) {
+                pos = p;
+                if (!fill()) {
+                    throw new JsonException("unterminated string");
+                }
+                p = pos;
+            }
+            char c = buf[p];
+            if (c == '"') {
+                break;
+            }
+            if (c == '\\') {
+                esc = true;
+                pos = p + 1;
+                p = skipEscape();
+                continue;
+            }
+            p++;
+        }
+        tokenStart++; // без открывающей кавычки
+        tokenEnd = p;
+        escaped = esc;
+        pos = p + 1;
+        return JsonToken.String;
+    }
+
+    // Пропускает обычные символы строки и возвращает позицию первого '"' или '\\' (limit, если их нет)
+    // Короткие строки дешевле проверить циклом; в длинных поиск идет через String.indexOf исходной строки -
+    // интринсик JIT, который сравнивает сразу много символов. Для char[] такого интринсика нет
+    private int skipPlainChars(int p) {
+        for (int stop = Math.min(limit, p + PLAIN_PREFIX); p < stop; p++) {
+            char c = buf[p];
+            if (c == '"' || c == '\\') {
+                return p;
+            }
+        }
+        if (p == limit) {
+            return p;
+        }
+        int quote = text.indexOf('"', p, limit);
+        if (quote < 0) {
+            quote = limit;
+        }
+        int backslash = text.indexOf('\\', p, quote);
+        return backslash < 0 ? quote : backslash;
+    }
+
+    // проверяет escape-последовательность, начинающуюся в pos (после '\'), и возвращает позицию за ней
+    private int skipEscape() {
+        if (!require(1)) {
+            throw new JsonException("unterminated string");
+        }
+        switch (buf[pos]) {
+            case '"', '\\', '/', 'b', 'f', 'n', 'r', 't':
+                return pos + 1;
+            case 'u':
+                if (require(5) && isHex(buf[pos + 1]) && isHex(buf[pos + 2]) && isHex(buf[pos + 3]) && isHex(buf[pos + 4])) {
+                    return pos + 5;
+                }
+        }
+        throw new JsonException("invalid escape sequence in string");
+    }
+
+    // NUMBER: [+-]? ( \d+ \.? \d* | \.\d+ ) ( [eE][+-]?\d+ )?
+    // сначала находится конец литерала (с подкачкой окна), затем литерал проверяется целиком
+    private JsonToken scanNumber() {
+        int p = pos;
+        while (true) {
+            if (p == limit) {
+                pos = p;
+                boolean more = fill();
+                p = pos; // окно сдвигается, даже если вход закончился
+                if (!more) {
+                    break;
+                }
+            }
+            char c = buf[p];
+            if ((c < '0' || c > '9') && c != '.' && c != 'e' && c != 'E' && c != '+' && c != '-') {
+                break;
+            }
+            p++;
+        }
+        int end = p;
+        p = tokenStart;
+        if (buf[p] == '+' || buf[p] == '-') {
+            p++;
+        }
+        int intStart = p;
+        p = skipDigits(p, end);
+        if (p > intStart) {
+            if (p < end && buf[p] == '.') {
+                p = skipDigits(p + 1, end);
+            }
+        } else {
+            int fracStart = p + 1;
+            if (p >= end || buf[p] != '.' || (p = skipDigits(fracStart, end)) == fracStart) {
+                throw new JsonException("input contains unrecognized token");
+            }
+        }
+        if (p < end && (buf[p] == 'e' || buf[p] == 'E')) {
+            int q = p + 1;
+            if (q < end && (buf[q] == '+' || buf[q] == '-')) {
+                q++;
+            }
+            int expEnd = skipDigits(q, end);
+            if (expEnd > q) {
+                p = expEnd;
+            }
+        }
+        if (p != end) {
+            throw new JsonException("input contains unrecognized token");
+        }
+        tokenEnd = end;
+        pos = end;
+        return JsonToken.Number;
+    }
+
+    private JsonToken scanLiteral(String literal, JsonToken token) {
+        pos = tokenStart;
+        if (!require(literal.length())) {
+            throw new JsonException("input contains unrecognized token");
+        }
+        for (int i = 1; i < literal.length(); i++) {
+            if (buf[pos + i] != literal.charAt(i)) {
+                throw new JsonException("input contains unrecognized token");
+            }
+        }
+        pos += literal.length();
+        return token;
+    }
+
+    private int skipDigits(int p, int end) {
+        while (p < end && buf[p] >= '0' && buf[p] <= '9') {
+            p++;
+        }
+        return p;
+    }
+
+    // гарантирует, что от pos доступно не меньше n символов; false, если вход закончился раньше
+    private boolean require(int n) {
+        while (limit - pos < n) {
+            if (!fill()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Подкачивает следующую порцию из Reader
+    // Символы текущего токена (начиная с tokenStart) сдвигаются в начало окна, при нехватке места окно растет
+    private boolean fill() {
+        if (source == null) {
+            return false;
+        }
+        int keep = Math.min(tokenStart, pos);
+        int length = limit - keep;
+        if (keep > 0) {
+            System.arraycopy(buf, keep, buf, 0, length);
+        } else if (length == buf.length) {
+            buf = Arrays.copyOf(buf, buf.length * 2);
+        }
+        shifted += keep;
+        pos -= keep;
+        tokenStart -= keep;
+        limit = length;
+        try {
+            int n = source.read(buf, limit, buf.length - limit);
+            if (n <= 0) {
+                return false;
+            }
+            limit += n;
+            return true;
+        } catch (IOException e) {
+            throw new JsonException("could not read input", e);
+        }
+    }
+
+    private int hexValue(int p) {
+        return Character.digit(buf[p], 16) << 12 | Character.digit(buf[p + 1], 16) << 8
+                | Character.digit(buf[p + 2], 16) << 4 | Character.digit(buf[p + 3], 16);
+    }
+
+    private static boolean isHex(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+}
@@ -0,0 +1,38 @@
+// Представление участка char[] как CharSequence без копирования
+// Один экземпляр переиспользуется токенайзером для каждого очередного значения
+final class CharSlice implements CharSequence {
+
+    private char[] array;
+    private int start;
+    private int length;
+
+    CharSlice set(char[] array, int start, int end) {
+        this.array = array;
+        this.start = start;
+        this.length = end - start;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return array[start + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        return new String(array, start + from, to - from);
+    }
+
+    @Override
+    public String toString() {
+        return new String(array, start, length);
+    }
+}
@@ -0,0 +1,188 @@
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+// Закэшированное описание класса для ObjectMapper: поля, доступ к ним и конструктор без аргументов
+// Рефлексия выполняется один раз на класс: доступ к полям и конструктор превращаются в MethodHandle,
+// для поиска поля по ключу JSON строится таблица имя -> поле
+// Кэш основан на ClassValue: потокобезопасен и не мешает выгрузке классов
+final class ClassCodec {
+
+    private static final ClassValue<ClassCodec> CODECS = new ClassValue<>() {
+        @Override
+        protected ClassCodec computeValue(Class<?> type) {
+            return new ClassCodec(type);
+        }
+    };
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<?> type;
+    private final Property[] properties;
+    private final Map<String, Property> byName;
+    private final MethodHandle constructor; // null, если нет открытого конструктора без аргументов
+
+    static ClassCodec of(Class<?> type) {
+        return CODECS.get(type);
+    }
+
+    // Поле класса: значение читается и записывается через MethodHandle с единой сигнатурой (Object)Object и (Object, Object)void
+    static final class Property {
+        final String name;
+        final Class<?> type;
+        private final Field field;
+        private final MethodHandle getter;
+        private final MethodHandle setter; // null, если запись через MethodHandle запрещена (static final)
+        // Чтение примитивного поля без упаковки: целые - как (Object)long, float и double - как (Object)double
+        private final MethodHandle primitiveGetter;
+
+        private Property(Field field) throws IllegalAccessException {
+            this.name = field.getName();
+            this.type = field.getType();
+            this.field = field;
+            field.setAccessible(true);
+            boolean isStatic = Modifier.isStatic(field.getModifiers());
+            MethodHandle get = LOOKUP.unreflectGetter(field);
+            if (isStatic) {
+                get = MethodHandles.dropArguments(get, 0, Object.class);
+            }
+            this.getter = get.asType(GETTER_TYPE);
+            if (type == int.class || type == long.class || type == short.class || type == byte.class) {
+                this.primitiveGetter = get.asType(MethodType.methodType(long.class, Object.class));
+            } else if (type == double.class || type == float.class) {
+                this.primitiveGetter = get.asType(MethodType.methodType(double.class, Object.class));
+            } else if (type == boolean.class) {
+                this.primitiveGetter = get.asType(MethodType.methodType(boolean.class, Object.class));
+            } else {
+                this.primitiveGetter = null;
+            }
+            MethodHandle set;
+            try {
+                set = LOOKUP.unreflectSetter(field);
+                if (isStatic) {
+                    set = MethodHandles.dropArguments(set, 0, Object.class);
+                }
+                set = set.asType(SETTER_TYPE);
+            } catch (IllegalAccessException e) {
+                set = null;
+            }
+            this.setter = set;
+        }
+
+        Object get(Object target) {
+            try {
+                return (Object) getter.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        // Для полей int, long, short, byte
+        long getLong(Object target) {
+            try {
+                return (long) primitiveGetter.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        // Для полей double, float
+        double getDouble(Object target) {
+            try {
+                return (double) primitiveGetter.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        boolean getBoolean(Object target) {
+            try {
+                return (boolean) primitiveGetter.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        void set(Object target, Object value) {
+            try {
+                if (setter == null) {
+                    field.set(target, value); // выбросит то же исключение, что и раньше
+                    return;
+                }
+                try {
+                    setter.invokeExact(target, value);
+                } catch (NullPointerException | ClassCastException e) {
+                    // null или значение не того типа: MethodHandle сообщает об этом иначе, чем Field.set,
+                    // поэтому запись повторяется через Field.set ради прежнего IllegalArgumentException
+                    field.set(target, value);
+                }
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private ClassCodec(Class<?> type) {
+        this.type = type;
+        Field[] fields = type.getDeclaredFields();
+        this.properties = new Property[fields.length];
+        this.byName = new HashMap<>();
+        try {
+            for (int i = 0; i < fields.length; i++) {
+                properties[i] = new Property(fields[i]);
+                byName.put(properties[i].name, properties[i]);
+            }
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+        MethodHandle init;
+        try {
+            init = LOOKUP.unreflectConstructor(type.getConstructor()).asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            init = null;
+        }
+        this.constructor = init;
+    }
+
+    // Поля в порядке getDeclaredFields()
+    Property[] properties() {
+        return properties;
+    }
+
+    Property property(String name) {
+        Property property = byName.get(name);
+        if (property == null) {
+            throw new RuntimeException(new NoSuchFieldException(name));
+        }
+        return property;
+    }
+
+    Object newInstance() {
+        if (constructor == null) {
+            throw new RuntimeException(new NoSuchMethodException(type.getName() + ".<init>()"));
+        }
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
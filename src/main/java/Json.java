@@ -1,9 +1,24 @@
 import model.JsonArray;
+import model.JsonBinary;
 import model.JsonObject;
 import model.JsonValue;
+import model.JsonWriter;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class Json {
 
@@ -15,7 +30,20 @@ public class Json {
     // Использует токенайзер, для последовательного получения элементов Json
     // Использует JsonObserver для выполнения семантических действий над JsonValue
     public static JsonObject parseJsonObject(String input) {
-        JsonTokenizer tokenizer = new JsonTokenizer(input);
+        return parseJsonObject(JsonTokenizer.of(input));
+    }
+
+    // То же для входа в UTF-8: байты не декодируются в String целиком
+    public static JsonObject parseJsonObject(byte[] input) {
+        return parseJsonObject(JsonTokenizer.of(input));
+    }
+
+    // Кучный буфер разбирается на месте, прямой - окнами; позиция буфера не меняется
+    public static JsonObject parseJsonObject(ByteBuffer input) {
+        return parseJsonObject(JsonTokenizer.of(input));
+    }
+
+    private static JsonObject parseJsonObject(JsonTokenizer tokenizer) {
         JsonParser<JsonValue> parser = new JsonParser<>(tokenizer, new JsonObserver());
         return (JsonObject) parser.parse();
     }
@@ -23,7 +51,18 @@ public class Json {
     // Принимает на вход строку в Json формате -  возвращает Map -  где ключ - название строки, а value -  значение, лежащее в Json по этому названию
     // Разница с предыдущим методом только в том, что используется PlainObserver() - а в нем в стеке хранится как раз Map(строка, объект)
     public static Map<String, Object> parseObject(String input) {
-        JsonTokenizer tokenizer = new JsonTokenizer(input);
+        return parseObject(JsonTokenizer.of(input));
+    }
+
+    public static Map<String, Object> parseObject(byte[] input) {
+        return parseObject(JsonTokenizer.of(input));
+    }
+
+    public static Map<String, Object> parseObject(ByteBuffer input) {
+        return parseObject(JsonTokenizer.of(input));
+    }
+
+    private static Map<String, Object> parseObject(JsonTokenizer tokenizer) {
         JsonParser<Object> parser = new JsonParser<>(tokenizer, new PlainObserver());
         return (Map<String, Object>) parser.parse();
     }
@@ -34,7 +73,18 @@ public class Json {
     // Принимает на вход строку в Json формате -  возвращает List of JsonValue
     // Разница с parseObject - в том, что на стеке создастся не Map, a List
     public static List<Object> parseArray(String input) {
-        JsonTokenizer tokenizer = new JsonTokenizer(input);
+        return parseArray(JsonTokenizer.of(input));
+    }
+
+    public static List<Object> parseArray(byte[] input) {
+        return parseArray(JsonTokenizer.of(input));
+    }
+
+    public static List<Object> parseArray(ByteBuffer input) {
+        return parseArray(JsonTokenizer.of(input));
+    }
+
+    private static List<Object> parseArray(JsonTokenizer tokenizer) {
         JsonParser<Object> parser = new JsonParser<>(tokenizer, new PlainObserver());
         return (List<Object>) parser.parse();
     }
@@ -44,16 +94,201 @@ public class Json {
     // Используется JsonObserver - а значит на стеке будет собираться объект Json
 
     public static JsonArray parseJsonArray(String input) {
-        JsonTokenizer tokenizer = new JsonTokenizer(input);
+        return parseJsonArray(JsonTokenizer.of(input));
+    }
+
+    public static JsonArray parseJsonArray(byte[] input) {
+        return parseJsonArray(JsonTokenizer.of(input));
+    }
+
+    public static JsonArray parseJsonArray(ByteBuffer input) {
+        return parseJsonArray(JsonTokenizer.of(input));
+    }
+
+    private static JsonArray parseJsonArray(JsonTokenizer tokenizer) {
         JsonParser<JsonValue> parser = new JsonParser<>(tokenizer, new JsonObserver());
         return (JsonArray) parser.parse();
     }
 
 
-    // Использует функцию asProvided из ObjectMapper.
-    //Преобразует входящую строку в требуемый класс, если это возможно
+    // Потоковый разбор документа произвольного вида (объект, массив)
+    // Токенайзер читает вход окном фиксированного размера, поэтому в памяти одновременно находятся
+    // только получившееся дерево JsonValue и это окно. InputStream должен быть в UTF-8
+    // Поток читается до конца, но не закрывается
+    public static JsonValue parse(InputStream input) {
+        return parse(JsonTokenizer.of(input));
+    }
+
+    public static JsonValue parse(Reader input) {
+        return parse(JsonTokenizer.of(input));
+    }
+
+    // Разбор файла в UTF-8, отображенного в память: в кучу не копируется содержимое файла целиком,
+    // файлы больше 2 ГБ отображаются по частям
+    public static JsonValue parseFile(Path path) throws IOException {
+        try (MappedFileSource source = new MappedFileSource(path)) {
+            return parse(new Utf8JsonTokenizer(source, Utf8JsonTokenizer.WINDOW_SIZE));
+        }
+    }
+
+    // Разбор NDJSON (JSON Lines): по одному объекту на строку, пустые строки пропускаются
+    // Вход делится на порции по границам строк, которые разбираются параллельно в fork-join пуле стрима.
+    // ordered = false снимает требование сохранять порядок строк, что дает больше пропускной способности
+    // Поток закрывается вместе со стримом
+    public static Stream<JsonObject> parseLines(InputStream input) {
+        return parseLines(input, true);
+    }
+
+    public static Stream<JsonObject> parseLines(InputStream input, boolean ordered) {
+        Stream<JsonObject> stream = StreamSupport.stream(new JsonLinesSpliterator(input), true);
+        stream = stream.onClose(() -> {
+            try {
+                input.close();
+            } catch (IOException e) {
+                throw new JsonException("could not close input", e);
+            }
+        });
+        return ordered ? stream : stream.unordered();
+    }
+
+    public static Stream<JsonObject> parseLines(Path path) throws IOException {
+        return parseLines(path, true);
+    }
+
+    public static Stream<JsonObject> parseLines(Path path, boolean ordered) throws IOException {
+        return parseLines(Files.newInputStream(path), ordered);
+    }
+
+    private static JsonValue parse(JsonTokenizer tokenizer) {
+        JsonParser<JsonValue> parser = new JsonParser<>(tokenizer, new JsonObserver());
+        return parser.parse();
+    }
+
+
+    // Параллельный разбор большого массива верхнего уровня: структурный проход находит границы элементов,
+    // затем элементы разбираются одновременно в fork-join пуле и собираются в исходном порядке
+    public static JsonArray parseJsonArrayParallel(String input) {
+        return ParallelArrayParser.parse(input);
+    }
+
+    public static JsonArray parseJsonArrayParallel(byte[] input) {
+        return ParallelArrayParser.parse(input);
+    }
+
+
+    // Ленивый разбор: документ проверяется целиком, но объекты и массивы запоминают только границы значений во входе,
+    // а entries / elements декодируют значение при первом обращении и кэшируют его
+    // Выгоден, когда из большого документа читается несколько полей; вход нельзя менять, пока документ используется
+    public static JsonValue parseLazy(String input) {
+        return LazyDocument.parse(input);
+    }
+
+    public static JsonValue parseLazy(byte[] input) {
+        return LazyDocument.parse(input);
+    }
+
+    // Пакетный разбор независимых документов: элементы inputs - String или byte[] (в UTF-8)
+    // Документы разбираются параллельно в виртуальных потоках или в переданном executor (например, ограниченном пуле),
+    // буферы токенайзеров переиспользуются между документами. Результаты идут в порядке входа; ошибка документа
+    // записывается в его ParseResult и не прерывает разбор остальных. Массивы байтов нельзя менять до конца разбора
+    public static List<ParseResult> parseAll(Collection<?> inputs) {
+        return parseAllAsync(inputs).join();
+    }
+
+    public static List<ParseResult> parseAll(Collection<?> inputs, Executor executor) {
+        return parseAllAsync(inputs, executor).join();
+    }
+
+    public static CompletableFuture<List<ParseResult>> parseAllAsync(Collection<?> inputs) {
+        return BatchParser.parseAsync(inputs, BatchParser.VIRTUAL_THREADS);
+    }
+
+    public static CompletableFuture<List<ParseResult>> parseAllAsync(Collection<?> inputs, Executor executor) {
+        return BatchParser.parseAsync(inputs, executor);
+    }
+
+    // Компактный документ: значения лежат на одной ленте long[], строки - в общем буфере char[]
+    // Чтение - курсором без создания JsonValue: parseTape(input).root().get("a").at(3).asLong();
+    // обычное дерево model строится по требованию через toJsonValue()
+    public static TapeDocument parseTape(String input) {
+        return TapeDocument.parse(JsonTokenizer.of(input));
+    }
+
+    public static TapeDocument parseTape(byte[] input) {
+        return TapeDocument.parse(JsonTokenizer.of(input));
+    }
+
+
+    // Сессия для разбора множества небольших документов подряд: токенайзеры, стеки и таблица ключей
+    // переиспользуются, и память выделяется только под результат. Одна сессия - на один поток
+    public static JsonParserSession newSession() {
+        return new JsonParserSession();
+    }
+
+    // Компилирует пути JSONPath ($.user.id, $.items[*].price) для выборочного извлечения значений:
+    // все пути проверяются за один проход, не совпавшие поддеревья пропускаются без декодирования
+    public static JsonPath compilePath(String... paths) {
+        return JsonPath.compile(paths);
+    }
+
+
+    //Преобразует входящую строку в требуемый класс, если это возможно (по правилам asProvided из ObjectMapper)
+    // Значения записываются в поля объекта прямо по ходу разбора (BindingObserver), без промежуточного JsonObject
     public static <T> T parseObject(String input, Class<T> clazz) {
-        return mapper.asProvided(parseJsonObject(input), clazz);
+        return parseObject(JsonTokenizer.of(input), clazz);
+    }
+
+    public static <T> T parseObject(byte[] input, Class<T> clazz) {
+        return parseObject(JsonTokenizer.of(input), clazz);
+    }
+
+    private static <T> T parseObject(JsonTokenizer tokenizer, Class<T> clazz) {
+        return new JsonParser<>(tokenizer, new BindingObserver<>(clazz, mapper)).parse();
+    }
+
+    // Потоковая запись значения в Appendable (StringBuilder, Writer) или в UTF-8 OutputStream
+    // в том же формате, что и toString(); поток не закрывается
+    public static void write(JsonValue value, Appendable out) {
+        new JsonWriter(out).write(value).flush();
+    }
+
+    public static void write(JsonValue value, OutputStream out) {
+        new JsonWriter(out).write(value).flush();
+    }
+
+    // Запись объекта (POJO, массива, коллекции, Map) в UTF-8 сразу по ходу обхода, без дерева JsonValue
+    // Формат тот же, что у Json.from(object).toString(), но поля объектов идут в порядке объявления
+    public static void write(Object object, OutputStream out) {
+        JsonWriter writer = new JsonWriter(out);
+        mapper.write(object, writer);
+        writer.flush();
+    }
+
+    public static byte[] toBytes(Object object) {
+        var out = new ByteArrayOutputStream();
+        write(object, out);
+        return out.toByteArray();
+    }
+
+    // Двоичное представление значения (JsonBinary) для кэшей: меньше текста и читается без разбора
+    public static byte[] toBinary(JsonValue value) {
+        return JsonBinary.encode(value);
+    }
+
+    public static JsonValue fromBinary(byte[] input) {
+        try {
+            return JsonBinary.decode(input);
+        } catch (IllegalArgumentException e) {
+            throw new JsonException(e.getMessage(), e);
+        }
+    }
+
+    public static JsonValue fromBinary(ByteBuffer input) {
+        try {
+            return JsonBinary.decode(input);
+        } catch (IllegalArgumentException e) {
+            throw new JsonException(e.getMessage(), e);
+        }
     }
 
     // Преобразует входящий объект некоторого класса в Json использует fromObject из Mapper
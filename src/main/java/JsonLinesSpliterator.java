@@ -0,0 +1,158 @@
+import model.JsonObject;
+import model.JsonValue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+// Разбиение входа в формате NDJSON (JSON Lines: один объект на строку) для параллельного Stream
+// Вход читается порциями примерно по CHUNK_SIZE байт, выровненными по концу строки; trySplit() отдает
+// очередную порцию отдельному сплитератору, и fork-join пул параллельного стрима разбирает порции одновременно.
+// Порция, в свою очередь, делится пополам по ближайшему переводу строки
+class JsonLinesSpliterator implements Spliterator<JsonObject> {
+
+    static final int CHUNK_SIZE = 256 * 1024;
+    // порцию меньше этого размера дальше не делим: накладные расходы задачи больше выигрыша
+    private static final int MIN_SPLIT_SIZE = 16 * 1024;
+
+    private final InputStream input; // null - сплитератор только для своей порции
+    private byte[] carry = new byte[0]; // начало строки, не поместившейся в предыдущую порцию
+    private boolean eof;
+
+    private byte[] chunk;
+    private int pos;
+    private int end;
+
+    // строки обычно имеют одни и те же ключи; таблица общая для всех сплитераторов, полученных через trySplit()
+    private final KeyTable keys;
+
+    JsonLinesSpliterator(InputStream input) {
+        this.input = input;
+        this.keys = new KeyTable();
+    }
+
+    private JsonLinesSpliterator(byte[] chunk, int from, int to, KeyTable keys) {
+        this.input = null;
+        this.keys = keys;
+        this.chunk = chunk;
+        this.pos = from;
+        this.end = to;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super JsonObject> action) {
+        while (true) {
+            while (pos < end) {
+                int lineEnd = lineEnd(pos);
+                int lineStart = pos;
+                pos = lineEnd + 1;
+                if (!isBlank(lineStart, lineEnd)) {
+                    action.accept(parseLine(lineStart, lineEnd));
+                    return true;
+                }
+            }
+            if (!nextChunk()) {
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public Spliterator<JsonObject> trySplit() {
+        // сначала делим еще не пройденную часть текущей порции
+        if (end - pos >= MIN_SPLIT_SIZE) {
+            int middle = lineEnd(pos + (end - pos) / 2);
+            if (middle < end) {
+                var prefix = new JsonLinesSpliterator(chunk, pos, middle + 1, keys);
+                pos = middle + 1;
+                return prefix;
+            }
+        }
+        if (pos < end) {
+            return null;
+        }
+        if (!nextChunk()) {
+            return null;
+        }
+        var prefix = new JsonLinesSpliterator(chunk, pos, end, keys);
+        pos = end;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return input != null ? Long.MAX_VALUE : end - pos;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    private JsonObject parseLine(int from, int to) {
+        var parser = new JsonParser<JsonValue>(new Utf8JsonTokenizer(chunk, from, to).withKeys(keys), new JsonObserver());
+        if (parser.parse() instanceof JsonObject object) {
+            return object;
+        }
+        throw new JsonException("JSON line is not an object");
+    }
+
+    // позиция перевода строки, завершающего строку с позиции from, или end
+    private int lineEnd(int from) {
+        for (int i = from; i < end; i++) {
+            if (chunk[i] == '\n') {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    // Пустая строка - только пробельные символы, те же, что между токенами
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!JsonTokenizer.isWhitespace(chunk[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Читает следующую порцию, заканчивающуюся на границе строки; хвост незаконченной строки переносится дальше
+    private boolean nextChunk() {
+        if (input == null || (eof && carry.length == 0)) {
+            return false;
+        }
+        byte[] data = Arrays.copyOf(carry, Math.max(CHUNK_SIZE, carry.length * 2));
+        int length = carry.length;
+        int lastNewLine = -1;
+        try {
+            while (!eof && (length < CHUNK_SIZE || lastNewLine < 0)) {
+                if (length == data.length) {
+                    data = Arrays.copyOf(data, data.length * 2);
+                }
+                int n = input.read(data, length, data.length - length);
+                if (n < 0) {
+                    eof = true;
+                    break;
+                }
+                for (int i = length + n - 1; i >= length; i--) {
+                    if (data[i] == '\n') {
+                        lastNewLine = i;
+                        break;
+                    }
+                }
+                length += n;
+            }
+        } catch (IOException e) {
+            throw new JsonException("could not read input", e);
+        }
+        int cut = eof ? length : lastNewLine + 1;
+        carry = Arrays.copyOfRange(data, cut, length);
+        chunk = data;
+        pos = 0;
+        end = cut;
+        return true;
+    }
+}
@@ -0,0 +1,83 @@
+import java.util.concurrent.atomic.LongAdder;
+
+// Накопительные счетчики разбора для сбора метрик: документы, объем входа, ошибки и гистограмма времени разбора
+// Считаются в JsonParser.parse() всеми способами разбора, кроме JsonReader/JsonPath и ленивого документа
+// По умолчанию выключены - тогда разбор не вызывает System.nanoTime() и не трогает счетчики;
+// включаются setEnabled(true) или свойством -Djsonparser.metrics=true
+// Счетчики - LongAdder: запись из многих потоков без общей точки конфликта, snapshot() - сумма по ячейкам
+//
+// Пример:
+//     JsonMetrics.setEnabled(true);
+//     ...
+//     JsonMetrics.Snapshot s = JsonMetrics.snapshot();
+//     s.documents(), s.bytes(), s.errors(), s.latency()[i] - разборы не дольше upperBoundMicros(i) мкс
+public final class JsonMetrics {
+
+    // Корзина i: время разбора меньше 2^i мкс (корзина 0 - меньше 1 мкс), последняя - все остальное
+    public static final int BUCKETS = 32;
+
+    private static volatile boolean enabled = Boolean.getBoolean("jsonparser.metrics");
+
+    private static final LongAdder documents = new LongAdder();
+    private static final LongAdder bytes = new LongAdder();
+    private static final LongAdder errors = new LongAdder();
+    private static final LongAdder[] latency = new LongAdder[BUCKETS];
+
+    static {
+        for (int i = 0; i < BUCKETS; i++) {
+            latency[i] = new LongAdder();
+        }
+    }
+
+    private JsonMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    // Значения счетчиков на момент вызова; разборы, идущие параллельно, могут попасть частично
+    public static Snapshot snapshot() {
+        long[] histogram = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram[i] = latency[i].sum();
+        }
+        return new Snapshot(documents.sum(), bytes.sum(), errors.sum(), histogram);
+    }
+
+    public static void reset() {
+        documents.reset();
+        bytes.reset();
+        errors.reset();
+        for (LongAdder bucket : latency) {
+            bucket.reset();
+        }
+    }
+
+    // Верхняя граница корзины в микросекундах (не включительно); для последней - Long.MAX_VALUE
+    public static long upperBoundMicros(int bucket) {
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+    }
+
+    // inputLength < 0 - объем входа неизвестен и не учитывается
+    static void record(long inputLength, long nanos, boolean failed) {
+        documents.increment();
+        if (inputLength > 0) {
+            bytes.add(inputLength);
+        }
+        if (failed) {
+            errors.increment();
+        }
+        long micros = nanos / 1000;
+        int bucket = micros == 0 ? 0 : 64 - Long.numberOfLeadingZeros(micros);
+        latency[Math.min(bucket, BUCKETS - 1)].increment();
+    }
+
+    // documents - разобранные документы, включая ошибочные; bytes - объем входа (символы или байты UTF-8)
+    public record Snapshot(long documents, long bytes, long errors, long[] latency) {
+    }
+}
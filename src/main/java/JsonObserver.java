@@ -5,28 +5,51 @@ import java.util.*;
 class JsonObserver implements JsonParser.Observer<JsonValue> {
 
     private final Deque<JsonValue> stack = new ArrayDeque<>();
+    private final Deque<String> keys = new ArrayDeque<>(); // ключи незаконченных объектов, без обертки в JsonString
+    private boolean appended; // число уже добавлено в массив на вершине стека, AddElement ничего не делает
 
     @Override
     public JsonValue result() {
         return stack.pop();
     }
+
+    @Override
+    public void reset() {
+        stack.clear();
+        keys.clear();
+        appended = false;
+    }
     @Override
     public void accept(JsonParser.Action action, JsonTokenizer tokenizer) {//
         switch (action) {
                 case AddElement -> {
+                    if (appended) {
+                        appended = false;
+                        return;
+                    }
                     var value = stack.pop();
                     ((JsonArray) stack.getFirst()).elements.add(value);
                 }
-                case CreateArray -> stack.push(new JsonArray(new ArrayList<>()));
+                // однородный числовой массив хранится в int[], long[] или double[]
+                case CreateArray -> stack.push(new JsonArray(new NumberArrayList()));
                 case CreateObject -> stack.push(new JsonObject(new LinkedHashMap<>()));
                 case FalseSetValue -> stack.push(JsonLiteral.False);
                 case NullSetValue -> stack.push(JsonLiteral.Null);
-                case NumberSetValue -> stack.push(tokenizer.getNumber());
+                case NumberSetValue -> {
+                    // число - элемент массива: сразу в массив, без JsonNumber на стеке
+                    if (stack.peek() instanceof JsonArray array && array.elements instanceof NumberArrayList numbers
+                            && (numbers.isEmpty() || numbers.primitiveType() != null) && tokenizer.appendNumber(numbers)) {
+                        appended = true;
+                    } else {
+                        stack.push(tokenizer.getNumber());
+                    }
+                }
                 case PutEntry -> {
                     var value = stack.pop();
-                    var key = ((JsonString) stack.pop()).content;
-                    (((JsonObject) stack.getFirst())).entries.put(key, value); //  ключ -JsonString
+                    var key = keys.pop();
+                    (((JsonObject) stack.getFirst())).entries.put(key, value);
                 }
+                case KeySetValue -> keys.push(tokenizer.getKey());
                 case StringSetValue -> stack.push(tokenizer.getString());
                 case TrueSetValue -> stack.push(JsonLiteral.True);
                 default -> throw new IllegalStateException("Unexpected action: " + this);
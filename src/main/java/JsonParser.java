@@ -8,6 +8,7 @@ class JsonParser<T> {
         CreateArray,  // создает массив и помещает в стек
         CreateObject,
         FalseSetValue, // помещает литерал null на вершину стека
+        KeySetValue, // ключ объекта (строка перед ':'), берется через JsonTokenizer.getKey()
         NullSetValue,
         NumberSetValue,
         PutEntry, // берет значение и ключ со стека и помещает в объект Json
@@ -17,10 +18,37 @@ class JsonParser<T> {
 
     interface Observer<T> extends BiConsumer<Action, JsonTokenizer> {   // позволяет принимать два аргумента и не возвращать значений
         T result();
+
+        // Класс, в который разбирается документ (для события JFR); null - дерево или стандартные объекты
+        default Class<?> target() {
+            return null;
+        }
+
+        // Сброс перед следующим документом, если наблюдатель используется повторно (JsonParserSession);
+        // после ошибки разбора на стеке могут остаться незаконченные значения
+        default void reset() {
+        }
+    }
+
+    // Способы разбора одной и той же грамматики
+    enum Engine {
+        LookupTable,      // исходный вариант: продукции ищутся в TreeMap, символы хранятся в стеке объектов
+        FlatTable,        // та же таблица, развернутая в массив int-кодов, и стек из int
+        RecursiveDescent  // рекурсивный спуск: действия вызываются напрямую, без стека символов
     }
 
+    static final Engine DEFAULT_ENGINE = Engine.FlatTable;
+
     private final JsonTokenizer tokenizer;
     private final Observer<T> observer;// тут может быть либо JsonObserver или plainObserver
+    private final Engine engine;
+    private int[] stack = new int[64]; // стек FlatTable; сохраняется между вызовами parse()
+
+    // Токены и глубина вложенности считаются, только пока записывается событие JFR (measure)
+    private boolean measure;
+    private int tokens;
+    private int depth;
+    private int maxDepth;
 
     /*
      * Value -> beginObject Object endObject | beginArray Array endArray | string | number | null | false | true
@@ -87,12 +115,12 @@ class JsonParser<T> {
 
         m.put(new LookupKey(NonTerminal.Object, JsonToken.ObjectEnd), List.of());
         m.put(new LookupKey(NonTerminal.Object, JsonToken.String), List.of(
-                JsonToken.String, Action.StringSetValue, JsonToken.Colon, NonTerminal.Value, Action.PutEntry,
+                JsonToken.String, Action.KeySetValue, JsonToken.Colon, NonTerminal.Value, Action.PutEntry,
                 NonTerminal.Members
         ));
         m.put(new LookupKey(NonTerminal.Members, JsonToken.ObjectEnd), List.of());
         m.put(new LookupKey(NonTerminal.Members, JsonToken.Comma), List.of(
-                JsonToken.Comma, JsonToken.String, Action.StringSetValue, JsonToken.Colon, NonTerminal.Value, Action.PutEntry,
+                JsonToken.Comma, JsonToken.String, Action.KeySetValue, JsonToken.Colon, NonTerminal.Value, Action.PutEntry,
                 NonTerminal.Members
         ));
         List<Object> arrayElems = List.of(NonTerminal.Value, Action.AddElement, NonTerminal.Elements);
@@ -112,12 +140,117 @@ class JsonParser<T> {
         lookupTable = Collections.unmodifiableMap(m);
     }
 
+    // Символы грамматики в виде int: терминал - ordinal токена, нетерминал и действие - ordinal со смещением
+    private static final int NON_TERMINAL = 0x100;
+    private static final int ACTION = 0x200;
+    private static final Action[] ACTIONS = Action.values();
+
+    // flatTable[нетерминал][токен] - правая часть продукции, уже записанная в обратном порядке,
+    // чтобы класть ее в стек простым копированием; null - нет продукции
+    private static final int[][][] flatTable = new int[NonTerminal.values().length][JsonToken.values().length][];
+
+    static {
+        for (var entry : lookupTable.entrySet()) {
+            List<Object> rightHandSide = entry.getValue().reversed();
+            int[] encoded = new int[rightHandSide.size()];
+            for (int i = 0; i < encoded.length; i++) {
+                encoded[i] = switch (rightHandSide.get(i)) {
+                    case JsonToken token -> token.ordinal();
+                    case NonTerminal nonTerminal -> NON_TERMINAL + nonTerminal.ordinal();
+                    case Action action -> ACTION + action.ordinal();
+                    default -> throw new IllegalStateException("Unexpected symbol: " + rightHandSide.get(i));
+                };
+            }
+            flatTable[entry.getKey().nonTerminal.ordinal()][entry.getKey().terminal.ordinal()] = encoded;
+        }
+    }
+
     JsonParser(JsonTokenizer tokenizer, Observer<T> observer) {
+        this(tokenizer, observer, DEFAULT_ENGINE);
+    }
+
+    JsonParser(JsonTokenizer tokenizer, Observer<T> observer, Engine engine) {
         this.tokenizer = tokenizer;
         this.observer = observer;
+        this.engine = engine;
     }
 
     T parse() {
+        var event = new ParseEvent();
+        boolean metrics = JsonMetrics.isEnabled();
+        if (!metrics && !event.isEnabled()) {
+            return parseBy(engine);
+        }
+        return parseMeasured(event, metrics);
+    }
+
+    private T parseBy(Engine engine) {
+        return switch (engine) {
+            case LookupTable -> parseByLookupTable();
+            case FlatTable -> parseByFlatTable();
+            case RecursiveDescent -> parseRecursively();
+        };
+    }
+
+    // Разбор с событием JFR и/или метриками (JsonMetrics)
+    private T parseMeasured(ParseEvent event, boolean metrics) {
+        measure = event.isEnabled();
+        tokens = 0;
+        depth = 0;
+        maxDepth = 0;
+        long start = metrics ? System.nanoTime() : 0;
+        event.begin();
+        RuntimeException error = null;
+        try {
+            return parseBy(engine);
+        } catch (RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            if (metrics) {
+                JsonMetrics.record(tokenizer.inputLength(), System.nanoTime() - start, error != null);
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.inputSize = tokenizer.inputLength();
+                event.tokenCount = tokens;
+                event.maxDepth = maxDepth;
+                event.observer = observer.getClass().getSimpleName();
+                event.engine = engine.name();
+                event.targetClass = observer.target();
+                event.error = error == null ? null : String.valueOf(error.getMessage());
+                event.commit();
+            }
+            measure = false;
+        }
+    }
+
+    // Следующий токен; во время записи события JFR заодно считаются токены и глубина вложенности
+    private JsonToken next() {
+        JsonToken token = tokenizer.next();
+        if (measure) {
+            count(token);
+        }
+        return token;
+    }
+
+    private void count(JsonToken token) {
+        switch (token) {
+            case ObjectBegin, ArrayBegin -> {
+                tokens++;
+                maxDepth = Math.max(maxDepth, ++depth);
+            }
+            case ObjectEnd, ArrayEnd -> {
+                tokens++;
+                depth--;
+            }
+            case End -> {
+            }
+            default -> tokens++;
+        }
+    }
+
+    private T parseByLookupTable() {
 
         Deque<Object> stack = new ArrayDeque<>();
         //В стеке хронятся либо терминалы, либо нетерминалы, либо действия
@@ -125,7 +258,9 @@ class JsonParser<T> {
 
         stack.push(JsonToken.End); //
         stack.push(NonTerminal.Value); //
-        JsonToken token = tokenizer.next(); // ObjectBegin
+        // Следующий токен читается только тогда, когда он нужен для сравнения:
+        // так действие над значением выполняется, пока токенайзер еще стоит на этом значении
+        JsonToken token = null;
 
         while (!stack.isEmpty() && tokenizer.hasNext()) {
             //Если верхний элемент стека — это действие (экземпляр Action), оно принимается наблюдателем, и элемент удаляется из стека.
@@ -134,10 +269,13 @@ class JsonParser<T> {
                 stack.pop();
                 continue;
             }
-            //Если текущий токен совпадает с верхним элементом стека, верхний элемент удаляется, и берется следующий токен из токенизатора.
+            if (token == null) {
+                token = next();
+            }
+            //Если текущий токен совпадает с верхним элементом стека, верхний элемент удаляется, и токен считается прочитанным.
             if (token == stack.getFirst()) {  // stack.getFirst() -
                 stack.pop();
-                token = tokenizer.next();
+                token = null;
                 continue;
             }
             //Если верхний элемент стека — это токен (не действие и не нетерминал), выбрасывается исключение, указывающее на неожиданный токен.
@@ -156,4 +294,123 @@ class JsonParser<T> {
         }
         return observer.result();
     }
+
+    // Тот же LL(1) разбор, но без поиска в TreeMap, упаковки символов в объекты и проверок instanceof
+    private T parseByFlatTable() {
+        int[] stack = this.stack;
+        int size = 0;
+        stack[size++] = JsonToken.End.ordinal();
+        stack[size++] = NON_TERMINAL + NonTerminal.Value.ordinal();
+        JsonToken token = null; // читается только тогда, когда нужен для сравнения
+
+        while (size > 0) {
+            int top = stack[size - 1];
+            if (top >= ACTION) {
+                observer.accept(ACTIONS[top - ACTION], tokenizer);
+                size--;
+                continue;
+            }
+            if (token == null) {
+                token = next();
+            }
+            if (top < NON_TERMINAL) {
+                if (top != token.ordinal()) {
+                    throw new JsonException("Unexpected token " + token);
+                }
+                size--;
+                token = null;
+                continue;
+            }
+            int[] rightHandSide = flatTable[top - NON_TERMINAL][token.ordinal()];
+            if (rightHandSide == null) {
+                throw new JsonException("Unexpected token " + token);
+            }
+            size--;
+            if (size + rightHandSide.length > stack.length) {
+                stack = this.stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            System.arraycopy(rightHandSide, 0, stack, size, rightHandSide.length);
+            size += rightHandSide.length;
+        }
+        return observer.result();
+    }
+
+    // Рекурсивный спуск по той же грамматике: порядок действий совпадает с таблицей разбора
+    // Глубина вложенности ограничена стеком потока
+    private T parseRecursively() {
+        try {
+            value(next());
+        } catch (StackOverflowError e) {
+            throw new JsonException("nesting is too deep", e);
+        }
+        expect(next(), JsonToken.End);
+        return observer.result();
+    }
+
+    // Value -> beginObject Object endObject | beginArray Array endArray | string | number | null | false | true
+    private void value(JsonToken token) {
+        switch (token) {
+            case ObjectBegin -> {
+                observer.accept(Action.CreateObject, tokenizer);
+                object();
+            }
+            case ArrayBegin -> {
+                observer.accept(Action.CreateArray, tokenizer);
+                array();
+            }
+            case String -> observer.accept(Action.StringSetValue, tokenizer);
+            case Number -> observer.accept(Action.NumberSetValue, tokenizer);
+            case True -> observer.accept(Action.TrueSetValue, tokenizer);
+            case False -> observer.accept(Action.FalseSetValue, tokenizer);
+            case Null -> observer.accept(Action.NullSetValue, tokenizer);
+            default -> throw new JsonException("Unexpected token " + token);
+        }
+    }
+
+    // Object -> string colon Value Members | ''
+    // Members -> '' | comma string colon Value Members
+    private void object() {
+        JsonToken token = next();
+        if (token == JsonToken.ObjectEnd) {
+            return;
+        }
+        while (true) {
+            expect(token, JsonToken.String);
+            observer.accept(Action.KeySetValue, tokenizer);
+            expect(next(), JsonToken.Colon);
+            value(next());
+            observer.accept(Action.PutEntry, tokenizer);
+            token = next();
+            if (token == JsonToken.ObjectEnd) {
+                return;
+            }
+            expect(token, JsonToken.Comma);
+            token = next();
+        }
+    }
+
+    // Array -> Value Elements | ''
+    // Elements -> '' | comma Value Elements
+    private void array() {
+        JsonToken token = next();
+        if (token == JsonToken.ArrayEnd) {
+            return;
+        }
+        while (true) {
+            value(token);
+            observer.accept(Action.AddElement, tokenizer);
+            token = next();
+            if (token == JsonToken.ArrayEnd) {
+                return;
+            }
+            expect(token, JsonToken.Comma);
+            token = next();
+        }
+    }
+
+    private static void expect(JsonToken token, JsonToken expected) {
+        if (token != expected) {
+            throw new JsonException("Unexpected token " + token);
+        }
+    }
 }
@@ -0,0 +1,89 @@
+import model.JsonValue;
+
+import java.util.List;
+import java.util.Map;
+
+// Повторно используемый набор объектов для разбора множества небольших документов подряд (например, тел запросов)
+// Токенайзеры с их буферами, стек парсера, стеки наблюдателей, разборщик чисел и таблица ключей создаются один раз
+// и сбрасываются перед каждым документом, поэтому в установившемся режиме память выделяется только под результат
+// Строка копируется в буфер сессии; массив байтов разбирается на месте и не должен меняться до конца разбора
+//
+// Не потокобезопасен: один экземпляр на поток или пул экземпляров
+//
+// Пример:
+//     JsonParserSession session = Json.newSession();
+//     for (byte[] body : requests) {
+//         JsonValue value = session.parse(body);
+//     }
+public final class JsonParserSession {
+
+    // Сессия с буферами больше этого (в символах) не возвращается в пул BatchParser:
+    // один большой документ не должен держать память до конца работы программы
+    static final int MAX_POOLED_BUFFER = 64 * 1024;
+
+    private final CharJsonTokenizer chars = new CharJsonTokenizer("");
+    private final Utf8JsonTokenizer bytes = new Utf8JsonTokenizer(new byte[0]);
+
+    private final JsonObserver tree = new JsonObserver();
+    private final PlainObserver plain = new PlainObserver();
+
+    private final JsonParser<JsonValue> charsToTree = new JsonParser<>(chars, tree);
+    private final JsonParser<JsonValue> bytesToTree = new JsonParser<>(bytes, tree);
+    private final JsonParser<Object> charsToPlain = new JsonParser<>(chars, plain);
+    private final JsonParser<Object> bytesToPlain = new JsonParser<>(bytes, plain);
+
+    JsonParserSession() {
+        // ключи у документов одного потока запросов обычно одни и те же
+        var keys = new KeyTable();
+        chars.withKeys(keys);
+        bytes.withKeys(keys);
+    }
+
+    public JsonValue parse(String input) {
+        chars.reset(input);
+        tree.reset();
+        return charsToTree.parse();
+    }
+
+    public JsonValue parse(byte[] input) {
+        bytes.reset(input);
+        tree.reset();
+        return bytesToTree.parse();
+    }
+
+    // То же, что Json.parseObject: Map из стандартных java объектов
+    public Map<String, Object> parseObject(String input) {
+        chars.reset(input);
+        return parsePlain(charsToPlain);
+    }
+
+    public Map<String, Object> parseObject(byte[] input) {
+        bytes.reset(input);
+        return parsePlain(bytesToPlain);
+    }
+
+    public List<Object> parseArray(String input) {
+        chars.reset(input);
+        return parsePlain(charsToPlain);
+    }
+
+    public List<Object> parseArray(byte[] input) {
+        bytes.reset(input);
+        return parsePlain(bytesToPlain);
+    }
+
+    // Отпускает вход последнего документа и незаконченные после ошибки значения
+    // false - буферы сессии больше MAX_POOLED_BUFFER, и хранить ее в пуле не стоит
+    boolean clear() {
+        tree.reset();
+        plain.reset();
+        return chars.release() + bytes.release() <= MAX_POOLED_BUFFER;
+    }
+
+    // Вид результата (Map или List) задает вызывающий метод; как и в Json, при несовпадении - ClassCastException
+    @SuppressWarnings("unchecked")
+    private <T> T parsePlain(JsonParser<Object> parser) {
+        plain.reset();
+        return (T) parser.parse();
+    }
+}
@@ -0,0 +1,359 @@
+import model.JsonArray;
+import model.JsonLiteral;
+import model.JsonObject;
+import model.JsonValue;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Скомпилированный набор путей JSONPath (подмножество) для выборочного извлечения значений
+// Поддерживаются: $ - корень, .name и ['name'] - поле объекта, [n] - элемент массива, .* и [*] - все поля или элементы
+// Все пути проверяются за один проход JsonReader по входу: поддерево, которое не лежит ни на одном пути,
+// пропускается подсчетом глубины (skipValue) без декодирования строк и без создания объектов;
+// ключи сравниваются с шагами пути без создания String. Строится только найденное значение
+//
+// Пример:
+//     JsonPath path = Json.compilePath("$.user.id", "$.items[*].price");
+//     Map<String, List<JsonValue>> found = path.select(input);
+//     found.get("$.items[*].price") - цены всех элементов в порядке документа
+public final class JsonPath {
+
+    private final String[] expressions;
+    private final Step[][] steps;
+    private final int maxLength;
+
+    private JsonPath(String[] expressions) {
+        this.expressions = expressions.clone();
+        this.steps = new Step[expressions.length][];
+        int max = 0;
+        for (int i = 0; i < expressions.length; i++) {
+            steps[i] = parse(expressions[i]);
+            max = Math.max(max, steps[i].length);
+        }
+        this.maxLength = max;
+    }
+
+    static JsonPath compile(String... expressions) {
+        if (expressions.length == 0) {
+            throw new JsonException("no path to compile");
+        }
+        return new JsonPath(expressions);
+    }
+
+    // Результат: для каждого пути (в порядке компиляции) - найденные значения в порядке документа
+    public Map<String, List<JsonValue>> select(String input) {
+        return select(JsonTokenizer.of(input));
+    }
+
+    public Map<String, List<JsonValue>> select(byte[] input) {
+        return select(JsonTokenizer.of(input));
+    }
+
+    // Поток в UTF-8 читается окном фиксированного размера, но не закрывается
+    public Map<String, List<JsonValue>> select(InputStream input) {
+        return select(JsonTokenizer.of(input));
+    }
+
+    // То же, но значения - обычные java объекты, как в Json.parseObject: Map, List, String, Number, Boolean, null
+    public Map<String, List<Object>> selectObjects(String input) {
+        return new Selection(JsonTokenizer.of(input), true).run();
+    }
+
+    public Map<String, List<Object>> selectObjects(byte[] input) {
+        return new Selection(JsonTokenizer.of(input), true).run();
+    }
+
+    public Map<String, List<Object>> selectObjects(InputStream input) {
+        return new Selection(JsonTokenizer.of(input), true).run();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, List<JsonValue>> select(JsonTokenizer tokenizer) {
+        Map<String, ?> result = new Selection(tokenizer, false).run();
+        return (Map<String, List<JsonValue>>) result;
+    }
+
+    // Шаг пути: поле с именем name, элемент с номером index или любой элемент (name == null, index < 0)
+    private static final class Step {
+        static final Step ANY = new Step(null, -1);
+
+        final String name;
+        final int index;
+
+        Step(String name, int index) {
+            this.name = name;
+            this.index = index;
+        }
+
+        boolean matchesKey(CharSequence key) {
+            return name != null ? name.contentEquals(key) : index < 0;
+        }
+
+        boolean matchesIndex(int i) {
+            return name == null && (index < 0 || index == i);
+        }
+    }
+
+    // Один проход по входу
+    private final class Selection {
+        private final JsonTokenizer tokenizer;
+        private final JsonReader reader;
+        private final boolean plain;
+        private final List<Object>[] found;
+        // active[d] - номера путей, первые d шагов которых совпали с путем к текущему значению на глубине d
+        private final int[][] active;
+
+        @SuppressWarnings("unchecked")
+        Selection(JsonTokenizer tokenizer, boolean plain) {
+            this.tokenizer = tokenizer;
+            this.reader = new JsonReader(tokenizer);
+            this.plain = plain;
+            this.found = (List<Object>[]) new List<?>[steps.length];
+            this.active = new int[maxLength + 1][steps.length];
+            for (int i = 0; i < steps.length; i++) {
+                found[i] = new ArrayList<>();
+                active[0][i] = i;
+            }
+        }
+
+        Map<String, List<Object>> run() {
+            try {
+                visit(0, steps.length);
+            } catch (StackOverflowError e) {
+                throw new JsonException("nesting is too deep");
+            }
+            reader.nextToken(); // End, иначе исключение
+            var result = new LinkedHashMap<String, List<Object>>();
+            for (int i = 0; i < expressions.length; i++) {
+                result.put(expressions[i], found[i]);
+            }
+            return result;
+        }
+
+        // Следующее значение во входе на глубине depth; count - число путей в active[depth]
+        private void visit(int depth, int count) {
+            int[] paths = active[depth];
+            boolean complete = false;
+            for (int k = 0; k < count; k++) {
+                complete |= steps[paths[k]].length == depth;
+            }
+            if (complete) {
+                // значение нужно целиком; пути, идущие глубже, доходятся по построенному значению
+                Object value = readValue();
+                for (int k = 0; k < count; k++) {
+                    collect(value, steps[paths[k]], depth, found[paths[k]]);
+                }
+                return;
+            }
+            switch (reader.nextToken()) {
+                case ObjectBegin -> {
+                    while (reader.nextToken() != JsonToken.ObjectEnd) {
+                        CharSequence key = reader.stringValue();
+                        int matched = 0;
+                        for (int k = 0; k < count; k++) {
+                            if (steps[paths[k]][depth].matchesKey(key)) {
+                                active[depth + 1][matched++] = paths[k];
+                            }
+                        }
+                        if (matched == 0) {
+                            reader.skipValue();
+                        } else {
+                            visit(depth + 1, matched);
+                        }
+                    }
+                }
+                case ArrayBegin -> {
+                    for (int i = 0; reader.peek() != JsonToken.ArrayEnd; i++) {
+                        int matched = 0;
+                        for (int k = 0; k < count; k++) {
+                            if (steps[paths[k]][depth].matchesIndex(i)) {
+                                active[depth + 1][matched++] = paths[k];
+                            }
+                        }
+                        if (matched == 0) {
+                            reader.skipValue();
+                        } else {
+                            visit(depth + 1, matched);
+                        }
+                    }
+                    reader.nextToken();
+                }
+                default -> {
+                    // скалярное значение: путь требует дальнейших шагов, совпадений нет
+                }
+            }
+        }
+
+        private Object readValue() {
+            return plain ? readObject() : readJson();
+        }
+
+        // Строит следующее значение из входа целиком
+        private JsonValue readJson() {
+            JsonToken token = reader.nextToken();
+            switch (token) {
+                case ObjectBegin -> {
+                    var entries = new LinkedHashMap<String, JsonValue>();
+                    while (reader.nextToken() != JsonToken.ObjectEnd) {
+                        String key = tokenizer.getKey();
+                        entries.put(key, readJson());
+                    }
+                    return new JsonObject(entries);
+                }
+                case ArrayBegin -> {
+                    var elements = new ArrayList<JsonValue>();
+                    while (reader.peek() != JsonToken.ArrayEnd) {
+                        elements.add(readJson());
+                    }
+                    reader.nextToken();
+                    return new JsonArray(elements);
+                }
+                case String -> {
+                    return tokenizer.getString();
+                }
+                case Number -> {
+                    return tokenizer.getNumber();
+                }
+                case True -> {
+                    return JsonLiteral.True;
+                }
+                case False -> {
+                    return JsonLiteral.False;
+                }
+                case Null -> {
+                    return JsonLiteral.Null;
+                }
+            }
+            throw new JsonException("Unexpected token " + token);
+        }
+
+        // То же в обычных java объектах, как в PlainObserver
+        private Object readObject() {
+            JsonToken token = reader.nextToken();
+            switch (token) {
+                case ObjectBegin -> {
+                    var entries = new LinkedHashMap<String, Object>();
+                    while (reader.nextToken() != JsonToken.ObjectEnd) {
+                        String key = tokenizer.getKey();
+                        entries.put(key, readObject());
+                    }
+                    return entries;
+                }
+                case ArrayBegin -> {
+                    var elements = new ArrayList<>();
+                    while (reader.peek() != JsonToken.ArrayEnd) {
+                        elements.add(readObject());
+                    }
+                    reader.nextToken();
+                    return elements;
+                }
+                case String -> {
+                    return tokenizer.getString().content;
+                }
+                case Number -> {
+                    return tokenizer.getNumber().value;
+                }
+                case True -> {
+                    return true;
+                }
+                case False -> {
+                    return false;
+                }
+                case Null -> {
+                    return null;
+                }
+            }
+            throw new JsonException("Unexpected token " + token);
+        }
+    }
+
+    // Оставшиеся шаги пути (начиная с from) по уже построенному значению
+    private static void collect(Object value, Step[] path, int from, List<Object> out) {
+        if (from == path.length) {
+            out.add(value);
+            return;
+        }
+        Step step = path[from];
+        if (value instanceof JsonObject object) {
+            value = object.entries;
+        } else if (value instanceof JsonArray array) {
+            value = array.elements;
+        }
+        if (value instanceof Map<?, ?> map) {
+            if (step.name != null) {
+                if (map.containsKey(step.name)) {
+                    collect(map.get(step.name), path, from + 1, out);
+                }
+            } else if (step.index < 0) {
+                for (Object child : map.values()) {
+                    collect(child, path, from + 1, out);
+                }
+            }
+        } else if (value instanceof List<?> list) {
+            for (int i = 0; i < list.size(); i++) {
+                if (step.matchesIndex(i)) {
+                    collect(list.get(i), path, from + 1, out);
+                }
+            }
+        }
+    }
+
+    // $ ( .name | .* | ['name'] | ["name"] | [n] | [*] )*
+    private static Step[] parse(String path) {
+        if (!path.startsWith("$")) {
+            throw new JsonException("path must start with $: " + path);
+        }
+        var steps = new ArrayList<Step>();
+        int i = 1;
+        while (i < path.length()) {
+            char c = path.charAt(i);
+            if (c == '.') {
+                int start = ++i;
+                if (i < path.length() && path.charAt(i) == '*') {
+                    steps.add(Step.ANY);
+                    i++;
+                    continue;
+                }
+                while (i < path.length() && path.charAt(i) != '.' && path.charAt(i) != '[') {
+                    i++;
+                }
+                if (i == start) {
+                    throw new JsonException("empty field name in path: " + path);
+                }
+                steps.add(new Step(path.substring(start, i), -1));
+            } else if (c == '[') {
+                char quote = i + 1 < path.length() ? path.charAt(i + 1) : 0;
+                int nameEnd = quote == '\'' || quote == '"' ? path.indexOf(quote, i + 2) : i;
+                int close = nameEnd < 0 ? -1 : path.indexOf(']', nameEnd);
+                if (close < 0) {
+                    throw new JsonException("unclosed [ in path: " + path);
+                }
+                String selector = path.substring(i + 1, close);
+                if (nameEnd > i && close == nameEnd + 1) {
+                    steps.add(new Step(path.substring(i + 2, nameEnd), -1));
+                } else if (selector.equals("*")) {
+                    steps.add(Step.ANY);
+                } else {
+                    try {
+                        steps.add(new Step(null, Integer.parseUnsignedInt(selector)));
+                    } catch (NumberFormatException e) {
+                        throw new JsonException("invalid selector [" + selector + "] in path: " + path, e);
+                    }
+                }
+                i = close + 1;
+            } else {
+                throw new JsonException("unexpected character '" + c + "' in path: " + path);
+            }
+        }
+        return steps.toArray(new Step[0]);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(expressions);
+    }
+}
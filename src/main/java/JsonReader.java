@@ -0,0 +1,222 @@
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Потоковый (pull) разбор JSON без построения дерева
+// Вызывающий сам идет по токенам: nextToken() возвращает очередной значимый токен (запятые и двоеточия
+// проверяются и пропускаются), skipValue() пропускает значение целиком, а stringValue()/longValue()/...
+// отдают значение текущего токена без создания JsonString и JsonNumber
+//
+// Пример: прочитать поле "id" и пропустить остальное
+//     reader.nextToken(); // ObjectBegin
+//     while (reader.nextToken() != JsonToken.ObjectEnd) { // ключ
+//         if ("id".contentEquals(reader.stringValue())) {
+//             reader.nextToken();
+//             id = reader.longValue();
+//         } else {
+//             reader.skipValue();
+//         }
+//     }
+public class JsonReader {
+
+    // Что допустимо следующим токеном
+    private static final int EXPECT_VALUE = 0;              // значение: в начале документа, после ':' или ',' в массиве
+    private static final int EXPECT_VALUE_OR_END = 1;       // после '['
+    private static final int EXPECT_NAME_OR_END = 2;        // после '{'
+    private static final int EXPECT_NAME = 3;               // после ',' в объекте
+    private static final int EXPECT_COLON = 4;              // после ключа
+    private static final int EXPECT_COMMA_OR_END = 5;       // после значения внутри объекта или массива
+    private static final int EXPECT_END_OF_DOCUMENT = 6;    // после значения верхнего уровня
+
+    private final JsonTokenizer tokenizer;
+
+    private boolean[] inObject = new boolean[16]; // для каждого уровня вложенности: объект или массив
+    private int depth;
+    private int expect = EXPECT_VALUE;
+
+    private JsonToken current;  // последний токен, возвращенный nextToken()
+    private boolean name;       // является ли текущая строка ключом объекта
+    private JsonToken peeked;   // токен, прочитанный peek(), но еще не возвращенный nextToken()
+    private boolean peekedName;
+
+    public JsonReader(String input) {
+        this(JsonTokenizer.of(input));
+    }
+
+    public JsonReader(byte[] input) {
+        this(JsonTokenizer.of(input));
+    }
+
+    public JsonReader(ByteBuffer input) {
+        this(JsonTokenizer.of(input));
+    }
+
+    public JsonReader(InputStream input) {
+        this(JsonTokenizer.of(input));
+    }
+
+    public JsonReader(Reader input) {
+        this(JsonTokenizer.of(input));
+    }
+
+    JsonReader(JsonTokenizer tokenizer) {
+        this.tokenizer = tokenizer;
+    }
+
+    // Тип следующего токена без его потребления
+    // После peek() значение предыдущего токена уже недоступно: токенайзер переходит к следующему
+    public JsonToken peek() {
+        if (peeked == null) {
+            peeked = read();
+            peekedName = name;
+        }
+        return peeked;
+    }
+
+    // Следующий значимый токен; после конца документа возвращает JsonToken.End
+    public JsonToken nextToken() {
+        if (peeked != null) {
+            current = peeked;
+            name = peekedName;
+            peeked = null;
+        } else {
+            current = read();
+        }
+        return current;
+    }
+
+    // Пропускает следующее значение целиком (вложенные объекты и массивы - подсчетом глубины, без декодирования строк)
+    // Если следующий токен - ключ объекта, пропускается ключ вместе с его значением
+    public void skipValue() {
+        JsonToken token = nextToken();
+        if (token == JsonToken.String && name) {
+            token = nextToken();
+        }
+        switch (token) {
+            case ObjectBegin, ArrayBegin -> {
+                int level = 1;
+                while (level > 0) {
+                    switch (nextToken()) {
+                        case ObjectBegin, ArrayBegin -> level++;
+                        case ObjectEnd, ArrayEnd -> level--;
+                        default -> {
+                        }
+                    }
+                }
+            }
+            case String, Number, True, False, Null -> {
+            }
+            default -> throw new JsonException("Unexpected token " + token);
+        }
+    }
+
+    // Является ли текущая строка ключом объекта
+    public boolean isName() {
+        return current == JsonToken.String && name;
+    }
+
+    // Содержимое текущей строки (ключа или значения) без копирования, если в ней нет escape-последовательностей
+    // Последовательность действительна только до следующего вызова peek()/nextToken()/skipValue()
+    public CharSequence stringValue() {
+        require(JsonToken.String);
+        return tokenizer.getChars();
+    }
+
+    // Текст текущего числа, действителен до следующего вызова peek()/nextToken()/skipValue()
+    public CharSequence numberText() {
+        require(JsonToken.Number);
+        return tokenizer.getNumberText();
+    }
+
+    public int intValue() {
+        require(JsonToken.Number);
+        return tokenizer.getInt();
+    }
+
+    public long longValue() {
+        require(JsonToken.Number);
+        return tokenizer.getLong();
+    }
+
+    public double doubleValue() {
+        require(JsonToken.Number);
+        return tokenizer.getDouble();
+    }
+
+    public boolean booleanValue() {
+        if (current != JsonToken.True && current != JsonToken.False) {
+            throw new JsonException("Current token " + current + " is not a boolean");
+        }
+        return current == JsonToken.True;
+    }
+
+    private void require(JsonToken token) {
+        if (current != token || peeked != null) {
+            throw new JsonException("Current token " + (peeked != null ? peeked : current) + " is not " + token);
+        }
+    }
+
+    // Читает следующий токен, проверяя, что он допустим в текущем месте документа
+    private JsonToken read() {
+        while (true) {
+            JsonToken token = tokenizer.next();
+            name = false;
+            switch (token) {
+                case Comma -> {
+                    check(expect == EXPECT_COMMA_OR_END, token);
+                    expect = inObject[depth - 1] ? EXPECT_NAME : EXPECT_VALUE;
+                    continue;
+                }
+                case Colon -> {
+                    check(expect == EXPECT_COLON, token);
+                    expect = EXPECT_VALUE;
+                    continue;
+                }
+                case ObjectEnd -> {
+                    check((expect == EXPECT_NAME_OR_END || expect == EXPECT_COMMA_OR_END) && inObject[depth - 1], token);
+                    depth--;
+                    afterValue();
+                }
+                case ArrayEnd -> {
+                    check((expect == EXPECT_VALUE_OR_END || expect == EXPECT_COMMA_OR_END) && !inObject[depth - 1], token);
+                    depth--;
+                    afterValue();
+                }
+                case ObjectBegin, ArrayBegin -> {
+                    check(expect == EXPECT_VALUE || expect == EXPECT_VALUE_OR_END, token);
+                    if (depth == inObject.length) {
+                        inObject = Arrays.copyOf(inObject, depth * 2);
+                    }
+                    inObject[depth++] = token == JsonToken.ObjectBegin;
+                    expect = token == JsonToken.ObjectBegin ? EXPECT_NAME_OR_END : EXPECT_VALUE_OR_END;
+                }
+                case String -> {
+                    if (expect == EXPECT_NAME_OR_END || expect == EXPECT_NAME) {
+                        name = true;
+                        expect = EXPECT_COLON;
+                    } else {
+                        check(expect == EXPECT_VALUE || expect == EXPECT_VALUE_OR_END, token);
+                        afterValue();
+                    }
+                }
+                case Number, True, False, Null -> {
+                    check(expect == EXPECT_VALUE || expect == EXPECT_VALUE_OR_END, token);
+                    afterValue();
+                }
+                case End -> check(expect == EXPECT_END_OF_DOCUMENT, token);
+            }
+            return token;
+        }
+    }
+
+    private void afterValue() {
+        expect = depth == 0 ? EXPECT_END_OF_DOCUMENT : EXPECT_COMMA_OR_END;
+    }
+
+    private static void check(boolean valid, JsonToken token) {
+        if (!valid) {
+            throw new JsonException("Unexpected token " + token);
+        }
+    }
+}
@@ -1,4 +1,4 @@
-enum JsonToken {
+public enum JsonToken {
     Number,
     String,
     Null,
@@ -1,158 +1,160 @@
 import model.JsonNumber;
 import model.JsonString;
+import model.NumberArrayList;
 
+import java.io.InputStream;
+import java.io.Reader;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.util.Iterator;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 // Лексический анализатор JSON
-class JsonTokenizer implements Iterator<JsonToken> {
-
-    private final Matcher matcher;
-    String contentsCoded; // Будет храниться строка текущего значения
-    String num;// будет храниться число текущего значения
-    // группы номеруются в порядке обхода в глубину
-    //Первая группа - вспомогательные символы
-    //Вторая - строки
-    //Третья - числа
-    private static final Pattern TOKEN = Pattern.compile("""
-            \\s*    # пробелы -> игнорим
-            (# группа #1
-             # STRING
-             "((?: \\\\[\\"\\\\/bfnrt]     # escaped character # группа #2
-                  | \\\\u[a-fA-F0-9]{4}  # escaped unicode
-                  | [^"\\\\]             # character
-                )*)
-             "
-             # NUMBER
-             | ( [+-]?   # группа #3
-               (?:\\d+\\.?\\d* | \\.\\d+)  # обычное число
-               (?:[eE][+-]?\\d+)?          # экспоненциальная форма числа
-               )
-             | true
-             | false
-             | null
-             | \\{   # OBJECT_BEGIN
-             | }     # OBJECT_END
-             | \\[   # ARRAY_BEGIN
-             | ]     # ARRAY_END
-             | :     # COLON
-             | ,     # COMMA
-            )""", Pattern.COMMENTS);
-
-
-    private static final Pattern CHARACTER = Pattern.compile("""
-            (?: 
-              ([^"\\\\])             # character          # группа #1
-            | \\\\u([a-fA-F0-9]{4})  # escaped unicode    # группа #2
-            | \\\\(["\\\\/bfnrt])     # escaped character # группа #3
-            )""", Pattern.COMMENTS);
-
-    public JsonTokenizer(String input) {
-
-        this.matcher = TOKEN.matcher(input);
-    }
-
-
-    protected JsonString getString() {
-        StringBuilder result = new StringBuilder(contentsCoded.length());
-        Matcher matcherChar = CHARACTER.matcher(contentsCoded);
-        while (matcherChar.find()) {
-            if (matcherChar.group(1) != null) {
-                result.append(matcherChar.group(1));
-                continue;
-            }
-            if (matcherChar.group(2) != null) {
-                result.append(Integer.valueOf(matcherChar.group(2), 16));
-                continue;
-            }
-            assert matcherChar.group(3) != null;
-            switch (matcherChar.group(3).charAt(0)) {
-                case '\\' -> result.append('\\');
-                case '/' -> result.append('/');
-                case 'b' -> result.append('\b');
-                case 'f' -> result.append('\f');
-                case 'n' -> result.append('\n');
-                case 'r' -> result.append('\r');
-                case 't' -> result.append('\t');
-            }
+// next() возвращает очередной токен, а getString()/getNumber() - значение последнего строкового или числового токена
+abstract class JsonTokenizer implements Iterator<JsonToken> {
+
+    // Реализации токенайзера, которые можно выбрать для одного и того же входа
+    enum Engine {
+        Regex,   // RegexJsonTokenizer - исходный вариант на регулярных выражениях
+        Scanner  // CharJsonTokenizer - посимвольный проход по char[]
+    }
+
+    static final Engine DEFAULT_ENGINE = Engine.Scanner;
+
+    private final NumberParser numbers = new NumberParser();
+    private KeyTable keys; // создается при первом ключе, если не задана общая таблица
+
+    static JsonTokenizer of(String input) {
+        return of(input, DEFAULT_ENGINE);
+    }
+
+    static JsonTokenizer of(String input, Engine engine) {
+        return switch (engine) {
+            case Regex -> new RegexJsonTokenizer(input);
+            case Scanner -> new CharJsonTokenizer(input);
+        };
+    }
+
+    // Вход в UTF-8 разбирается без предварительного декодирования в String
+    // Структурный индекс строится, только если он включен свойством jsonparser.structuralIndex (см. StructuralIndexer)
+    static JsonTokenizer of(byte[] input) {
+        return of(input, StructuralIndexer.MODE);
+    }
+
+    static JsonTokenizer of(byte[] input, StructuralIndexer.Mode index) {
+        if (index == StructuralIndexer.Mode.Off) {
+            return new Utf8JsonTokenizer(input);
         }
-        return new JsonString(result.toString());
+        return Utf8JsonTokenizer.indexed(input, 0, input.length, index);
     }
 
+    static JsonTokenizer of(ByteBuffer input) {
+        return Utf8JsonTokenizer.of(input);
+    }
 
+    // Потоковый вход читается окном фиксированного размера, поток в UTF-8
+    static JsonTokenizer of(InputStream input) {
+        return new Utf8JsonTokenizer(input::read, Utf8JsonTokenizer.WINDOW_SIZE);
+    }
 
-    protected JsonNumber getNumber() {
-        try {
-            int integer = Integer.parseInt(num);
-            return new JsonNumber(integer);
-        } catch (NumberFormatException ignored) {
+    static JsonTokenizer of(Reader input) {
+        return new CharJsonTokenizer(input, CharJsonTokenizer.WINDOW_SIZE);
+    }
+
+    // Пробельные символы между токенами: те же, что и \s в регулярном выражении RegexJsonTokenizer
+    // Общие для всех токенайзеров и структурного прохода ParallelArrayParser
+    static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == '\f' || c == '\u000B';
+    }
+
+    protected abstract JsonString getString();
+
+    // Содержимое текущей строки без создания JsonString
+    // Может ссылаться на внутренний буфер токенайзера, поэтому действительно только до следующего next()
+    protected CharSequence getChars() {
+        return getString().content;
+    }
+
+    // Текущая строка как ключ объекта: повторяющиеся ключи возвращаются одним и тем же экземпляром String
+    protected String getKey() {
+        if (keys == null) {
+            keys = new KeyTable();
         }
-        try {
-            long longInt = Long.parseLong(num);
-            return new JsonNumber(longInt);
-        } catch (NumberFormatException ignored) {
+        return keys.intern(getChars());
+    }
+
+    // Таблица ключей, общая с другими разборами (например, для множества мелких документов с одинаковыми ключами)
+    JsonTokenizer withKeys(KeyTable table) {
+        this.keys = table;
+        return this;
+    }
+
+    // Текст текущего числового литерала, действителен до следующего next()
+    protected abstract CharSequence getNumberText();
+
+    // Объем уже прочитанного входа: символов для String и Reader, байтов для UTF-8; -1 - неизвестен
+    // После разбора - размер всего документа. Нужен событиям JFR и метрикам JsonParser
+    long inputLength() {
+        return -1;
+    }
+
+    // Начало текущего токена во входе (для строки - позиция открывающей кавычки) и позиция сразу за ним
+    // Нужны ленивому документу (LazyDocument); при чтении окнами (Reader, поток) - позиции в текущем окне
+    abstract int tokenOffset();
+
+    abstract int position();
+
+    // Значение текущего числа как примитив, без создания JsonNumber
+    // Целый литерал разбирается за один проход NumberParser, дробная запись (1.0, 1e3) - через BigDecimal
+    protected long getLong() {
+        CharSequence text = getNumberText();
+        if (numbers.isLong(text)) {
+            return numbers.longValue();
         }
         try {
-            double doubleNumber = Double.parseDouble(num);
-            return new JsonNumber(doubleNumber);
-        } catch (NumberFormatException ignored) {
+            return new BigDecimal(text.toString()).longValueExact();
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw new JsonException("could not convert num=" + text + " to long", e);
         }
-        try {
-            BigDecimal big = new BigDecimal(num);
-            return new JsonNumber(big);
-        } catch (NumberFormatException e) {
-            throw new JsonException("could not parse num=" + num, e);
+    }
+
+    protected int getInt() {
+        long value = getLong();
+        if ((int) value != value) {
+            throw new JsonException("could not convert num=" + value + " to int");
         }
+        return (int) value;
     }
 
-    @Override
-    public boolean hasNext() {
-        return !matcher.hitEnd();
-    }
-
-    @Override
-    public JsonToken next() {
-            if (!matcher.find()) {
-                return JsonToken.End;
-            }
-            switch (matcher.group(1)) {
-                case "{":
-                    return JsonToken.ObjectBegin;
-                case "}":
-                    return JsonToken.ObjectEnd;
-                case "[":
-                    return JsonToken.ArrayBegin;
-                case "]":
-                    return JsonToken.ArrayEnd;
-                case ":":
-                    return JsonToken.Colon;
-                case ",":
-                    return JsonToken.Comma;
-                case "true":
-                    return JsonToken.True;
-                case "false":
-                    return JsonToken.False;
-                case "null":
-                    return JsonToken.Null;
-            }
-            char first = matcher.group(1).charAt(0);
-            switch (first) {
-                case '"':
-                    contentsCoded = matcher.group(2);
-                    return JsonToken.String;
-                case '+':
-                case '-':
-                    num = matcher.group(3);
-                    return JsonToken.Number;
-            }
-            if (Character.isDigit(first)) {
-                num = matcher.group(3);
-                return JsonToken.Number;
-            }
-
-            throw new JsonException("input contains unrecognized token");
+    protected double getDouble() {
+        return numbers.toDouble(getNumberText());
+    }
+
+    // Добавляет текущее число в числовой массив без создания JsonNumber; тип - тот же, что выбрал бы getNumber()
+    // false - тип не совпал с прежними элементами, массив переведен в обычную форму
+    boolean appendNumber(NumberArrayList list) {
+        if (readNumber()) {
+            long value = readLong();
+            return (int) value == value ? list.addInt((int) value) : list.addLong(value);
+        }
+        return list.addDouble(readDouble());
+    }
+
+    // Разбирает текущее число без создания JsonNumber: true - целое в пределах long, значение - readLong();
+    // false - double, значение - readDouble(). Оба действительны до следующего next()
+    boolean readNumber() {
+        return numbers.isLong(getNumberText());
+    }
 
+    long readLong() {
+        return numbers.longValue();
+    }
+
+    double readDouble() {
+        return numbers.doubleValue(getNumberText());
+    }
+
+    // Приводит текст числа к самому узкому подходящему типу: int, long, double
+    protected JsonNumber getNumber() {
+        return numbers.number(getNumberText());
     }
 }
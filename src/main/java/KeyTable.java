@@ -0,0 +1,58 @@
+// Таблица ключей объектов: одинаковые ключи превращаются в один и тот же экземпляр String
+// Ключ из буфера токенайзера сравнивается с уже встреченными без создания строки; новая строка создается
+// только для нового ключа. У канонической строки hashCode вычислен один раз и закэширован,
+// поэтому LinkedHashMap.put и поиск поля по имени его не пересчитывают
+//
+// Размер таблицы фиксирован: каждому хэшу соответствуют две ячейки, новый ключ вытесняет старый,
+// длинные ключи не запоминаются. Ячейки пишутся без синхронизации - это безопасно, потому что String
+// неизменяем: при гонке один из ключей просто не попадет в таблицу. Поэтому одну таблицу можно
+// разделять между разборами, в том числе параллельными (ParallelArrayParser, JsonLinesSpliterator)
+final class KeyTable {
+
+    static final int DEFAULT_CAPACITY = 256;
+    static final int MAX_KEY_LENGTH = 64;
+
+    private final String[] slots;
+    private final int mask;
+
+    KeyTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // capacity округляется вверх до степени двойки
+    KeyTable(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) * 2 - 1);
+        this.slots = new String[size];
+        this.mask = size - 1;
+    }
+
+    // Каноническая строка с содержимым chars
+    String intern(CharSequence chars) {
+        int length = chars.length();
+        if (length > MAX_KEY_LENGTH) {
+            return chars.toString();
+        }
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + chars.charAt(i); // как String.hashCode()
+        }
+        int first = (hash ^ hash >>> 16) & mask;
+        int second = first ^ 1;
+        String[] table = slots;
+        String key = table[first];
+        if (key != null && key.hashCode() == hash && key.contentEquals(chars)) {
+            return key;
+        }
+        String other = table[second];
+        if (other != null && other.hashCode() == hash && other.contentEquals(chars)) {
+            return other;
+        }
+        String created = chars.toString();
+        // новый ключ занимает первую ячейку, ее прежний ключ переходит во вторую
+        if (key != null) {
+            table[second] = key;
+        }
+        table[first] = created;
+        return created;
+    }
+}
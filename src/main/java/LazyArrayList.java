@@ -0,0 +1,85 @@
+import model.JsonValue;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+// Содержимое JsonArray ленивого документа: элемент декодируется при первом обращении
+// При первом изменении все элементы декодируются в обычный ArrayList, и дальше работа идет с ним
+// Читать можно из нескольких потоков; изменять, как и ArrayList, - только без параллельного чтения
+final class LazyArrayList extends AbstractList<JsonValue> implements RandomAccess {
+
+    private final LazyDocument document;
+    private final int[] records; // запись индекса документа для каждого элемента
+
+    // Декодированные элементы: гонка при заполнении безопасна, оба потока получат равные значения
+    private final JsonValue[] values;
+
+    private List<JsonValue> materialized;
+
+    // Массив - запись array индекса документа: границы элементов уже найдены проходом документа
+    LazyArrayList(LazyDocument document, int array) {
+        this.document = document;
+        int[] records = new int[8];
+        int size = 0;
+        for (int child = document.child(array); child >= 0; child = document.sibling(child)) {
+            if (size == records.length) {
+                records = Arrays.copyOf(records, size * 2);
+            }
+            records[size++] = child;
+        }
+        this.records = Arrays.copyOf(records, size);
+        this.values = new JsonValue[size];
+    }
+
+    @Override
+    public JsonValue get(int index) {
+        if (materialized != null) {
+            return materialized.get(index);
+        }
+        Objects.checkIndex(index, records.length);
+        JsonValue value = values[index];
+        if (value == null) {
+            value = document.value(records[index]);
+            values[index] = value;
+        }
+        return value;
+    }
+
+    @Override
+    public int size() {
+        return materialized != null ? materialized.size() : records.length;
+    }
+
+    @Override
+    public JsonValue set(int index, JsonValue element) {
+        return materialize().set(index, element);
+    }
+
+    @Override
+    public void add(int index, JsonValue element) {
+        materialize().add(index, element);
+        modCount++;
+    }
+
+    @Override
+    public JsonValue remove(int index) {
+        JsonValue removed = materialize().remove(index);
+        modCount++;
+        return removed;
+    }
+
+    private List<JsonValue> materialize() {
+        if (materialized == null) {
+            var list = new ArrayList<JsonValue>(records.length);
+            for (int i = 0; i < records.length; i++) {
+                list.add(get(i));
+            }
+            materialized = list;
+        }
+        return materialized;
+    }
+}
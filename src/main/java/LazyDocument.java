@@ -0,0 +1,149 @@
+import model.JsonArray;
+import model.JsonLiteral;
+import model.JsonObject;
+import model.JsonValue;
+
+import java.util.Arrays;
+
+// Ленивый документ: вход проверяется целиком одним проходом, но дерево не строится
+// Проход записывает индекс значений документа: границы каждого значения во входе, ключ и связи
+// "первый вложенный - следующий соседний". Объект или массив (LazyObjectMap, LazyArrayList) берет свои значения
+// из индекса, не просматривая вход повторно, поэтому обход всего документа линеен по его размеру при любой глубине.
+// Строка, число или литерал декодируется при первом обращении и кэшируется; вложенный объект или массив
+// при этом снова становится ленивым. Вход должен оставаться неизменным, пока документ используется
+// Индекс не меняется после разбора, а кэши значений заполняются без блокировок так, что гонка безопасна:
+// читать документ можно из нескольких потоков, изменять - как и LinkedHashMap, только из одного
+final class LazyDocument {
+
+    // Создает токенайзер по участку входа [from, to)
+    interface Source {
+        JsonTokenizer tokenizer(int from, int to);
+    }
+
+    private static final byte SCALAR = 0;
+    private static final byte OBJECT = 1;
+    private static final byte ARRAY = 2;
+
+    private final Source source;
+
+    // Индекс в порядке начала значений, корень - запись 0
+    private final int[] starts;
+    private final int[] ends;
+    private final byte[] kinds;
+    private final String[] names;   // ключ значения в объекте, null - элемент массива или корень
+    private final int[] children;   // первое вложенное значение, -1 - нет
+    private final int[] siblings;   // следующее значение того же объекта или массива, -1 - нет
+
+    private LazyDocument(Source source, int length) {
+        this.source = source;
+        JsonTokenizer tokenizer = source.tokenizer(0, length);
+        JsonReader reader = new JsonReader(tokenizer);
+        int capacity = 16;
+        int[] starts = new int[capacity];
+        int[] ends = new int[capacity];
+        byte[] kinds = new byte[capacity];
+        String[] names = new String[capacity];
+        int[] children = new int[capacity];
+        int[] siblings = new int[capacity];
+        int[] open = new int[16]; // открытые объекты и массивы
+        int[] last = new int[16]; // последнее записанное значение каждого из них
+        int depth = 0;
+        int size = 0;
+        JsonToken token;
+        while ((token = reader.nextToken()) != JsonToken.End) {
+            if (token == JsonToken.ObjectEnd || token == JsonToken.ArrayEnd) {
+                ends[open[--depth]] = tokenizer.position();
+                continue;
+            }
+            String name = null;
+            if (reader.isName()) {
+                name = tokenizer.getKey();
+                token = reader.nextToken();
+            }
+            if (size == capacity) {
+                capacity *= 2;
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                kinds = Arrays.copyOf(kinds, capacity);
+                names = Arrays.copyOf(names, capacity);
+                children = Arrays.copyOf(children, capacity);
+                siblings = Arrays.copyOf(siblings, capacity);
+            }
+            int i = size++;
+            starts[i] = tokenizer.tokenOffset();
+            names[i] = name;
+            children[i] = -1;
+            siblings[i] = -1;
+            if (depth > 0) {
+                if (last[depth - 1] < 0) {
+                    children[open[depth - 1]] = i;
+                } else {
+                    siblings[last[depth - 1]] = i;
+                }
+                last[depth - 1] = i;
+            }
+            if (token == JsonToken.ObjectBegin || token == JsonToken.ArrayBegin) {
+                kinds[i] = token == JsonToken.ObjectBegin ? OBJECT : ARRAY;
+                if (depth == open.length) {
+                    open = Arrays.copyOf(open, depth * 2);
+                    last = Arrays.copyOf(last, depth * 2);
+                }
+                open[depth] = i;
+                last[depth] = -1;
+                depth++;
+            } else {
+                kinds[i] = SCALAR;
+                ends[i] = tokenizer.position();
+            }
+        }
+        this.starts = starts;
+        this.ends = ends;
+        this.kinds = kinds;
+        this.names = names;
+        this.children = children;
+        this.siblings = siblings;
+    }
+
+    static JsonValue parse(byte[] input) {
+        return new LazyDocument((from, to) -> new Utf8JsonTokenizer(input, from, to), input.length).value(0);
+    }
+
+    static JsonValue parse(String input) {
+        char[] chars = input.toCharArray();
+        return new LazyDocument((from, to) -> new CharJsonTokenizer(chars, from, to), chars.length).value(0);
+    }
+
+    // Первое вложенное значение объекта или массива i и следующее за i в том же контейнере, -1 - нет
+    int child(int i) {
+        return children[i];
+    }
+
+    int sibling(int i) {
+        return siblings[i];
+    }
+
+    String name(int i) {
+        return names[i];
+    }
+
+    // Значение записи индекса i: объект и массив - ленивые, остальное декодируется по участку входа
+    JsonValue value(int i) {
+        return switch (kinds[i]) {
+            case OBJECT -> new JsonObject(new LazyObjectMap(this, i));
+            case ARRAY -> new JsonArray(new LazyArrayList(this, i));
+            default -> scalar(starts[i], ends[i]);
+        };
+    }
+
+    private JsonValue scalar(int from, int to) {
+        JsonTokenizer tokenizer = source.tokenizer(from, to);
+        return switch (tokenizer.next()) {
+            case String -> tokenizer.getString();
+            case Number -> tokenizer.getNumber();
+            case True -> JsonLiteral.True;
+            case False -> JsonLiteral.False;
+            case Null -> JsonLiteral.Null;
+            default -> throw new IllegalStateException("index does not point to a value");
+        };
+    }
+}
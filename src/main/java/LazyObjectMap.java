@@ -0,0 +1,193 @@
+import model.JsonValue;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+// Содержимое JsonObject ленивого документа: ключи берутся из индекса LazyDocument, значения декодируются
+// при первом обращении. Порядок ключей и поведение при повторяющихся ключах те же, что у LinkedHashMap в JsonObserver
+// При первом изменении все значения декодируются в обычный LinkedHashMap, и дальше работа идет с ним
+// Читать можно из нескольких потоков; изменять, как и LinkedHashMap, - только без параллельного чтения
+final class LazyObjectMap extends AbstractMap<String, JsonValue> {
+
+    // до этого числа ключей поиск линейный, дальше строится хэш-индекс
+    private static final int LINEAR_SEARCH_LIMIT = 8;
+
+    // Заполняются в конструкторе и дальше не меняются
+    private final LazyDocument document;
+    private final String[] keys;
+    private final int[] records; // запись индекса документа для каждого ключа
+    private final int size;
+    private final Map<String, Integer> positions; // null - линейный поиск
+
+    // Декодированные значения: гонка при заполнении безопасна, оба потока получат равные значения
+    private final JsonValue[] values;
+
+    private Map<String, JsonValue> materialized;
+
+    // Объект - запись object индекса документа: ключи и границы значений уже найдены проходом документа
+    // Повторяющийся ключ сохраняет первую позицию, но получает последнее значение, как в LinkedHashMap.put
+    LazyObjectMap(LazyDocument document, int object) {
+        this.document = document;
+        String[] keys = new String[4];
+        int[] records = new int[4];
+        int size = 0;
+        Map<String, Integer> positions = null;
+        for (int child = document.child(object); child >= 0; child = document.sibling(child)) {
+            String key = document.name(child);
+            int i = indexOf(keys, size, positions, key);
+            if (i < 0) {
+                if (size == keys.length) {
+                    keys = Arrays.copyOf(keys, size * 2);
+                    records = Arrays.copyOf(records, size * 2);
+                }
+                i = size++;
+                keys[i] = key;
+                if (positions != null) {
+                    positions.put(key, i);
+                } else if (size > LINEAR_SEARCH_LIMIT) {
+                    positions = new HashMap<>();
+                    for (int k = 0; k < size; k++) {
+                        positions.put(keys[k], k);
+                    }
+                }
+            }
+            records[i] = child;
+        }
+        this.keys = keys;
+        this.records = records;
+        this.size = size;
+        this.positions = positions;
+        this.values = new JsonValue[size];
+    }
+
+    @Override
+    public int size() {
+        return materialized != null ? materialized.size() : size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return materialized != null ? materialized.containsKey(key) : indexOf(key) >= 0;
+    }
+
+    @Override
+    public JsonValue get(Object key) {
+        if (materialized != null) {
+            return materialized.get(key);
+        }
+        int i = indexOf(key);
+        return i >= 0 ? value(i) : null;
+    }
+
+    @Override
+    public JsonValue put(String key, JsonValue value) {
+        return materialize().put(key, value);
+    }
+
+    @Override
+    public JsonValue remove(Object key) {
+        return materialize().remove(key);
+    }
+
+    @Override
+    public void clear() {
+        materialize().clear();
+    }
+
+    // Ключи перебираются без декодирования значений
+    @Override
+    public Set<String> keySet() {
+        if (materialized != null) {
+            return materialized.keySet();
+        }
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<String> iterator() {
+                return Arrays.asList(keys).subList(0, size).iterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<String, JsonValue>> entrySet() {
+        if (materialized != null) {
+            return materialized.entrySet();
+        }
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, JsonValue>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    public Entry<String, JsonValue> next() {
+                        if (next >= size) {
+                            throw new NoSuchElementException();
+                        }
+                        int i = next++;
+                        return new SimpleImmutableEntry<>(keys[i], value(i));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private JsonValue value(int i) {
+        JsonValue value = values[i];
+        if (value == null) {
+            value = document.value(records[i]);
+            values[i] = value;
+        }
+        return value;
+    }
+
+    private Map<String, JsonValue> materialize() {
+        if (materialized == null) {
+            var map = new LinkedHashMap<String, JsonValue>();
+            for (int i = 0; i < size; i++) {
+                map.put(keys[i], value(i));
+            }
+            materialized = map;
+        }
+        return materialized;
+    }
+
+    private int indexOf(Object key) {
+        return indexOf(keys, size, positions, key);
+    }
+
+    private static int indexOf(String[] keys, int size, Map<String, Integer> positions, Object key) {
+        if (positions != null) {
+            Integer i = positions.get(key);
+            return i != null ? i : -1;
+        }
+        for (int i = 0; i < size; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
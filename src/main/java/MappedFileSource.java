@@ -0,0 +1,55 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Источник байтов для Utf8JsonTokenizer, отображающий файл в память через FileChannel.map
+// Файл отображается последовательными участками не больше CHUNK_SIZE, поэтому поддерживаются файлы больше 2 ГБ;
+// чтение с диска выполняет ОС через страничный кэш, а в куче находится только окно токенайзера
+// Участок копируется в окно блоками (MappedByteBuffer.get(byte[])), а не просматривается на месте:
+// блочное копирование дешевле побайтового get(i) с проверкой границ, и разбор файла идет почти с той же скоростью,
+// что разбор byte[] в куче (замер на файле 128 МБ - в истории изменений)
+class MappedFileSource implements Utf8JsonTokenizer.ByteSource, Closeable {
+
+    static final long CHUNK_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+    private final long size;
+    private final long chunkSize;
+    private long mappedUpTo; // смещение в файле, до которого участки уже отображены
+    private MappedByteBuffer chunk;
+
+    MappedFileSource(Path path) throws IOException {
+        this(path, CHUNK_SIZE);
+    }
+
+    MappedFileSource(Path path, long chunkSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public int read(byte[] dst, int off, int len) throws IOException {
+        if (chunk == null || !chunk.hasRemaining()) {
+            if (mappedUpTo >= size) {
+                return -1;
+            }
+            long length = Math.min(chunkSize, size - mappedUpTo);
+            // предыдущий участок освобождается сборщиком мусора, как только на него не остается ссылок
+            chunk = channel.map(FileChannel.MapMode.READ_ONLY, mappedUpTo, length);
+            mappedUpTo += length;
+        }
+        int n = Math.min(len, chunk.remaining());
+        chunk.get(dst, off, n);
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        chunk = null;
+        channel.close();
+    }
+}
@@ -0,0 +1,31 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Событие JFR для ObjectMapper: fromObject, asProvided и write(object, writer) верхнего уровня
+// Вложенные объекты и поля отдельных событий не создают
+@Name("jsonparser.Mapping")
+@Label("JSON Mapping")
+@Category("JSON Parser")
+@Description("Conversion between Java objects and JSON by ObjectMapper")
+@StackTrace(false)
+class MappingEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Target Class")
+    @Description("Class of the source object for fromObject and write, requested class for asProvided")
+    Class<?> targetClass;
+
+    // Поля заполняются, только если событие будет записано
+    void commit(String operation, Class<?> targetClass) {
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.targetClass = targetClass;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+import model.JsonNumber;
+
+import java.math.BigInteger;
+
+// Разбор числового литерала JSON за один проход по тексту, без исключений в качестве управления
+// Знак, до 19 значащих цифр (в long) и десятичная степень накапливаются за один проход,
+// затем по виду литерала выбирается тип - тот же, что раньше давала цепочка parseInt/parseLong/parseDouble:
+// целое без точки и экспоненты - int или long, если помещается, иначе double
+//
+// double: сначала точный путь Клингера (мантисса до 2^53, |степень| <= 22 - одно умножение или деление),
+// затем алгоритм Эйзеля-Лемира (мантисса до 19 цифр, 128-битное приближение 5^q);
+// в редких пограничных случаях (больше 19 цифр, субнормальные числа, неоднозначное округление) - Double.parseDouble
+//
+// Один экземпляр переиспользуется токенайзером; не потокобезопасен
+final class NumberParser {
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final int MAX_DIGITS = 19; // любые 19 цифр помещаются в long без знака
+
+    // Результат последнего scan()
+    private boolean negative;
+    private long mantissa;   // первые MAX_DIGITS значащих цифр, как число без знака
+    private int digits;      // всего значащих цифр (без ведущих нулей)
+    private int scale;       // значение = mantissa * 10^scale (если digits <= MAX_DIGITS)
+    private boolean integer; // литерал без точки и экспоненты
+
+    // Самый узкий из int, long, double
+    JsonNumber number(CharSequence text) {
+        scan(text);
+        if (integer && fitsLong()) {
+            long value = longValue();
+            if ((int) value == value) {
+                return new JsonNumber((int) value);
+            }
+            return new JsonNumber(value);
+        }
+        return new JsonNumber(doubleValue(text));
+    }
+
+    double toDouble(CharSequence text) {
+        scan(text);
+        return doubleValue(text);
+    }
+
+    // Целый литерал в пределах long; остальное (1.0, 1e3, слишком большие числа) - false
+    boolean isLong(CharSequence text) {
+        scan(text);
+        return integer && fitsLong();
+    }
+
+    // Значение после успешного isLong()
+    long longValue() {
+        return negative ? -mantissa : mantissa;
+    }
+
+    // NUMBER: [+-]? ( \d+ \.? \d* | \.\d+ ) ( [eE][+-]?\d+ )?
+    private void scan(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        char c = length > 0 ? text.charAt(0) : 0;
+        negative = c == '-';
+        if (c == '-' || c == '+') {
+            i++;
+        }
+        mantissa = 0;
+        digits = 0;
+        scale = 0;
+        integer = true;
+
+        int intStart = i;
+        for (; i < length && (c = text.charAt(i)) >= '0' && c <= '9'; i++) {
+            if (digits == 0 && c == '0') {
+                continue; // ведущий ноль
+            }
+            if (digits < MAX_DIGITS) {
+                mantissa = mantissa * 10 + (c - '0');
+            } else {
+                scale++; // цифра за пределами мантиссы
+            }
+            digits++;
+        }
+        boolean hasIntDigits = i > intStart;
+
+        if (i < length && text.charAt(i) == '.') {
+            integer = false;
+            int fracStart = ++i;
+            for (; i < length && (c = text.charAt(i)) >= '0' && c <= '9'; i++) {
+                if (digits == 0 && c == '0') {
+                    scale--;
+                    continue;
+                }
+                if (digits < MAX_DIGITS) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    scale--;
+                }
+                digits++;
+            }
+            if (!hasIntDigits && i == fracStart) {
+                throw invalid(text);
+            }
+        } else if (!hasIntDigits) {
+            throw invalid(text);
+        }
+
+        if (i < length && ((c = text.charAt(i)) == 'e' || c == 'E')) {
+            integer = false;
+            i++;
+            boolean negativeExponent = false;
+            if (i < length && ((c = text.charAt(i)) == '-' || c == '+')) {
+                negativeExponent = c == '-';
+                i++;
+            }
+            int expStart = i;
+            int exponent = 0;
+            for (; i < length && (c = text.charAt(i)) >= '0' && c <= '9'; i++) {
+                if (exponent < 100_000) { // дальше результат все равно 0 или бесконечность
+                    exponent = exponent * 10 + (c - '0');
+                }
+            }
+            if (i == expStart) {
+                throw invalid(text);
+            }
+            scale += negativeExponent ? -exponent : exponent;
+        }
+        if (i != length) {
+            throw invalid(text);
+        }
+    }
+
+    private boolean fitsLong() {
+        if (digits < MAX_DIGITS) {
+            return true;
+        }
+        // 19 цифр: не больше Long.MAX_VALUE, для отрицательных - на единицу больше (Long.MIN_VALUE)
+        return digits == MAX_DIGITS && Long.compareUnsigned(mantissa, negative ? Long.MIN_VALUE : Long.MAX_VALUE) <= 0;
+    }
+
+    // Значение как double после isLong(), вернувшего false, без повторного прохода по тексту
+    double doubleValue(CharSequence text) {
+        if (mantissa == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+        if (digits <= MAX_DIGITS) {
+            // путь Клингера: и мантисса, и степень десяти точно представимы в double - результат округляется один раз
+            if (scale >= -22 && scale <= 22 && Long.compareUnsigned(mantissa, 1L << 53) <= 0) {
+                double value = (double) mantissa;
+                value = scale < 0 ? value / POWERS_OF_TEN[-scale] : value * POWERS_OF_TEN[scale];
+                return negative ? -value : value;
+            }
+            long bits = eiselLemire(mantissa, scale);
+            if (bits >= 0) {
+                double value = Double.longBitsToDouble(bits);
+                return negative ? -value : value;
+            }
+        }
+        return Double.parseDouble(text.toString());
+    }
+
+    // Алгоритм Эйзеля-Лемира: биты double для w * 10^q (w != 0) или -1, если результат нельзя гарантировать
+    // Lemire D. "Number Parsing at a Gigabyte per Second", 2021
+    private static long eiselLemire(long w, int q) {
+        if (q < PowersOfFive.MIN || q > PowersOfFive.MAX) {
+            return -1;
+        }
+        int index = q - PowersOfFive.MIN;
+        int lz = Long.numberOfLeadingZeros(w);
+        w <<= lz;
+        long factor = PowersOfFive.HIGH[index];
+        long upper = Math.unsignedMultiplyHigh(w, factor);
+        long lower = w * factor;
+        if ((upper & 0x1FF) == 0x1FF && Long.compareUnsigned(lower + w, lower) < 0) {
+            // старших 64 бит 5^q не хватило, чтобы определить округление: уточнение младшими битами
+            long factorLow = PowersOfFive.LOW[index];
+            long productLow = w * factorLow;
+            long productMiddle = lower + Math.unsignedMultiplyHigh(w, factorLow);
+            if (Long.compareUnsigned(productMiddle, lower) < 0) {
+                upper++;
+            }
+            if (productMiddle + 1 == 0 && (upper & 0x1FF) == 0x1FF && Long.compareUnsigned(productLow + w, productLow) < 0) {
+                return -1;
+            }
+            lower = productMiddle;
+        }
+        long upperBit = upper >>> 63;
+        long mantissa = upper >>> (upperBit + 9);
+        lz += (int) (1 ^ upperBit);
+        if (lower == 0 && (upper & 0x1FF) == 0 && (mantissa & 3) == 1) {
+            return -1; // возможно, ровно посередине между двумя double
+        }
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if (mantissa >= 1L << 53) {
+            mantissa = 1L << 52;
+            lz--;
+        }
+        mantissa &= ~(1L << 52);
+        // floor(log2(10^q)) + 63 + смещение порядка
+        long exponent = ((217706L * q) >> 16) + 63 + 1024 - lz;
+        if (exponent < 1 || exponent > 2046) {
+            return -1; // субнормальное число или переполнение
+        }
+        return mantissa | exponent << 52;
+    }
+
+    private static JsonException invalid(CharSequence text) {
+        return new JsonException("could not parse num=" + text);
+    }
+
+    // 128-битные приближения 5^q, нормализованные так, что старший бит равен 1
+    // Для q >= 0 - усечение 5^q, для q < 0 - округленное вверх 2^b / 5^-q; строятся один раз при первом обращении
+    private static final class PowersOfFive {
+        static final int MIN = -342;
+        static final int MAX = 308;
+        static final long[] HIGH = new long[MAX - MIN + 1];
+        static final long[] LOW = new long[MAX - MIN + 1];
+
+        static {
+            BigInteger five = BigInteger.valueOf(5);
+            for (int q = MIN; q <= MAX; q++) {
+                BigInteger value;
+                if (q >= 0) {
+                    value = five.pow(q);
+                    int shift = 128 - value.bitLength();
+                    value = shift >= 0 ? value.shiftLeft(shift) : value.shiftRight(-shift);
+                } else {
+                    BigInteger power = five.pow(-q);
+                    int z = power.bitLength();
+                    int b = q >= -27 ? z + 127 : 2 * z + 128;
+                    value = BigInteger.ONE.shiftLeft(b).divide(power).add(BigInteger.ONE);
+                    if (value.bitLength() > 128) {
+                        value = value.shiftRight(value.bitLength() - 128);
+                    }
+                }
+                HIGH[q - MIN] = value.shiftRight(64).longValue();
+                LOW[q - MIN] = value.longValue();
+            }
+        }
+    }
+}
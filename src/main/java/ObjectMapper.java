@@ -1,16 +1,24 @@
 import model.*;
 
 import java.lang.reflect.Array;
-import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.util.*;
 
 // Класс, дающий возможность транслировать POJO в классы-наследники JsonValue и наоборот
 class ObjectMapper {
 
+    // Верхний уровень fromObject, write и asProvided отмечается событием JFR (MappingEvent), вложенные вызовы - нет
+    public <T> JsonValue fromObject(T obj) {
+        var event = new MappingEvent();
+        event.begin();
+        JsonValue result = toJsonValue(obj);
+        event.commit("fromObject", obj == null ? null : obj.getClass());
+        return result;
+    }
+
     //рекурсивная функция, которая с пимощью "Поиска в глубину" приводит объект определенного класса к jsonValue,
     //+
-    public <T> JsonValue fromObject(T obj) {
+    private JsonValue toJsonValue(Object obj) {
         //Проверка на примитивные типя
         switch (obj) {
             case null:
@@ -42,24 +50,38 @@ class ObjectMapper {
         if (obj instanceof Object[] array) {
             List<JsonValue> list = new ArrayList<>();
             for (Object o : array) {
-                JsonValue jsonValue = fromObject(o);
+                JsonValue jsonValue = toJsonValue(o);
                 list.add(jsonValue);
             }
             return new JsonArray(list);
         }
+        // числовые массивы java хранятся в JsonArray без упаковки каждого элемента
+        switch (obj) {
+            case int[] array -> {
+                return new JsonArray(new NumberArrayList(array));
+            }
+            case long[] array -> {
+                return new JsonArray(new NumberArrayList(array));
+            }
+            case double[] array -> {
+                return new JsonArray(new NumberArrayList(array));
+            }
+            default -> {
+            }
+        }
         // обработка всех других типов массива
         if (clazz.isArray()) {
             int length = Array.getLength(obj);
             final Object[] result = new Object[length];
             for(int i = 0; i < length; i++)
                 result[i] = Array.get(obj, i);
-            return fromObject(result);
+            return toJsonValue(result);
         }
 
         if (obj instanceof Collection<?> collection) {
             List<JsonValue> list = new ArrayList<>();
             for (Object o : collection) {
-                JsonValue jsonValue = fromObject(o);
+                JsonValue jsonValue = toJsonValue(o);
                 list.add(jsonValue);
             }
             return new JsonArray(list);
@@ -68,7 +90,7 @@ class ObjectMapper {
         if (obj instanceof Map<?,?> map) {
             Map<String, JsonValue> result = new HashMap<>();
             for (Map.Entry<String, Object> e : ((Map<String, Object>) map).entrySet()) {
-                result.merge(e.getKey(), fromObject(e.getValue()), (x, y) -> {
+                result.merge(e.getKey(), toJsonValue(e.getValue()), (x, y) -> {
                     // так обеспечим отстуствие повторов ключей
                     throw new IllegalStateException();
                 });
@@ -80,30 +102,159 @@ class ObjectMapper {
     }
 
     //Преобразование из POJO
+    // Поля класса и доступ к ним берутся из кэша ClassCodec: рефлексия выполняется один раз на класс
     private JsonObject fromPlainObject(Object obj) {
-        var clazz = obj.getClass();
+        var codec = ClassCodec.of(obj.getClass());
         var result = new JsonObject(new HashMap<>());// Создаётся новый экземпляр JsonObject, который будет содержать пары ключ-значение
 
-        for (Field field : clazz.getDeclaredFields()) { // перечисляются все поля класса
-            field.setAccessible(true); // Открывается доступ к полю, чтобы можно было его прочитать, даже если оно является приватным.
-            String key = field.getName();  //Извлекается имя текущего поля, которое будет использоваться в качестве ключа в JsonObject.
+        for (ClassCodec.Property property : codec.properties()) { // перечисляются все поля класса
+            JsonValue value = toJsonValue(property.get(obj)); // продолжаем рекурсивно разбирать объект
+            result.entries.put(property.name, value);
+        }
+        return result;
+    }
+
+
+
+    public void write(Object obj, JsonWriter writer) {
+        var event = new MappingEvent();
+        event.begin();
+        writeValue(obj, writer);
+        event.commit("write", obj == null ? null : obj.getClass());
+    }
 
-            try {
-                JsonValue value = fromObject(field.get(obj)); // продолжаем рекурсивно разбирать объект
-                result.entries.put(key, value);
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
+    // Записывает объект прямо в JsonWriter, без промежуточного дерева JsonValue; правила те же, что у fromObject
+    // Поля POJO берутся из кэша ClassCodec и пишутся в порядке объявления, примитивные поля и массивы - без упаковки
+    private void writeValue(Object obj, JsonWriter writer) {
+        switch (obj) {
+            case null -> writer.nullValue();
+            case JsonValue value -> writer.write(value);
+            case Boolean value -> writer.value(value.booleanValue());
+            case Float value -> writer.value(value.doubleValue()); // как JsonNumber(double)
+            case BigDecimal value -> writer.value(value);
+            case Byte value -> writer.value(value);
+            case Short value -> writer.value(value);
+            case Integer value -> writer.value(value);
+            case Long value -> writer.value(value);
+            case Double value -> writer.value(value);
+            case String value -> writer.value(value);
+            case Object[] array -> {
+                writer.beginArray();
+                for (Object element : array) {
+                    writeValue(element, writer);
+                }
+                writer.endArray();
+            }
+            case int[] array -> {
+                writer.beginArray();
+                for (int element : array) {
+                    writer.value(element);
+                }
+                writer.endArray();
+            }
+            case long[] array -> {
+                writer.beginArray();
+                for (long element : array) {
+                    writer.value(element);
+                }
+                writer.endArray();
+            }
+            case short[] array -> {
+                writer.beginArray();
+                for (short element : array) {
+                    writer.value(element);
+                }
+                writer.endArray();
+            }
+            case byte[] array -> {
+                writer.beginArray();
+                for (byte element : array) {
+                    writer.value(element);
+                }
+                writer.endArray();
+            }
+            case double[] array -> {
+                writer.beginArray();
+                for (double element : array) {
+                    writer.value(element);
+                }
+                writer.endArray();
+            }
+            case float[] array -> {
+                writer.beginArray();
+                for (float element : array) {
+                    writer.value(element);
+                }
+                writer.endArray();
+            }
+            case boolean[] array -> {
+                writer.beginArray();
+                for (boolean element : array) {
+                    writer.value(element);
+                }
+                writer.endArray();
+            }
+            case Collection<?> collection -> {
+                writer.beginArray();
+                for (Object element : collection) {
+                    writeValue(element, writer);
+                }
+                writer.endArray();
+            }
+            case Map<?, ?> map -> {
+                writer.beginObject();
+                for (Map.Entry<?, ?> e : map.entrySet()) {
+                    writer.name((String) e.getKey());
+                    writeValue(e.getValue(), writer);
+                }
+                writer.endObject();
+            }
+            default -> {
+                if (obj.getClass().isArray()) { // char[]: элементы обрабатываются как в fromObject
+                    writer.beginArray();
+                    for (int i = 0; i < Array.getLength(obj); i++) {
+                        writeValue(Array.get(obj, i), writer);
+                    }
+                    writer.endArray();
+                } else {
+                    writePlainObject(obj, writer);
+                }
             }
         }
-        return result;
+    }
+
+    private void writePlainObject(Object obj, JsonWriter writer) {
+        writer.beginObject();
+        for (ClassCodec.Property property : ClassCodec.of(obj.getClass()).properties()) {
+            writer.name(property.name);
+            Class<?> type = property.type;
+            if (type == int.class || type == long.class || type == short.class || type == byte.class) {
+                writer.value(property.getLong(obj));
+            } else if (type == double.class || type == float.class) {
+                writer.value(property.getDouble(obj));
+            } else if (type == boolean.class) {
+                writer.value(property.getBoolean(obj));
+            } else {
+                writeValue(property.get(obj), writer);
+            }
+        }
+        writer.endObject();
     }
 
 
 
+    public <T> T asProvided(JsonValue source, Class<T> clazz) {
+        var event = new MappingEvent();
+        event.begin();
+        T result = convert(source, clazz);
+        event.commit("asProvided", clazz);
+        return result;
+    }
+
     //рекурсивная функция, которая с пимощью "Поиска в глубину" приводит объект JsonValue к определенному классу,
     // и если поля Json и класса  не совпадают - выкидывает исключение
     //+
-    public <T> T asProvided(JsonValue source, Class<T> clazz) {
+    <T> T convert(JsonValue source, Class<T> clazz) {
         // сюда приходит один из классов, наследуемый от JsonValue
         switch (source) {
             case JsonLiteral.Null:
@@ -174,6 +325,12 @@ class ObjectMapper {
         if (clazz.isArray()) {
             //извлекается тип массива
             Class<?> componentType = clazz.getComponentType();
+            if (values instanceof NumberArrayList numbers) {
+                Object copy = copyNumbers(numbers, componentType);
+                if (copy != null) {
+                    return clazz.cast(copy);
+                }
+            }
             // создается новый массив того же типа и размера
             var result = Array.newInstance(componentType, size);
 
@@ -181,7 +338,7 @@ class ObjectMapper {
             /*    Для каждого индекса i вызывается метод asProvided, который преобразует значение
                 из списка values в нужный тип элемента массива и
                 присваивает его соответствующему индексу массива result с помощью Array.set().*/
-                Array.set(result, i, asProvided(values.get(i), componentType));
+                Array.set(result, i, convert(values.get(i), componentType));
             }
             return (T) result;
         }
@@ -201,7 +358,7 @@ class ObjectMapper {
             for (JsonValue value : values) {
                 // use 'ordinary' as a hack because in other case we need more information
                 // on type parameter of a parametrized collection.
-                addMethod.invoke(result, asProvided(value, addMethod.getParameterTypes()[0]));
+                addMethod.invoke(result, convert(value, addMethod.getParameterTypes()[0]));
             }
             return result;
         } catch (ReflectiveOperationException e) {
@@ -209,6 +366,48 @@ class ObjectMapper {
         }
     }
 
+    // Однородный числовой JsonArray копируется в массив java целиком, без asProvided и Array.set для каждого элемента
+    // Только там, где результат совпадает с поэлементным преобразованием: int <- int, long <- int/long,
+    // double <- int/long/double; для остальных сочетаний - null
+    private static Object copyNumbers(NumberArrayList numbers, Class<?> componentType) {
+        Class<?> type = numbers.primitiveType();
+        if (type == null) {
+            return null;
+        }
+        int size = numbers.size();
+        if (componentType == int.class && type == int.class) {
+            return numbers.toIntArray();
+        }
+        if (componentType == long.class && type == long.class) {
+            return numbers.toLongArray();
+        }
+        if (componentType == long.class && type == int.class) {
+            long[] result = new long[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = numbers.getInt(i);
+            }
+            return result;
+        }
+        if (componentType == double.class && type == double.class) {
+            double[] result = numbers.toDoubleArray();
+            for (double value : result) {
+                // asProvided идет через BigDecimal: -0.0 становится 0.0, а бесконечность - ошибкой
+                if (!Double.isFinite(value) || Double.doubleToRawLongBits(value) == Long.MIN_VALUE) {
+                    return null;
+                }
+            }
+            return result;
+        }
+        if (componentType == double.class) {
+            double[] result = new double[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = numbers.getLong(i);
+            }
+            return result;
+        }
+        return null;
+    }
+
     //+
     //Используется в asProvided
     private <T> T asProvidedObject(JsonObject object, Class<T> clazz) {
@@ -222,11 +421,11 @@ class ObjectMapper {
                 clazz.getMethod("putAll", Map.class).invoke(result, asOrdinaryMap(object));
                 return result;
             }
-            result = clazz.getConstructor().newInstance();
+            var codec = ClassCodec.of(clazz);
+            result = clazz.cast(codec.newInstance());
             for (var entry : object.entries.entrySet()) {
-                final Field field = clazz.getDeclaredField(entry.getKey()); // для каждого ключа в поле объекта -  ищется соотвествующее поле
-                field.setAccessible(true); // получаем доступ к приватным полям
-                field.set(result, asProvided(entry.getValue(), field.getType())); // присваивается значение из Json объекта
+                var property = codec.property(entry.getKey()); // для каждого ключа в поле объекта -  ищется соотвествующее поле
+                property.set(result, convert(entry.getValue(), property.type)); // присваивается значение из Json объекта
             }
             return result;
         } catch (ReflectiveOperationException e) {
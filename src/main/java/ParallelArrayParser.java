@@ -0,0 +1,162 @@
+import model.JsonArray;
+import model.JsonValue;
+import model.NumberArrayList;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+// Параллельный разбор одного большого массива верхнего уровня: [ {...}, {...}, ... ]
+// 1. Дешевый структурный проход: учитываются только кавычки, escape-символы и глубина вложенности,
+//    запоминаются границы элементов на глубине 1 (запятые между ними)
+// 2. Диапазоны элементов делятся на пакеты и разбираются одновременно в fork-join пуле,
+//    каждый элемент - своим токенайзером по своему участку входа
+// 3. Результаты складываются в JsonArray.elements в исходном порядке
+class ParallelArrayParser {
+
+    // вход меньше этого размера разбирается последовательно: параллельный проход себя не окупит
+    static final int PARALLEL_THRESHOLD = 1 << 20;
+    // на одно ядро приходится несколько пакетов, чтобы выровнять нагрузку при элементах разного размера
+    private static final int BATCHES_PER_CORE = 8;
+
+    private int[] starts = new int[1024];
+    private int[] ends = new int[1024];
+    private int count;
+
+    static JsonArray parse(byte[] input) {
+        if (input.length < PARALLEL_THRESHOLD) {
+            return parseSequentially(new Utf8JsonTokenizer(input));
+        }
+        var scan = new ParallelArrayParser();
+        boolean bom = input.length >= 3 && input[0] == (byte) 0xEF && input[1] == (byte) 0xBB && input[2] == (byte) 0xBF;
+        scan.scan(bom ? 3 : 0, input.length, i -> input[i]);
+        return scan.parseElements(i -> new Utf8JsonTokenizer(input, scan.starts[i], scan.ends[i]));
+    }
+
+    static JsonArray parse(String input) {
+        if (input.length() < PARALLEL_THRESHOLD) {
+            return parseSequentially(new CharJsonTokenizer(input));
+        }
+        char[] chars = input.toCharArray();
+        var scan = new ParallelArrayParser();
+        scan.scan(0, chars.length, i -> chars[i] < 0x80 ? (byte) chars[i] : 0);
+        return scan.parseElements(i -> new CharJsonTokenizer(chars, scan.starts[i], scan.ends[i]));
+    }
+
+    // Небольшой вход разбирается целиком одним парсером; корнем, как и в структурном проходе, должен быть массив
+    private static JsonArray parseSequentially(JsonTokenizer tokenizer) {
+        if (new JsonParser<>(tokenizer, new JsonObserver()).parse() instanceof JsonArray array) {
+            return array;
+        }
+        throw new JsonException("input is not an array");
+    }
+
+    // Доступ к символу входа; для структурного прохода важны только символы ASCII,
+    // поэтому не-ASCII символы строки передаются как 0, а байты UTF-8 - как есть (все они отрицательные)
+    private interface Input {
+        byte at(int index);
+    }
+
+    // Структурный проход: находит границы элементов массива верхнего уровня
+    private void scan(int from, int length, Input input) {
+        int i = skipWhitespace(from, length, input);
+        if (i == length || input.at(i) != '[') {
+            throw new JsonException("input is not an array");
+        }
+        int elementStart = ++i;
+        int depth = 1;
+        boolean inString = false;
+        boolean blank = true; // встретилось ли в текущем элементе что-то кроме пробелов
+        for (; i < length; i++) {
+            byte c = input.at(i);
+            if (inString) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+            switch (c) {
+                case '"' -> {
+                    inString = true;
+                    blank = false;
+                }
+                case '[', '{' -> {
+                    depth++;
+                    blank = false;
+                }
+                case ']', '}' -> {
+                    depth--;
+                    if (depth == 0) {
+                        if (c != ']') {
+                            throw new JsonException("Unexpected token ObjectEnd");
+                        }
+                        // "[]" и "[ ]" - пустой массив; пустой последний элемент "[1,]" отдается парсеру как ошибка
+                        if (!blank || count > 0) {
+                            add(elementStart, i);
+                        }
+                        if (skipWhitespace(i + 1, length, input) != length) {
+                            throw new JsonException("Unexpected token after the end of array");
+                        }
+                        return;
+                    }
+                    blank = false;
+                }
+                case ',' -> {
+                    if (depth == 1) {
+                        add(elementStart, i);
+                        elementStart = i + 1;
+                        blank = true;
+                    }
+                }
+                default -> {
+                    if (!JsonTokenizer.isWhitespace(c)) {
+                        blank = false;
+                    }
+                }
+            }
+        }
+        throw new JsonException("Unexpected token End");
+    }
+
+    private void add(int start, int end) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+        }
+        starts[count] = start;
+        ends[count] = end;
+        count++;
+    }
+
+    private JsonArray parseElements(IntFunction<JsonTokenizer> tokenizerFor) {
+        JsonValue[] elements = new JsonValue[count];
+        int batches = Math.min(count, ForkJoinPool.getCommonPoolParallelism() * BATCHES_PER_CORE);
+        var keys = new KeyTable(); // элементы обычно имеют одинаковые ключи; таблица общая для всех потоков
+        IntStream.range(0, batches).parallel().forEach(batch -> {
+            int from = (int) ((long) count * batch / batches);
+            int to = (int) ((long) count * (batch + 1) / batches);
+            for (int i = from; i < to; i++) {
+                elements[i] = new JsonParser<>(tokenizerFor.apply(i).withKeys(keys), new JsonObserver()).parse();
+            }
+        });
+        // те же элементы, что у последовательного разбора: однородные числа ложатся в int[] / long[] / double[]
+        var list = new NumberArrayList();
+        for (JsonValue element : elements) {
+            list.add(element);
+        }
+        return new JsonArray(list);
+    }
+
+    private static int skipWhitespace(int i, int length, Input input) {
+        while (i < length) {
+            if (!JsonTokenizer.isWhitespace(input.at(i))) {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+}
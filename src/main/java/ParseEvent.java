@@ -0,0 +1,39 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Событие JFR для одного вызова JsonParser.parse()
+// Пока запись JFR не идет, событие выключено: isEnabled() - false, и парсер не считает токены и глубину
+// Включение: java -XX:StartFlightRecording ... или jcmd <pid> JFR.start; просмотр - jfr print --events jsonparser.Parse
+@Name("jsonparser.Parse")
+@Label("JSON Parse")
+@Category("JSON Parser")
+@Description("Parsing of one JSON document by JsonParser")
+@StackTrace(false)
+class ParseEvent extends jdk.jfr.Event {
+
+    @Label("Input Size")
+    @Description("Characters for String and Reader input, bytes for UTF-8 input; -1 if unknown")
+    long inputSize;
+
+    @Label("Tokens")
+    int tokenCount;
+
+    @Label("Max Depth")
+    int maxDepth;
+
+    @Label("Observer")
+    String observer;
+
+    @Label("Engine")
+    String engine;
+
+    @Label("Target Class")
+    @Description("Class the document is bound to, for Json.parseObject(input, Class)")
+    Class<?> targetClass;
+
+    @Label("Error")
+    String error;
+}
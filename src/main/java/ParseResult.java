@@ -0,0 +1,26 @@
+import model.JsonValue;
+
+// Результат разбора одного документа из пакета (Json.parseAll): значение или ошибка этого документа
+// Ошибка одного документа не прерывает разбор остальных
+public record ParseResult(JsonValue value, JsonException error) {
+
+    static ParseResult success(JsonValue value) {
+        return new ParseResult(value, null);
+    }
+
+    static ParseResult failure(JsonException error) {
+        return new ParseResult(null, error);
+    }
+
+    public boolean failed() {
+        return error != null;
+    }
+
+    // Значение; для документа с ошибкой выбрасывает ее
+    public JsonValue get() {
+        if (error != null) {
+            throw error;
+        }
+        return value;
+    }
+}
@@ -8,35 +8,41 @@ import java.util.*;
 // Вспомогательный класс, расширяющий возможности JsonParser
     //реализует выполнение семантических действий в процессе разбора последовательности токенов
 class PlainObserver implements JsonParser.Observer<Object> {
-    // использует стандартные java объекты
-    private final Stack<Object> stack = new Stack<>();
+    // использует стандартные java объекты; ArrayList вместо синхронизированного Stack, вершина - последний элемент
+    private final List<Object> stack = new ArrayList<>();
 
     @Override
     public Object result() {
-        return stack.pop();            // в конце в результате выполнения должен остаться один объект
+        return stack.removeLast();            // в конце в результате выполнения должен остаться один объект
+    }
+
+    @Override
+    public void reset() {
+        stack.clear();
     }
     //
     @Override
     public void accept(JsonParser.Action action, JsonTokenizer tokenizer) {
         switch (action) {
             case AddElement -> {
-                var value = stack.pop();
-                ((List<Object>) stack.peek()).add(value);
+                var value = stack.removeLast();
+                ((List<Object>) stack.getLast()).add(value);
             }
-            case CreateArray -> stack.push(new ArrayList<>());
-            case CreateObject -> stack.push(new LinkedHashMap<>());
-            case FalseSetValue -> stack.push(false);
-            case NullSetValue -> stack.push(null);
-            case NumberSetValue -> stack.push(tokenizer.getNumber().value);
+            case CreateArray -> stack.add(new ArrayList<>());
+            case CreateObject -> stack.add(new LinkedHashMap<>());
+            case FalseSetValue -> stack.add(false);
+            case NullSetValue -> stack.add(null);
+            case NumberSetValue -> stack.add(tokenizer.getNumber().value);
 
             case PutEntry -> {
-                var value = stack.pop();
-                var key = (String) stack.pop();
+                var value = stack.removeLast();
+                var key = (String) stack.removeLast();
                 // собираем Json из объектов на стеке
-                ((Map<String, Object>) stack.peek()).put(key, value);
+                ((Map<String, Object>) stack.getLast()).put(key, value);
             }
-            case StringSetValue -> stack.push(tokenizer.getString().content);
-            case TrueSetValue -> stack.push(true);
+            case KeySetValue -> stack.add(tokenizer.getKey());
+            case StringSetValue -> stack.add(tokenizer.getString().content);
+            case TrueSetValue -> stack.add(true);
             default -> throw new IllegalStateException("Unexpected action: " + this);
         }
     }
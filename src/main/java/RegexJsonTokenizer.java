@@ -0,0 +1,152 @@
+import model.JsonString;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Лексический анализатор JSON на регулярных выражениях
+// Исходная реализация, оставлена для сравнения с CharJsonTokenizer на одних и тех же входных данных
+class RegexJsonTokenizer extends JsonTokenizer {
+
+    private final Matcher matcher;
+    String contentsCoded; // Будет храниться строка текущего значения
+    String num;// будет храниться число текущего значения
+    // группы номеруются в порядке обхода в глубину
+    //Первая группа - вспомогательные символы
+    //Вторая - строки
+    //Третья - числа
+    private static final Pattern TOKEN = Pattern.compile("""
+            \\s*    # пробелы -> игнорим
+            (# группа #1
+             # STRING
+             "((?: \\\\[\\"\\\\/bfnrt]     # escaped character # группа #2
+                  | \\\\u[a-fA-F0-9]{4}  # escaped unicode
+                  | [^"\\\\]             # character
+                )*)
+             "
+             # NUMBER
+             | ( [+-]?   # группа #3
+               (?:\\d+\\.?\\d* | \\.\\d+)  # обычное число
+               (?:[eE][+-]?\\d+)?          # экспоненциальная форма числа
+               )
+             | true
+             | false
+             | null
+             | \\{   # OBJECT_BEGIN
+             | }     # OBJECT_END
+             | \\[   # ARRAY_BEGIN
+             | ]     # ARRAY_END
+             | :     # COLON
+             | ,     # COMMA
+            )""", Pattern.COMMENTS);
+
+
+    public RegexJsonTokenizer(String input) {
+
+        this.matcher = TOKEN.matcher(input);
+    }
+
+    @Override
+    long inputLength() {
+        return matcher.regionEnd();
+    }
+
+    // Группа 1 - сам токен без пробелов перед ним
+    @Override
+    int tokenOffset() {
+        return matcher.start(1);
+    }
+
+    @Override
+    int position() {
+        return matcher.end();
+    }
+
+
+    // Строка без escape-последовательностей возвращается как есть, без копирования;
+    // иначе декодируется за один проход. Синтаксис escape-последовательностей уже проверен регулярным выражением TOKEN
+    @Override
+    protected JsonString getString() {
+        int backslash = contentsCoded.indexOf('\\');
+        if (backslash < 0) {
+            return new JsonString(contentsCoded);
+        }
+        StringBuilder result = new StringBuilder(contentsCoded.length());
+        result.append(contentsCoded, 0, backslash);
+        for (int i = backslash; i < contentsCoded.length(); i++) {
+            char c = contentsCoded.charAt(i);
+            if (c != '\\') {
+                result.append(c);
+                continue;
+            }
+            c = contentsCoded.charAt(++i);
+            switch (c) {
+                case 'u' -> {
+                    // суррогатная пара \uD83D\uDE00 дает два char, как и в строке Java
+                    result.append((char) Integer.parseInt(contentsCoded, i + 1, i + 5, 16));
+                    i += 4;
+                }
+                case 'b' -> result.append('\b');
+                case 'f' -> result.append('\f');
+                case 'n' -> result.append('\n');
+                case 'r' -> result.append('\r');
+                case 't' -> result.append('\t');
+                default -> result.append(c); // \" \\ \/
+            }
+        }
+        return new JsonString(result.toString());
+    }
+
+    @Override
+    protected CharSequence getNumberText() {
+        return num;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !matcher.hitEnd();
+    }
+
+    @Override
+    public JsonToken next() {
+            if (!matcher.find()) {
+                return JsonToken.End;
+            }
+            switch (matcher.group(1)) {
+                case "{":
+                    return JsonToken.ObjectBegin;
+                case "}":
+                    return JsonToken.ObjectEnd;
+                case "[":
+                    return JsonToken.ArrayBegin;
+                case "]":
+                    return JsonToken.ArrayEnd;
+                case ":":
+                    return JsonToken.Colon;
+                case ",":
+                    return JsonToken.Comma;
+                case "true":
+                    return JsonToken.True;
+                case "false":
+                    return JsonToken.False;
+                case "null":
+                    return JsonToken.Null;
+            }
+            char first = matcher.group(1).charAt(0);
+            switch (first) {
+                case '"':
+                    contentsCoded = matcher.group(2);
+                    return JsonToken.String;
+                case '+':
+                case '-':
+                    num = matcher.group(3);
+                    return JsonToken.Number;
+            }
+            if (Character.isDigit(first)) {
+                num = matcher.group(3);
+                return JsonToken.Number;
+            }
+
+            throw new JsonException("input contains unrecognized token");
+
+    }
+}
@@ -0,0 +1,32 @@
+// Скалярная классификация блока: по одному байту за шаг
+// Используется при jsonparser.structuralIndex=scalar, а также вместо векторной, если модуль jdk.incubator.vector не подключен
+final class ScalarStructuralIndexer extends StructuralIndexer {
+
+    @Override
+    void classify(byte[] block, int offset) {
+        long quote = 0;
+        long backslash = 0;
+        long structural = 0;
+        long whitespace = 0;
+        long nonAscii = 0;
+        for (int i = 0; i < BLOCK; i++) {
+            long bit = 1L << i;
+            switch (block[offset + i]) {
+                case '"' -> quote |= bit;
+                case '\\' -> backslash |= bit;
+                case '{', '}', '[', ']', ':', ',' -> structural |= bit;
+                case ' ', '\n', '\r', '\t', '\f', 0x0B -> whitespace |= bit;
+                default -> {
+                    if (block[offset + i] < 0) {
+                        nonAscii |= bit;
+                    }
+                }
+            }
+        }
+        this.quote = quote;
+        this.backslash = backslash;
+        this.structural = structural;
+        this.whitespace = whitespace;
+        this.nonAscii = nonAscii;
+    }
+}
@@ -0,0 +1,161 @@
+import java.util.Arrays;
+import java.util.Locale;
+
+// Первая стадия разбора в духе simdjson: по входу в UTF-8 строится индекс позиций, на которых начинаются токены
+// Индекс содержит позиции структурных символов {}[]:, вне строк, обеих кавычек каждой строки
+// и первых байтов чисел и литералов. Utf8JsonTokenizer переходит по индексу от токена к токену,
+// не просматривая пробелы и содержимое строк побайтно
+//
+// Вход обрабатывается блоками по 64 байта: classify() раскладывает блок на битовые маски (бит i - байт i блока),
+// а дальше кавычки, escape-последовательности и границы строк вычисляются битовыми операциями над масками.
+// classify() реализован векторно (VectorStructuralIndexer, jdk.incubator.vector) и скалярно (ScalarStructuralIndexer)
+//
+// Индекс включается явно: -Djsonparser.structuralIndex=vector или =scalar. По умолчанию byte[] сканируется напрямую:
+// на JDK 21 токенизация по индексу заметно медленнее прямого прохода Utf8JsonTokenizer, в том числе с Vector API
+// Сравнение - StructuralIndexBenchmark в модуле benchmarks
+abstract class StructuralIndexer {
+
+    enum Mode {
+        Off,    // прямой проход без индекса
+        Scalar, // ScalarStructuralIndexer
+        Vector  // VectorStructuralIndexer; без модуля jdk.incubator.vector - ScalarStructuralIndexer
+    }
+
+    static final Mode MODE = mode(System.getProperty("jsonparser.structuralIndex"));
+
+    // Признак в записи закрывающей кавычки: в строке есть escape-последовательности или не-ASCII байты,
+    // поэтому токенайзер должен ее проверить и декодировать; сама позиция - в младших 31 битах
+    static final int SPECIAL_STRING = 0x8000_0000;
+    static final int POSITION_MASK = 0x7FFF_FFFF;
+
+    static final int BLOCK = 64;
+
+    // Векторная реализация доступна, только если модуль подключен: --add-modules jdk.incubator.vector
+    static final boolean VECTOR_AVAILABLE = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    // Маски текущего блока, заполняются classify()
+    long quote;
+    long backslash;
+    long structural;
+    long whitespace;
+    long nonAscii;
+
+    private int[] index;
+    private int size;
+
+    // Неизвестное значение свойства, как и его отсутствие, оставляет прямой проход
+    private static Mode mode(String property) {
+        return switch (property == null ? "" : property.toLowerCase(Locale.ROOT)) {
+            case "vector" -> Mode.Vector;
+            case "scalar" -> Mode.Scalar;
+            default -> Mode.Off;
+        };
+    }
+
+    static StructuralIndexer create(Mode mode) {
+        if (mode == Mode.Vector && VECTOR_AVAILABLE) {
+            try {
+                return new VectorStructuralIndexer();
+            } catch (LinkageError ignored) {
+                // модуль есть, но векторные классы недоступны - работаем скалярно
+            }
+        }
+        return new ScalarStructuralIndexer();
+    }
+
+    // Раскладывает 64 байта block[offset..offset+64) по маскам quote, backslash, structural, whitespace, nonAscii
+    abstract void classify(byte[] block, int offset);
+
+    // Строит индекс для input[from, to); позиции абсолютные, количество записей - size()
+    int[] index(byte[] input, int from, int to) {
+        index = new int[Math.max(16, (to - from) / 4)];
+        size = 0;
+        boolean escapeCarry = false;   // последний байт предыдущего блока - неэкранированный '\'
+        boolean inStringCarry = false; // предыдущий блок закончился внутри строки
+        boolean scalarCarry = false;   // предыдущий блок закончился внутри числа или литерала
+        boolean special = false;       // в текущей строке есть escape-последовательности или не-ASCII байты
+        byte[] tail = null;
+
+        for (int base = from; base < to; base += BLOCK) {
+            if (base + BLOCK <= to) {
+                classify(input, base);
+            } else {
+                // последний неполный блок дополняется пробелами
+                tail = new byte[BLOCK];
+                Arrays.fill(tail, (byte) ' ');
+                System.arraycopy(input, base, tail, 0, to - base);
+                classify(tail, 0);
+            }
+
+            // экранированные символы: байт после нечетной последовательности '\'
+            long escaped = escapeCarry ? 1L : 0L;
+            escapeCarry = false;
+            long escapers = backslash & ~escaped;
+            while (escapers != 0) {
+                int bit = Long.numberOfTrailingZeros(escapers);
+                if (bit == BLOCK - 1) {
+                    escapeCarry = true;
+                    break;
+                }
+                escaped |= 1L << (bit + 1);
+                escapers &= ~(3L << bit);
+            }
+
+            // внутри строки: префиксный XOR по неэкранированным кавычкам (открывающая кавычка входит, закрывающая - нет)
+            long quotes = quote & ~escaped;
+            long inString = prefixXor(quotes) ^ (inStringCarry ? -1L : 0L);
+            inStringCarry = inString < 0;
+
+            long outside = ~inString;
+            long scalar = ~(structural | whitespace | quotes) & outside;
+            long scalarStarts = scalar & ~(scalar << 1 | (scalarCarry ? 1L : 0L));
+            scalarCarry = scalar < 0;
+            long specials = (backslash | nonAscii) & inString;
+
+            long tokens = (structural & outside) | quotes | scalarStarts | specials;
+            while (tokens != 0) {
+                int bit = Long.numberOfTrailingZeros(tokens);
+                long mask = 1L << bit;
+                tokens &= tokens - 1;
+                if ((specials & mask) != 0) {
+                    special = true;
+                    continue;
+                }
+                int position = base + bit;
+                if ((quotes & mask) != 0 && (inString & mask) == 0) {
+                    add(special ? position | SPECIAL_STRING : position); // закрывающая кавычка
+                    continue;
+                }
+                if ((quotes & mask) != 0) {
+                    special = false; // открывающая кавычка
+                }
+                add(position);
+            }
+        }
+        if (inStringCarry) {
+            throw new JsonException("unterminated string");
+        }
+        return index;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void add(int entry) {
+        if (size == index.length) {
+            index = Arrays.copyOf(index, size * 2);
+        }
+        index[size++] = entry;
+    }
+
+    private static long prefixXor(long x) {
+        x ^= x << 1;
+        x ^= x << 2;
+        x ^= x << 4;
+        x ^= x << 8;
+        x ^= x << 16;
+        x ^= x << 32;
+        return x;
+    }
+}
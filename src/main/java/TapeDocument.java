@@ -0,0 +1,362 @@
+import model.JsonArray;
+import model.JsonLiteral;
+import model.JsonNumber;
+import model.JsonObject;
+import model.JsonString;
+import model.JsonValue;
+import model.JsonWriter;
+import model.NumberArrayList;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Компактное представление документа: вместо дерева объектов - один long[] (лента) и общий char[] для строк
+// Каждый элемент ленты - тип в старшем байте и 56 бит данных:
+//     начало объекта/массива - число элементов (24 бита) и индекс парного конца (32 бита), конец - индекс начала;
+//     строка - смещение в chars, где лежат длина (два char) и сами символы;
+//     int - значение прямо в элементе; long и double - в следующем элементе ленты; true, false, null - только тип
+// Ключ объекта - строка на ленте перед своим значением. Вложенное значение пропускается переходом к концу контейнера
+//
+// Чтение - через Cursor: root().get("a").at(3).asLong(). Курсор - индекс на ленте, JsonValue не создаются;
+// toJsonValue() по требованию строит обычное дерево model для всего документа или поддерева
+// get и at проходят контейнер последовательно; для обхода всех элементов - values()
+// Повторяющиеся ключи остаются на ленте все: size(), keys() и values() их учитывают, get() и toJsonValue() берут последнее значение
+//
+// Пример:
+//     TapeDocument document = Json.parseTape(input);
+//     long id = document.root().get("user").get("id").asLong();
+public final class TapeDocument {
+
+    static final int OBJECT = 1;
+    static final int OBJECT_END = 2;
+    static final int ARRAY = 3;
+    static final int ARRAY_END = 4;
+    static final int STRING = 5;
+    static final int INT = 6;
+    static final int LONG = 7;   // значение - в следующем элементе
+    static final int DOUBLE = 8; // биты значения - в следующем элементе
+    static final int TRUE = 9;
+    static final int FALSE = 10;
+    static final int NULL = 11;
+
+    static final int TYPE_SHIFT = 56;
+    static final long PAYLOAD_MASK = (1L << TYPE_SHIFT) - 1;
+    static final int COUNT_SHIFT = 32;
+    static final int MAX_COUNT = 0xFF_FFFF; // больше элементов - размер считается обходом
+
+    private final long[] tape;
+    private final char[] chars;
+
+    TapeDocument(long[] tape, char[] chars) {
+        this.tape = tape;
+        this.chars = chars;
+    }
+
+    static TapeDocument parse(JsonTokenizer tokenizer) {
+        return new JsonParser<>(tokenizer, new TapeObserver()).parse();
+    }
+
+    public Cursor root() {
+        return new Cursor(0);
+    }
+
+    public JsonValue toJsonValue() {
+        return root().toJsonValue();
+    }
+
+    // Объем ленты и буфера строк в байтах
+    public long sizeInBytes() {
+        return tape.length * 8L + chars.length * 2L;
+    }
+
+    @Override
+    public String toString() {
+        return root().toString();
+    }
+
+    private static int type(long entry) {
+        return (int) (entry >>> TYPE_SHIFT);
+    }
+
+    // индекс парного конца для начала контейнера
+    private static int end(long entry) {
+        return (int) entry;
+    }
+
+    // Индекс значения, следующего за значением с индексом index
+    private int skip(int index) {
+        return switch (type(tape[index])) {
+            case OBJECT, ARRAY -> end(tape[index]) + 1;
+            case LONG, DOUBLE -> index + 2;
+            default -> index + 1;
+        };
+    }
+
+    private String string(int index) {
+        int offset = (int) (tape[index] & PAYLOAD_MASK);
+        int length = chars[offset] << 16 | chars[offset + 1];
+        return new String(chars, offset + 2, length);
+    }
+
+    private boolean stringEquals(int index, String value) {
+        int offset = (int) (tape[index] & PAYLOAD_MASK);
+        int length = chars[offset] << 16 | chars[offset + 1];
+        if (length != value.length()) {
+            return false;
+        }
+        offset += 2;
+        for (int i = 0; i < length; i++) {
+            if (chars[offset + i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Положение на ленте; создается при каждом переходе и ничего не копирует
+    public final class Cursor {
+
+        private final int index;
+
+        private Cursor(int index) {
+            this.index = index;
+        }
+
+        public boolean isObject() {
+            return type(tape[index]) == OBJECT;
+        }
+
+        public boolean isArray() {
+            return type(tape[index]) == ARRAY;
+        }
+
+        public boolean isString() {
+            return type(tape[index]) == STRING;
+        }
+
+        public boolean isNumber() {
+            int type = type(tape[index]);
+            return type == INT || type == LONG || type == DOUBLE;
+        }
+
+        public boolean isBoolean() {
+            int type = type(tape[index]);
+            return type == TRUE || type == FALSE;
+        }
+
+        public boolean isNull() {
+            return type(tape[index]) == NULL;
+        }
+
+        // Значение поля объекта или null, если поля нет; при повторяющемся ключе - последнее, как в JsonObject
+        public Cursor get(String key) {
+            int end = end(expect(OBJECT, "object"));
+            int found = -1;
+            for (int i = index + 1; i < end; ) {
+                int value = i + 1;
+                if (stringEquals(i, key)) {
+                    found = value;
+                }
+                i = skip(value);
+            }
+            return found < 0 ? null : new Cursor(found);
+        }
+
+        public Cursor at(int position) {
+            int end = end(expect(ARRAY, "array"));
+            if (position >= 0) {
+                int i = index + 1;
+                for (int n = 0; i < end; n++, i = skip(i)) {
+                    if (n == position) {
+                        return new Cursor(i);
+                    }
+                }
+            }
+            throw new IndexOutOfBoundsException(position);
+        }
+
+        // Число элементов массива или полей объекта
+        public int size() {
+            long entry = tape[index];
+            int type = type(entry);
+            if (type != OBJECT && type != ARRAY) {
+                throw new JsonException("value is not an object or array");
+            }
+            int count = (int) (entry >>> COUNT_SHIFT) & MAX_COUNT;
+            if (count < MAX_COUNT) {
+                return count;
+            }
+            count = 0;
+            for (int i = index + 1; i < end(entry); i = skip(type == OBJECT ? i + 1 : i)) {
+                count++;
+            }
+            return count;
+        }
+
+        public List<String> keys() {
+            int end = end(expect(OBJECT, "object"));
+            var keys = new ArrayList<String>();
+            for (int i = index + 1; i < end; i = skip(i + 1)) {
+                keys.add(string(i));
+            }
+            return keys;
+        }
+
+        // Элементы массива или значения полей объекта в порядке документа
+        public Iterable<Cursor> values() {
+            long entry = tape[index];
+            int type = type(entry);
+            if (type != OBJECT && type != ARRAY) {
+                throw new JsonException("value is not an object or array");
+            }
+            int end = end(entry);
+            int step = type == OBJECT ? 1 : 0; // в объекте перед значением стоит ключ
+            return () -> new Iterator<>() {
+                private int next = index + 1;
+
+                @Override
+                public boolean hasNext() {
+                    return next < end;
+                }
+
+                @Override
+                public Cursor next() {
+                    if (next >= end) {
+                        throw new NoSuchElementException();
+                    }
+                    int value = next + step;
+                    next = skip(value);
+                    return new Cursor(value);
+                }
+            };
+        }
+
+        public String asString() {
+            expect(STRING, "string");
+            return string(index);
+        }
+
+        public boolean asBoolean() {
+            return switch (type(tape[index])) {
+                case TRUE -> true;
+                case FALSE -> false;
+                default -> throw new JsonException("value is not a boolean");
+            };
+        }
+
+        public int asInt() {
+            long value = asLong();
+            if ((int) value != value) {
+                throw new JsonException("could not convert num=" + value + " to int");
+            }
+            return (int) value;
+        }
+
+        // Целое число; double с дробной частью или вне диапазона long - ошибка
+        public long asLong() {
+            return switch (type(tape[index])) {
+                case INT -> (int) tape[index];
+                case LONG -> tape[index + 1];
+                case DOUBLE -> {
+                    double value = Double.longBitsToDouble(tape[index + 1]);
+                    if ((long) value != value) {
+                        throw new JsonException("could not convert num=" + value + " to long");
+                    }
+                    yield (long) value;
+                }
+                default -> throw new JsonException("value is not a number");
+            };
+        }
+
+        public double asDouble() {
+            return switch (type(tape[index])) {
+                case INT -> (int) tape[index];
+                case LONG -> tape[index + 1];
+                case DOUBLE -> Double.longBitsToDouble(tape[index + 1]);
+                default -> throw new JsonException("value is not a number");
+            };
+        }
+
+        // Обычное дерево model для значения под курсором
+        public JsonValue toJsonValue() {
+            return value(index);
+        }
+
+        @Override
+        public String toString() {
+            var out = new StringBuilder();
+            var writer = new JsonWriter(out);
+            write(writer, index);
+            writer.flush();
+            return out.toString();
+        }
+
+        private long expect(int type, String name) {
+            long entry = tape[index];
+            if (type(entry) != type) {
+                throw new JsonException("value is not " + (type == ARRAY ? "an " : "a ") + name);
+            }
+            return entry;
+        }
+    }
+
+    private JsonValue value(int index) {
+        long entry = tape[index];
+        return switch (type(entry)) {
+            case OBJECT -> {
+                var entries = new LinkedHashMap<String, JsonValue>();
+                for (int i = index + 1; i < end(entry); i = skip(i + 1)) {
+                    entries.put(string(i), value(i + 1));
+                }
+                yield new JsonObject(entries);
+            }
+            case ARRAY -> {
+                var elements = new NumberArrayList();
+                for (int i = index + 1; i < end(entry); i = skip(i)) {
+                    elements.add(value(i)); // однородные числа уходят в int[], long[] или double[]
+                }
+                yield new JsonArray(elements);
+            }
+            case STRING -> new JsonString(string(index));
+            case INT -> new JsonNumber((int) entry);
+            case LONG -> new JsonNumber(tape[index + 1]);
+            case DOUBLE -> new JsonNumber(Double.longBitsToDouble(tape[index + 1]));
+            case TRUE -> JsonLiteral.True;
+            case FALSE -> JsonLiteral.False;
+            case NULL -> JsonLiteral.Null;
+            default -> throw new IllegalStateException("Unexpected tape entry at " + index);
+        };
+    }
+
+    private void write(JsonWriter writer, int index) {
+        long entry = tape[index];
+        switch (type(entry)) {
+            case OBJECT -> {
+                writer.beginObject();
+                for (int i = index + 1; i < end(entry); i = skip(i + 1)) {
+                    writer.name(string(i));
+                    write(writer, i + 1);
+                }
+                writer.endObject();
+            }
+            case ARRAY -> {
+                writer.beginArray();
+                for (int i = index + 1; i < end(entry); i = skip(i)) {
+                    write(writer, i);
+                }
+                writer.endArray();
+            }
+            case STRING -> writer.value(string(index));
+            case INT -> writer.value((long) (int) entry);
+            case LONG -> writer.value(tape[index + 1]);
+            case DOUBLE -> writer.value(Double.longBitsToDouble(tape[index + 1]));
+            case TRUE -> writer.value(true);
+            case FALSE -> writer.value(false);
+            case NULL -> writer.nullValue();
+            default -> throw new IllegalStateException("Unexpected tape entry at " + index);
+        }
+    }
+}
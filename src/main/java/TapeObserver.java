@@ -0,0 +1,132 @@
+import java.util.Arrays;
+
+// Наблюдатель, который пишет документ на ленту TapeDocument вместо дерева JsonValue
+// Начало контейнера записывается сразу, а его размер и индекс конца заполняются при закрытии.
+// Отдельного действия для конца контейнера в грамматике нет: контейнер закончен, когда приходит
+// AddElement / PutEntry родителя (или result()), а на текущем уровне нет готового значения
+class TapeObserver implements JsonParser.Observer<TapeDocument> {
+
+    private long[] tape = new long[64];
+    private int size;
+    private char[] chars = new char[256];
+    private int charCount;
+
+    // открытые контейнеры: индекс начала на ленте и число элементов
+    private int[] open = new int[16];
+    private int[] counts = new int[16];
+    private int depth;
+    // ready[d] - значение внутри open[d - 1] (на корневом уровне при d = 0) готово и ждет AddElement / PutEntry
+    private boolean[] ready = new boolean[17];
+
+    @Override
+    public TapeDocument result() {
+        while (depth > 0) {
+            close();
+        }
+        return new TapeDocument(Arrays.copyOf(tape, size), Arrays.copyOf(chars, charCount));
+    }
+
+    // Буферы ленты и строк остаются для следующего документа: result() отдает их копии
+    @Override
+    public void reset() {
+        size = 0;
+        charCount = 0;
+        depth = 0;
+        ready[0] = false;
+    }
+
+    @Override
+    public void accept(JsonParser.Action action, JsonTokenizer tokenizer) {
+        switch (action) {
+            case AddElement, PutEntry -> {
+                if (!ready[depth]) {
+                    close(); // значение - только что законченный вложенный контейнер
+                }
+                ready[depth] = false;
+                counts[depth - 1]++;
+            }
+            case CreateArray -> begin(TapeDocument.ARRAY);
+            case CreateObject -> begin(TapeDocument.OBJECT);
+            case FalseSetValue -> value(TapeDocument.FALSE, 0);
+            case NullSetValue -> value(TapeDocument.NULL, 0);
+            case TrueSetValue -> value(TapeDocument.TRUE, 0);
+            case NumberSetValue -> {
+                if (tokenizer.readNumber()) {
+                    long number = tokenizer.readLong();
+                    if ((int) number == number) {
+                        value(TapeDocument.INT, number & 0xFFFF_FFFFL);
+                    } else {
+                        value(TapeDocument.LONG, 0);
+                        add(number);
+                    }
+                } else {
+                    value(TapeDocument.DOUBLE, 0);
+                    add(Double.doubleToRawLongBits(tokenizer.readDouble()));
+                }
+            }
+            case StringSetValue -> value(TapeDocument.STRING, string(tokenizer.getChars()));
+            case KeySetValue -> add(entry(TapeDocument.STRING, string(tokenizer.getChars())));
+            default -> throw new IllegalStateException("Unexpected action: " + action);
+        }
+    }
+
+    private void begin(int type) {
+        if (depth == open.length) {
+            open = Arrays.copyOf(open, depth * 2);
+            counts = Arrays.copyOf(counts, depth * 2);
+            ready = Arrays.copyOf(ready, depth * 2 + 1);
+        }
+        open[depth] = size;
+        counts[depth] = 0;
+        depth++;
+        ready[depth] = false;
+        add(entry(type, 0));
+    }
+
+    // Закрывает самый внутренний контейнер; он становится готовым значением своего родителя
+    private void close() {
+        depth--;
+        int start = open[depth];
+        int type = (int) (tape[start] >>> TapeDocument.TYPE_SHIFT);
+        long count = Math.min(counts[depth], TapeDocument.MAX_COUNT);
+        tape[start] = entry(type, count << TapeDocument.COUNT_SHIFT | size);
+        add(entry(type == TapeDocument.OBJECT ? TapeDocument.OBJECT_END : TapeDocument.ARRAY_END, start));
+        ready[depth] = true;
+    }
+
+    private void value(int type, long payload) {
+        add(entry(type, payload));
+        ready[depth] = true;
+    }
+
+    private static long entry(int type, long payload) {
+        return (long) type << TapeDocument.TYPE_SHIFT | payload;
+    }
+
+    private void add(long entry) {
+        if (size == tape.length) {
+            tape = Arrays.copyOf(tape, size * 2);
+        }
+        tape[size++] = entry;
+    }
+
+    // Копирует строку в общий буфер (длина в двух char, затем символы); результат - смещение
+    private long string(CharSequence value) {
+        int length = value.length();
+        if (charCount + length + 2 > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(chars.length * 2, charCount + length + 2));
+        }
+        int offset = charCount;
+        chars[charCount++] = (char) (length >>> 16);
+        chars[charCount++] = (char) length;
+        if (value instanceof String s) {
+            s.getChars(0, length, chars, charCount);
+        } else {
+            for (int i = 0; i < length; i++) {
+                chars[charCount + i] = value.charAt(i);
+            }
+        }
+        charCount += length;
+        return offset;
+    }
+}
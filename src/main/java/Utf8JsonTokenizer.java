@@ -0,0 +1,638 @@
+import model.JsonString;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Лексический анализатор JSON, работающий прямо с байтами в UTF-8
+// Вход не декодируется в String целиком: в Java-строки превращаются только значения строковых токенов,
+// корректность UTF-8 проверяется по ходу сканирования строк
+// Если данные приходят порциями (прямой ByteBuffer), они читаются в окно фиксированного размера,
+// которое подкачивается по мере продвижения; незаконченный токен переносится в начало окна
+// Для входа в памяти можно заранее построить структурный индекс (StructuralIndexer): тогда next()
+// переходит сразу к позиции следующего токена, а строки без escape-последовательностей и не-ASCII не просматриваются
+class Utf8JsonTokenizer extends JsonTokenizer {
+
+    // Источник очередной порции байтов; возвращает -1, когда данные закончились
+    interface ByteSource {
+        int read(byte[] dst, int off, int len) throws IOException;
+    }
+
+    static final int WINDOW_SIZE = 8192;
+
+    // Чтение 8 байт массива одним long для поиска специальных байтов в строке (SWAR)
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long ONES = 0x0101_0101_0101_0101L;
+    private static final long HIGH_BITS = 0x8080_8080_8080_8080L;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private byte[] buf;
+    private int limit;
+    private int pos;
+    private boolean ended;
+    private long shifted; // сколько входа уже вытеснено из окна, за вычетом начального смещения
+    private final ByteSource source; // null, если весь вход уже лежит в buf
+
+    // Структурный индекс входа (null - обычное сканирование) и номер следующей записи
+    private int[] index;
+    private int indexSize;
+    private int indexPos;
+
+    // Границы текущего токена: для строки - содержимое без кавычек, для числа - весь литерал
+    private int tokenStart;
+    private int tokenEnd;
+    private int offset; // начало текущего токена, для строки - открывающая кавычка
+    private boolean escaped;  // есть ли в текущей строке escape-последовательности
+    private boolean nonAscii; // есть ли в текущей строке многобайтные символы
+
+    private final AsciiSlice asciiSlice = new AsciiSlice();
+    private final CharSlice slice = new CharSlice();
+    private char[] decoded = new char[0];
+
+    Utf8JsonTokenizer(byte[] input) {
+        this(input, 0, input.length);
+    }
+
+    Utf8JsonTokenizer(byte[] buf, int from, int to) {
+        this.buf = buf;
+        this.pos = from;
+        this.shifted = -from;
+        this.limit = to;
+        this.source = null;
+        skipBom();
+    }
+
+    Utf8JsonTokenizer(ByteSource source, int windowSize) {
+        this.buf = new byte[windowSize];
+        this.source = source;
+        skipBom();
+    }
+
+    // Подготовка к следующему документу (JsonParserSession): вход не копируется и должен оставаться неизменным
+    // до конца разбора. Индекс не строится - для небольших документов прямой проход не медленнее
+    Utf8JsonTokenizer reset(byte[] input) {
+        if (source != null) {
+            throw new IllegalStateException("tokenizer reads from a stream");
+        }
+        buf = input;
+        pos = 0;
+        limit = input.length;
+        ended = false;
+        shifted = 0;
+        index = null;
+        indexSize = 0;
+        indexPos = 0;
+        tokenStart = 0;
+        tokenEnd = 0;
+        offset = 0;
+        escaped = false;
+        nonAscii = false;
+        skipBom();
+        return this;
+    }
+
+    // Отпускает массив последнего документа (JsonParserSession.clear): он принадлежит вызывающему
+    // Возвращает размер собственного буфера декодированных строк в символах
+    int release() {
+        buf = EMPTY;
+        pos = 0;
+        limit = 0;
+        ended = true;
+        index = null;
+        indexSize = 0;
+        indexPos = 0;
+        return decoded.length;
+    }
+
+    // Токенайзер, проходящий вход по структурному индексу
+    static Utf8JsonTokenizer indexed(byte[] buf, int from, int to, StructuralIndexer.Mode mode) {
+        var tokenizer = new Utf8JsonTokenizer(buf, from, to);
+        var indexer = StructuralIndexer.create(mode);
+        tokenizer.index = indexer.index(buf, tokenizer.pos, to);
+        tokenizer.indexSize = indexer.size();
+        return tokenizer;
+    }
+
+    // Кучный буфер разбирается на месте, прямой - читается окнами; позиция исходного буфера не меняется
+    static Utf8JsonTokenizer of(ByteBuffer input) {
+        if (input.hasArray()) {
+            int from = input.arrayOffset() + input.position();
+            return new Utf8JsonTokenizer(input.array(), from, from + input.remaining());
+        }
+        ByteBuffer view = input.duplicate();
+        return new Utf8JsonTokenizer((dst, off, len) -> {
+            if (!view.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, view.remaining());
+            view.get(dst, off, n);
+            return n;
+        }, WINDOW_SIZE);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !ended;
+    }
+
+    @Override
+    public JsonToken next() {
+        if (index != null) {
+            return nextIndexed();
+        }
+        int p = pos;
+        while (true) {
+            if (p == limit) {
+                pos = p;
+                tokenStart = p;
+                if (!fill()) {
+                    ended = true;
+                    return JsonToken.End;
+                }
+                p = pos;
+            }
+            byte c = buf[p];
+            if (!isWhitespace(c)) {
+                break;
+            }
+            p++;
+        }
+        tokenStart = p;
+        offset = p;
+        pos = p + 1;
+        switch (buf[p]) {
+            case '{':
+                return JsonToken.ObjectBegin;
+            case '}':
+                return JsonToken.ObjectEnd;
+            case '[':
+                return JsonToken.ArrayBegin;
+            case ']':
+                return JsonToken.ArrayEnd;
+            case ':':
+                return JsonToken.Colon;
+            case ',':
+                return JsonToken.Comma;
+            case '"':
+                return scanString();
+            case 't':
+                return scanLiteral("true", JsonToken.True);
+            case 'f':
+                return scanLiteral("false", JsonToken.False);
+            case 'n':
+                return scanLiteral("null", JsonToken.Null);
+            case '+':
+            case '-':
+            case '.':
+            case '0': case '1': case '2': case '3': case '4':
+            case '5': case '6': case '7': case '8': case '9':
+                return scanNumber();
+        }
+        throw new JsonException("input contains unrecognized token");
+    }
+
+    private JsonToken nextIndexed() {
+        if (indexPos == indexSize) {
+            tokenStart = pos = limit;
+            ended = true;
+            return JsonToken.End;
+        }
+        int p = index[indexPos++];
+        tokenStart = p;
+        offset = p;
+        pos = p + 1;
+        switch (buf[p]) {
+            case '{':
+                return JsonToken.ObjectBegin;
+            case '}':
+                return JsonToken.ObjectEnd;
+            case '[':
+                return JsonToken.ArrayBegin;
+            case ']':
+                return JsonToken.ArrayEnd;
+            case ':':
+                return JsonToken.Colon;
+            case ',':
+                return JsonToken.Comma;
+            case '"':
+                int close = index[indexPos++];
+                if ((close & StructuralIndexer.SPECIAL_STRING) != 0) {
+                    // escape-последовательности и UTF-8 проверяются обычным сканированием
+                    return scanString();
+                }
+                tokenStart = p + 1;
+                tokenEnd = close;
+                escaped = false;
+                nonAscii = false;
+                pos = close + 1;
+                return JsonToken.String;
+            case 't':
+                return checkScalarEnd(scanLiteral("true", JsonToken.True));
+            case 'f':
+                return checkScalarEnd(scanLiteral("false", JsonToken.False));
+            case 'n':
+                return checkScalarEnd(scanLiteral("null", JsonToken.Null));
+            case '+':
+            case '-':
+            case '.':
+            case '0': case '1': case '2': case '3': case '4':
+            case '5': case '6': case '7': case '8': case '9':
+                return checkScalarEnd(scanNumber());
+        }
+        throw new JsonException("input contains unrecognized token");
+    }
+
+    // Индекс хранит только начало числа или литерала, поэтому остаток последовательности
+    // до пробела или структурного символа должен совпасть с токеном целиком: "truex" - ошибка
+    private JsonToken checkScalarEnd(JsonToken token) {
+        if (pos < limit) {
+            switch (buf[pos]) {
+                case '{', '}', '[', ']', ':', ',', '"', ' ', '\n', '\r', '\t', '\f', 0x0B -> {
+                }
+                default -> throw new JsonException("input contains unrecognized token");
+            }
+        }
+        return token;
+    }
+
+    @Override
+    long inputLength() {
+        return shifted + limit;
+    }
+
+    @Override
+    int tokenOffset() {
+        return offset;
+    }
+
+    @Override
+    int position() {
+        return pos;
+    }
+
+    @Override
+    protected JsonString getString() {
+        if (!escaped) {
+            // ASCII копируется в компактную Latin-1 строку без декодирования
+            return new JsonString(new String(buf, tokenStart, tokenEnd - tokenStart,
+                    nonAscii ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1));
+        }
+        return new JsonString(getChars().toString());
+    }
+
+    // ASCII-строка без escape-последовательностей отдается как участок буфера,
+    // иначе декодируется в переиспользуемый буфер decoded
+    @Override
+    protected CharSequence getChars() {
+        if (!escaped && !nonAscii) {
+            return asciiSlice.set(buf, tokenStart, tokenEnd);
+        }
+        if (decoded.length < tokenEnd - tokenStart) {
+            decoded = new char[tokenEnd - tokenStart];
+        }
+        char[] result = decoded;
+        int n = 0;
+        for (int i = tokenStart; i < tokenEnd; ) {
+            int c = buf[i++];
+            if (c == '\\') {
+                c = buf[i++];
+                switch (c) {
+                    case 'u' -> {
+                        result[n++] = (char) hexValue(i);
+                        i += 4;
+                    }
+                    case 'b' -> result[n++] = '\b';
+                    case 'f' -> result[n++] = '\f';
+                    case 'n' -> result[n++] = '\n';
+                    case 'r' -> result[n++] = '\r';
+                    case 't' -> result[n++] = '\t';
+                    default -> result[n++] = (char) c; // \" \\ \/
+                }
+                continue;
+            }
+            if (c >= 0) {
+                result[n++] = (char) c;
+                continue;
+            }
+            // многобайтный символ, уже проверенный в scanString()
+            int codePoint;
+            if ((c & 0xE0) == 0xC0) {
+                codePoint = (c & 0x1F) << 6 | (buf[i++] & 0x3F);
+            } else if ((c & 0xF0) == 0xE0) {
+                codePoint = (c & 0x0F) << 12 | (buf[i] & 0x3F) << 6 | (buf[i + 1] & 0x3F);
+                i += 2;
+            } else {
+                codePoint = (c & 0x07) << 18 | (buf[i] & 0x3F) << 12 | (buf[i + 1] & 0x3F) << 6 | (buf[i + 2] & 0x3F);
+                i += 3;
+            }
+            n += Character.toChars(codePoint, result, n);
+        }
+        return slice.set(result, 0, n);
+    }
+
+    @Override
+    protected CharSequence getNumberText() {
+        return asciiSlice.set(buf, tokenStart, tokenEnd);
+    }
+
+    // STRING: " ( \["\\/bfnrt] | \\u[a-fA-F0-9]{4} | [^"\\] )* "
+    private JsonToken scanString() {
+        boolean esc = false;
+        boolean wide = false;
+        int run = 0; // обычных байтов подряд
+        int p = pos;
+        while (true) {
+            if (p == limit) {
+                pos = p;
+                if (!fill()) {
+                    throw new JsonException("unterminated string");
+                }
+                p = pos;
+            }
+            byte c = buf[p];
+            if (c == '"') {
+                break;
+            }
+            if (c == '\\') {
+                esc = true;
+                run = 0;
+                pos = p + 1;
+                p = skipEscape();
+                continue;
+            }
+            if (c < 0) {
+                wide = true;
+                run = 0;
+                pos = p;
+                p = skipMultiByte();
+                continue;
+            }
+            p++;
+            // короткие участки между escape-последовательностями и многобайтными символами проверяются побайтно,
+            // длинные - по 8 байт за раз
+            if (++run == Long.BYTES) {
+                p = skipPlainWords(p);
+                run = 0;
+            }
+        }
+        tokenStart++; // без открывающей кавычки
+        tokenEnd = p;
+        escaped = esc;
+        nonAscii = wide;
+        pos = p + 1;
+        return JsonToken.String;
+    }
+
+    // SWAR: пропускает обычные символы строки по 8 байт за раз, пока в слове нет '"', '\\' и байтов не-ASCII
+    // Возвращает позицию первого такого байта или позицию, после которой в окне меньше 8 байт
+    private int skipPlainWords(int p) {
+        byte[] b = buf;
+        for (int last = limit - Long.BYTES; p <= last; p += Long.BYTES) {
+            long mask = specialBytes((long) LONGS.get(b, p));
+            if (mask != 0) {
+                // младший отмеченный байт точен: ложные срабатывания возможны только выше него
+                return p + (Long.numberOfTrailingZeros(mask) >>> 3);
+            }
+        }
+        return p;
+    }
+
+    // Старший бит каждого байта слова, равного '"' или '\\' либо не-ASCII
+    private static long specialBytes(long word) {
+        long quote = word ^ ('"' * ONES);
+        long backslash = word ^ ('\\' * ONES);
+        return ((quote - ONES) & ~quote | (backslash - ONES) & ~backslash | word) & HIGH_BITS;
+    }
+
+    // проверяет escape-последовательность, начинающуюся в pos (после '\'), и возвращает позицию за ней
+    private int skipEscape() {
+        if (!require(1)) {
+            throw new JsonException("unterminated string");
+        }
+        switch (buf[pos]) {
+            case '"', '\\', '/', 'b', 'f', 'n', 'r', 't':
+                return pos + 1;
+            case 'u':
+                if (require(5) && hexValue(pos + 1) >= 0) {
+                    return pos + 5;
+                }
+        }
+        throw new JsonException("invalid escape sequence in string");
+    }
+
+    // проверяет многобайтную последовательность UTF-8, начинающуюся в pos, и возвращает позицию за ней
+    // отвергаются лишние байты продолжения, избыточные (overlong) формы, суррогаты и значения больше U+10FFFF
+    private int skipMultiByte() {
+        int lead = buf[pos] & 0xFF;
+        int length;
+        int min = 0x80;
+        int max = 0xBF;
+        if (lead >= 0xC2 && lead <= 0xDF) {
+            length = 2;
+        } else if (lead >= 0xE0 && lead <= 0xEF) {
+            length = 3;
+            if (lead == 0xE0) {
+                min = 0xA0;
+            } else if (lead == 0xED) {
+                max = 0x9F;
+            }
+        } else if (lead >= 0xF0 && lead <= 0xF4) {
+            length = 4;
+            if (lead == 0xF0) {
+                min = 0x90;
+            } else if (lead == 0xF4) {
+                max = 0x8F;
+            }
+        } else {
+            throw new JsonException("invalid UTF-8 sequence in string");
+        }
+        if (!require(length)) {
+            throw new JsonException("invalid UTF-8 sequence in string");
+        }
+        int second = buf[pos + 1] & 0xFF;
+        if (second < min || second > max) {
+            throw new JsonException("invalid UTF-8 sequence in string");
+        }
+        for (int i = 2; i < length; i++) {
+            if ((buf[pos + i] & 0xC0) != 0x80) {
+                throw new JsonException("invalid UTF-8 sequence in string");
+            }
+        }
+        return pos + length;
+    }
+
+    // NUMBER: [+-]? ( \d+ \.? \d* | \.\d+ ) ( [eE][+-]?\d+ )?
+    // сначала находится конец литерала (с подкачкой окна), затем литерал проверяется целиком
+    private JsonToken scanNumber() {
+        int p = pos;
+        while (true) {
+            if (p == limit) {
+                pos = p;
+                boolean more = fill();
+                p = pos; // окно сдвигается, даже если вход закончился
+                if (!more) {
+                    break;
+                }
+            }
+            byte c = buf[p];
+            if ((c < '0' || c > '9') && c != '.' && c != 'e' && c != 'E' && c != '+' && c != '-') {
+                break;
+            }
+            p++;
+        }
+        int end = p;
+        p = tokenStart;
+        if (buf[p] == '+' || buf[p] == '-') {
+            p++;
+        }
+        int intStart = p;
+        p = skipDigits(p, end);
+        if (p > intStart) {
+            if (p < end && buf[p] == '.') {
+                p = skipDigits(p + 1, end);
+            }
+        } else {
+            int fracStart = p + 1;
+            if (p >= end || buf[p] != '.' || (p = skipDigits(fracStart, end)) == fracStart) {
+                throw new JsonException("input contains unrecognized token");
+            }
+        }
+        if (p < end && (buf[p] == 'e' || buf[p] == 'E')) {
+            int q = p + 1;
+            if (q < end && (buf[q] == '+' || buf[q] == '-')) {
+                q++;
+            }
+            int expEnd = skipDigits(q, end);
+            if (expEnd > q) {
+                p = expEnd;
+            }
+        }
+        if (p != end) {
+            throw new JsonException("input contains unrecognized token");
+        }
+        tokenEnd = end;
+        pos = end;
+        return JsonToken.Number;
+    }
+
+    private JsonToken scanLiteral(String literal, JsonToken token) {
+        pos = tokenStart;
+        if (!require(literal.length())) {
+            throw new JsonException("input contains unrecognized token");
+        }
+        for (int i = 1; i < literal.length(); i++) {
+            if (buf[pos + i] != literal.charAt(i)) {
+                throw new JsonException("input contains unrecognized token");
+            }
+        }
+        pos += literal.length();
+        return token;
+    }
+
+    private int skipDigits(int p, int end) {
+        while (p < end && buf[p] >= '0' && buf[p] <= '9') {
+            p++;
+        }
+        return p;
+    }
+
+    // значение четырех шестнадцатеричных цифр, начиная с p, или -1
+    private int hexValue(int p) {
+        int value = 0;
+        for (int i = p; i < p + 4; i++) {
+            int digit = Character.digit(buf[i], 16);
+            if (digit < 0) {
+                return -1;
+            }
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+
+    private void skipBom() {
+        if (require(3) && buf[pos] == (byte) 0xEF && buf[pos + 1] == (byte) 0xBB && buf[pos + 2] == (byte) 0xBF) {
+            pos += 3;
+        }
+    }
+
+    // гарантирует, что от pos доступно не меньше n байт; false, если вход закончился раньше
+    private boolean require(int n) {
+        while (limit - pos < n) {
+            if (!fill()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Подкачивает следующую порцию из источника
+    // Байты текущего токена (начиная с tokenStart) сдвигаются в начало окна, при нехватке места окно растет
+    private boolean fill() {
+        if (source == null) {
+            return false;
+        }
+        int keep = Math.min(tokenStart, pos);
+        int length = limit - keep;
+        if (keep > 0) {
+            System.arraycopy(buf, keep, buf, 0, length);
+        } else if (length == buf.length) {
+            buf = Arrays.copyOf(buf, buf.length * 2);
+        }
+        shifted += keep;
+        pos -= keep;
+        tokenStart -= keep;
+        limit = length;
+        try {
+            int n = source.read(buf, limit, buf.length - limit);
+            if (n <= 0) {
+                return false;
+            }
+            limit += n;
+            return true;
+        } catch (IOException e) {
+            throw new JsonException("could not read input", e);
+        }
+    }
+
+    // Представление участка байтов ASCII как CharSequence без копирования
+    private static final class AsciiSlice implements CharSequence {
+        private byte[] array;
+        private int start;
+        private int length;
+
+        AsciiSlice set(byte[] array, int start, int end) {
+            this.array = array;
+            this.start = start;
+            this.length = end - start;
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return (char) array[start + index];
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return new String(array, start + from, to - from, StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        public String toString() {
+            return new String(array, start, length, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
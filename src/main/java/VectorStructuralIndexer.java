@@ -0,0 +1,46 @@
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorSpecies;
+
+// Векторная классификация блока: сравнения выполняются сразу над 16/32/64 байтами (в зависимости от процессора),
+// результат каждого сравнения - маска, которая сдвигается на место в 64-битной маске блока
+// Требует --add-modules jdk.incubator.vector при запуске
+final class VectorStructuralIndexer extends StructuralIndexer {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED.length() <= BLOCK
+            ? ByteVector.SPECIES_PREFERRED
+            : ByteVector.SPECIES_512;
+
+    @Override
+    void classify(byte[] block, int offset) {
+        long quote = 0;
+        long backslash = 0;
+        long structural = 0;
+        long whitespace = 0;
+        long nonAscii = 0;
+        for (int k = 0; k < BLOCK; k += SPECIES.length()) {
+            ByteVector v = ByteVector.fromArray(SPECIES, block, offset + k);
+            // '[' | 0x20 == '{', ']' | 0x20 == '}': две проверки вместо четырех
+            ByteVector lower = v.or((byte) 0x20);
+            quote |= v.eq((byte) '"').toLong() << k;
+            backslash |= v.eq((byte) '\\').toLong() << k;
+            structural |= lower.eq((byte) '{')
+                    .or(lower.eq((byte) '}'))
+                    .or(v.eq((byte) ':'))
+                    .or(v.eq((byte) ','))
+                    .toLong() << k;
+            whitespace |= v.eq((byte) ' ')
+                    .or(v.eq((byte) '\n'))
+                    .or(v.eq((byte) '\r'))
+                    .or(v.eq((byte) '\t'))
+                    .or(v.eq((byte) '\f'))
+                    .or(v.eq((byte) 0x0B))
+                    .toLong() << k;
+            nonAscii |= v.lt((byte) 0).toLong() << k;
+        }
+        this.quote = quote;
+        this.backslash = backslash;
+        this.structural = structural;
+        this.whitespace = whitespace;
+        this.nonAscii = nonAscii;
+    }
+}
@@ -1,7 +1,6 @@
 package model;
 
 import java.util.List;
-import java.util.StringJoiner;
 
 // Представляет массив в JSON
 public class JsonArray implements JsonValue {
@@ -13,12 +12,11 @@ public class JsonArray implements JsonValue {
     public List<JsonValue> getListOfJsonValues(){
         return elements;
     }
+    // Записывается за один проход через JsonWriter, без промежуточной строки для каждого элемента
     @Override
     public String toString() {
-        final var joiner = new StringJoiner(", ", "[", "]");// соединяет в формате массива
-        for (JsonValue element : elements) {
-            joiner.add(element.toString());
-        }
-        return joiner.toString();
+        StringBuilder builder = new StringBuilder();
+        new JsonWriter(builder).write(this);
+        return builder.toString();
     }
 }
@@ -0,0 +1,416 @@
+package model;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Компактное двоичное представление дерева JsonValue для хранения в кэше (на диске или вне кучи)
+// Декодирование не разбирает текст: тип значения задается тегом, длины и целые числа - varint,
+// double - 8 байт как есть, ключи объектов - через словарь, который строится по ходу записи
+//
+// Формат: 'J' 'B' версия, затем значение:
+//     NULL, FALSE, TRUE                      - только тег
+//     INT, LONG <zigzag varint>              - Integer и Long из JsonNumber
+//     DOUBLE <8 байт, little-endian>
+//     DECIMAL <zigzag varint scale> <varint n> <n байт unscaledValue>
+//     STRING <varint n> <n байт UTF-8>
+//     ARRAY <varint count> <значения>
+//     INT_ARRAY, LONG_ARRAY <varint count> <zigzag varint>..., DOUBLE_ARRAY <varint count> <8 байт>...
+//                                            - однородные числовые массивы (NumberArrayList)
+//     OBJECT <varint count> (<ключ> <значение>)...
+// Ключ - один varint: (n << 1) | 1 - новый ключ, за ним n байт UTF-8, и он получает следующий номер в словаре;
+// (номер << 1) - ключ, который уже встречался
+//
+// Декодированное дерево такое же, как после разбора текста: LinkedHashMap в объектах, NumberArrayList в массивах,
+// одинаковые ключи - один экземпляр String
+//
+// Пример:
+//     byte[] bytes = JsonBinary.encode(value);
+//     JsonValue copy = JsonBinary.decode(bytes);
+public final class JsonBinary {
+
+    private static final byte MAGIC_0 = 'J';
+    private static final byte MAGIC_1 = 'B';
+    private static final byte VERSION = 1;
+
+    private static final byte NULL = 0;
+    private static final byte FALSE = 1;
+    private static final byte TRUE = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte DECIMAL = 6;
+    private static final byte STRING = 7;
+    private static final byte ARRAY = 8;
+    private static final byte INT_ARRAY = 9;
+    private static final byte LONG_ARRAY = 10;
+    private static final byte DOUBLE_ARRAY = 11;
+    private static final byte OBJECT = 12;
+
+    private JsonBinary() {
+    }
+
+    public static byte[] encode(JsonValue value) {
+        var encoder = new Encoder();
+        encoder.put(MAGIC_0);
+        encoder.put(MAGIC_1);
+        encoder.put(VERSION);
+        encoder.value(value);
+        return Arrays.copyOf(encoder.bytes, encoder.position);
+    }
+
+    // Некорректный вход - IllegalArgumentException
+    public static JsonValue decode(byte[] input) {
+        return decode(input, 0, input.length);
+    }
+
+    // Читает с текущей позиции буфера до limit; позиция буфера не меняется
+    // Буфер вне кучи сначала копируется в массив: побайтовое чтение через ByteBuffer медленнее копии
+    public static JsonValue decode(ByteBuffer input) {
+        if (input.hasArray()) {
+            return decode(input.array(), input.arrayOffset() + input.position(), input.remaining());
+        }
+        byte[] copy = new byte[input.remaining()];
+        input.get(input.position(), copy);
+        return decode(copy, 0, copy.length);
+    }
+
+    private static JsonValue decode(byte[] input, int offset, int length) {
+        int end = offset + length;
+        if (length < 3 || input[offset] != MAGIC_0 || input[offset + 1] != MAGIC_1) {
+            throw new IllegalArgumentException("not a binary JSON value");
+        }
+        if (input[offset + 2] != VERSION) {
+            throw new IllegalArgumentException("unsupported binary JSON version " + input[offset + 2]);
+        }
+        var decoder = new Decoder(input, offset + 3, end);
+        JsonValue value;
+        try {
+            value = decoder.value();
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("truncated binary JSON value", e);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("malformed number in binary JSON value", e);
+        } catch (StackOverflowError e) {
+            // глубина вложенности ограничена стеком потока, как в рекурсивном спуске JsonParser
+            throw new IllegalArgumentException("nesting is too deep", e);
+        }
+        if (decoder.position != end) {
+            throw new IllegalArgumentException("unexpected data after binary JSON value at " + (decoder.position - offset));
+        }
+        return value;
+    }
+
+    private static final class Encoder {
+        private byte[] bytes = new byte[256];
+        private int position;
+        private final Map<String, Integer> keys = new HashMap<>();
+
+        void value(JsonValue value) {
+            switch (value) {
+                case JsonObject object -> {
+                    put(OBJECT);
+                    putVarint(object.entries.size());
+                    for (Map.Entry<String, JsonValue> entry : object.entries.entrySet()) {
+                        key(entry.getKey());
+                        value(entry.getValue());
+                    }
+                }
+                case JsonArray array -> {
+                    if (array.elements instanceof NumberArrayList numbers && numbers.primitiveType() != null) {
+                        numbers(numbers);
+                    } else {
+                        put(ARRAY);
+                        putVarint(array.elements.size());
+                        for (JsonValue element : array.elements) {
+                            value(element);
+                        }
+                    }
+                }
+                case JsonString string -> {
+                    put(STRING);
+                    putString(string.content);
+                }
+                case JsonNumber number -> number(number.value);
+                case JsonLiteral literal -> put(switch (literal) {
+                    case Null -> NULL;
+                    case False -> FALSE;
+                    case True -> TRUE;
+                });
+                case null -> put(NULL);
+                default -> throw new IllegalArgumentException("Unexpected value: " + value);
+            }
+        }
+
+        private void number(Number number) {
+            switch (number) {
+                case Integer x -> {
+                    put(INT);
+                    putVarint(zigzag(x));
+                }
+                case Long x -> {
+                    put(LONG);
+                    putVarint(zigzag(x));
+                }
+                case Double x -> {
+                    put(DOUBLE);
+                    putDouble(x);
+                }
+                case BigDecimal x -> {
+                    put(DECIMAL);
+                    putVarint(zigzag(x.scale()));
+                    byte[] unscaled = x.unscaledValue().toByteArray();
+                    putVarint(unscaled.length);
+                    putBytes(unscaled);
+                }
+                default -> throw new IllegalArgumentException("Unexpected number: " + number.getClass().getName());
+            }
+        }
+
+        // Однородный массив пишется без тегов элементов
+        private void numbers(NumberArrayList numbers) {
+            Class<?> type = numbers.primitiveType();
+            int size = numbers.size();
+            put(type == int.class ? INT_ARRAY : type == long.class ? LONG_ARRAY : DOUBLE_ARRAY);
+            putVarint(size);
+            for (int i = 0; i < size; i++) {
+                if (type == double.class) {
+                    putDouble(numbers.getDouble(i));
+                } else {
+                    putVarint(zigzag(numbers.getLong(i)));
+                }
+            }
+        }
+
+        private void key(String key) {
+            Integer index = keys.get(key);
+            if (index != null) {
+                putVarint((long) index << 1);
+                return;
+            }
+            keys.put(key, keys.size());
+            int start = position;
+            if (!putAscii(key, 1)) {
+                position = start;
+                byte[] utf8 = key.getBytes(StandardCharsets.UTF_8);
+                putVarint(((long) utf8.length << 1) | 1);
+                putBytes(utf8);
+            }
+        }
+
+        private void putString(String value) {
+            int start = position;
+            if (!putAscii(value, 0)) {
+                position = start;
+                byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                putVarint(utf8.length);
+                putBytes(utf8);
+            }
+        }
+
+        // Строка из одних ASCII символов: длина в байтах известна заранее, символы копируются без кодировщика
+        // false - встретился другой символ, записанное нужно откатить
+        private boolean putAscii(String value, int flag) {
+            int length = value.length();
+            putVarint(((long) length << flag) | flag);
+            ensure(length);
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c >= 0x80) {
+                    return false;
+                }
+                bytes[position + i] = (byte) c;
+            }
+            position += length;
+            return true;
+        }
+
+        private void putDouble(double value) {
+            ensure(8);
+            long bits = Double.doubleToRawLongBits(value);
+            for (int i = 0; i < 8; i++) {
+                bytes[position++] = (byte) (bits >>> (i * 8));
+            }
+        }
+
+        private void putVarint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[position++] = (byte) value;
+        }
+
+        private void putBytes(byte[] value) {
+            ensure(value.length);
+            System.arraycopy(value, 0, bytes, position, value.length);
+            position += value.length;
+        }
+
+        void put(byte value) {
+            ensure(1);
+            bytes[position++] = value;
+        }
+
+        private void ensure(int count) {
+            if (bytes.length - position < count) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, position + count));
+            }
+        }
+
+        private static long zigzag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+    }
+
+    private static final class Decoder {
+        private final byte[] bytes;
+        private int position;
+        private final int end;
+        private final List<String> keys = new ArrayList<>();
+
+        Decoder(byte[] bytes, int position, int end) {
+            this.bytes = bytes;
+            this.position = position;
+            this.end = end;
+        }
+
+        JsonValue value() {
+            byte tag = next();
+            return switch (tag) {
+                case NULL -> JsonLiteral.Null;
+                case FALSE -> JsonLiteral.False;
+                case TRUE -> JsonLiteral.True;
+                case INT -> new JsonNumber((int) unzigzag(varint()));
+                case LONG -> new JsonNumber(unzigzag(varint()));
+                case DOUBLE -> new JsonNumber(readDouble());
+                case DECIMAL -> {
+                    int scale = (int) unzigzag(varint());
+                    int length = length();
+                    var unscaled = new BigInteger(bytes, position, length);
+                    position += length;
+                    yield new JsonNumber(new BigDecimal(unscaled, scale));
+                }
+                case STRING -> new JsonString(string(length()));
+                case ARRAY -> {
+                    int count = count();
+                    var elements = new NumberArrayList();
+                    for (int i = 0; i < count; i++) {
+                        elements.add(value());
+                    }
+                    yield new JsonArray(elements);
+                }
+                case INT_ARRAY -> {
+                    int[] values = new int[count()];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = (int) unzigzag(varint());
+                    }
+                    yield new JsonArray(new NumberArrayList(values));
+                }
+                case LONG_ARRAY -> {
+                    long[] values = new long[count()];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = unzigzag(varint());
+                    }
+                    yield new JsonArray(new NumberArrayList(values));
+                }
+                case DOUBLE_ARRAY -> {
+                    double[] values = new double[count()];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = readDouble();
+                    }
+                    yield new JsonArray(new NumberArrayList(values));
+                }
+                case OBJECT -> {
+                    int count = count();
+                    var entries = LinkedHashMap.<String, JsonValue>newLinkedHashMap(count);
+                    for (int i = 0; i < count; i++) {
+                        String key = key();
+                        entries.put(key, value());
+                    }
+                    yield new JsonObject(entries);
+                }
+                default -> throw new IllegalArgumentException("unknown tag " + tag + " at " + (position - 1));
+            };
+        }
+
+        private String key() {
+            long code = varint();
+            if ((code & 1) == 0) {
+                long index = code >>> 1;
+                if (index >= keys.size()) {
+                    throw new IllegalArgumentException("unknown key reference " + index + " at " + position);
+                }
+                return keys.get((int) index);
+            }
+            String key = string(checkLength(code >>> 1));
+            keys.add(key);
+            return key;
+        }
+
+        private String string(int length) {
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private double readDouble() {
+            if (end - position < 8) {
+                throw new IndexOutOfBoundsException(position);
+            }
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits |= (bytes[position++] & 0xFFL) << (i * 8);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        // Длина в байтах, которые еще должны быть во входе
+        private int length() {
+            return checkLength(varint());
+        }
+
+        private int checkLength(long length) {
+            if (length < 0 || length > end - position) { // отрицательная - испорченный varint из 10 байт
+                throw new IllegalArgumentException("length " + length + " exceeds input at " + position);
+            }
+            return (int) length;
+        }
+
+        // Число элементов: каждый занимает хотя бы байт, поэтому испорченный счетчик не приведет к огромному массиву
+        private int count() {
+            return checkLength(varint());
+        }
+
+        private long varint() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = next();
+                result |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("malformed varint at " + position);
+        }
+
+        private byte next() {
+            if (position >= end) {
+                throw new IndexOutOfBoundsException(position);
+            }
+            return bytes[position++];
+        }
+
+        private static long unzigzag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
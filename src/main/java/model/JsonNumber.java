@@ -18,6 +18,18 @@ public class JsonNumber implements JsonValue {
         this.value = value;
     }
 
+    // Числа равны, если равны их значения того же типа: 1 (Integer) и 1 (Long) различаются
+    // Нужно спискам, которые создают JsonNumber при обращении (NumberArrayList)
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof JsonNumber number && value.equals(number.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
     @Override
     public String toString() {
         return value.toString();
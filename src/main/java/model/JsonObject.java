@@ -1,7 +1,6 @@
 package model;
 
 import java.util.Map;
-import java.util.StringJoiner;
 
 public class JsonObject implements JsonValue {
     public final Map<String, JsonValue> entries;
@@ -10,12 +9,11 @@ public class JsonObject implements JsonValue {
         this.entries = entries;
     }
 
+    // Записывается за один проход через JsonWriter, ключи экранируются
     @Override
     public java.lang.String toString() {
-        final var joiner = new StringJoiner(", ", "{", "}");  // соединяет строки в Json формате
-        for (var entry : entries.entrySet()) {
-            joiner.add("\"%s\": %s".formatted(entry.getKey(), entry.getValue()));
-        }
-        return joiner.toString();
+        StringBuilder builder = new StringBuilder();
+        new JsonWriter(builder).write(this);
+        return builder.toString();
     }
 }
@@ -9,33 +9,14 @@ public class JsonString implements JsonValue {
     }
 
     // реализовано в соответствии с https://ecma-international.org/wp-content/uploads/ECMA-404_2nd_edition_december_2017.pdf
-    // раздел 9 String
+    // раздел 9 String, экранирование выполняет JsonWriter
 /*    Символы, такие как двойные кавычки и обратные слэши, экранируются, чтобы избежать ошибок в формате JSON.
    Символы с кодами от 0 до 31 заменяются на их шестнадцатеральные эквиваленты,
     чтобы гарантировать, что они правильно интерпретируются в JSON.*/
     @Override
     public String toString() {
-        StringBuilder builder = new StringBuilder(content.length());
-        builder.append('"');
-        for (char c : content.toCharArray()) {
-            switch (c) {
-                case '\"' -> builder.append("\\\"");
-                case '\\' -> builder.append("\\\\");
-                case '\b' -> builder.append("\\b");
-                case '\f' -> builder.append("\\f");
-                case '\n' -> builder.append("\\n");
-                case '\r' -> builder.append("\\r");
-                case '\t' -> builder.append("\\t");
-                default -> {
-                    if (c <= '\u001F') {
-                        builder.append("\\u%04x".formatted((int) c));
-                        break;
-                    }
-                    builder.append(c);
-                }
-            }
-        }
-        builder.append('"');
+        StringBuilder builder = new StringBuilder(content.length() + 2);
+        new JsonWriter(builder).write(this);
         return builder.toString();
     }
 }
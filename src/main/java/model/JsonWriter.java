@@ -0,0 +1,399 @@
+package model;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Map;
+
+// Потоковая запись JSON в Appendable (StringBuilder, Writer) или в UTF-8 (OutputStream, ByteBuffer)
+// Дерево JsonValue записывается за один проход без промежуточных строк на каждом уровне вложенности;
+// символы копятся в переиспользуемом буфере и сбрасываются в приемник при заполнении и в flush()
+// Экранируются и значения строк, и ключи объектов
+//
+// Кроме write(JsonValue) есть поэлементный интерфейс:
+//     writer.beginObject().name("id").value(42).name("tags").beginArray().value("a").endArray().endObject().flush();
+public final class JsonWriter {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final StringBuilder builder; // запись напрямую, без буфера
+    private final Appendable appendable;
+    private final OutputStream stream;
+    private final ByteBuffer byteBuffer;
+
+    private char[] chars;   // буфер для Appendable
+    private byte[] bytes;   // буфер для UTF-8
+    private int count;
+    private char highSurrogate; // первая половина суррогатной пары, ожидающая вторую (только UTF-8)
+
+    private final char[] digits = new char[20];
+
+    // Разделители: по умолчанию как в toString() ("a": 1, "b": 2), compact() - без пробелов
+    private String comma = ", ";
+    private String colon = ": ";
+
+    // Для каждого уровня вложенности: записан ли уже хотя бы один элемент
+    private boolean[] nonEmpty = new boolean[16];
+    private int depth;
+    private boolean afterName;
+
+    public JsonWriter(Appendable out) {
+        this.builder = out instanceof StringBuilder sb ? sb : null;
+        this.appendable = out;
+        this.stream = null;
+        this.byteBuffer = null;
+        if (builder == null) {
+            chars = new char[BUFFER_SIZE];
+        }
+    }
+
+    public JsonWriter(OutputStream out) {
+        this.builder = null;
+        this.appendable = null;
+        this.stream = out;
+        this.byteBuffer = null;
+        this.bytes = new byte[BUFFER_SIZE];
+    }
+
+    // Запись в буфер с его текущей позиции; при нехватке места - BufferOverflowException
+    public JsonWriter(ByteBuffer out) {
+        this.builder = null;
+        this.appendable = null;
+        this.stream = null;
+        this.byteBuffer = out;
+        this.bytes = new byte[BUFFER_SIZE];
+    }
+
+    // Запись без пробелов после ',' и ':'
+    public JsonWriter compact() {
+        comma = ",";
+        colon = ":";
+        return this;
+    }
+
+    // Записывает значение целиком
+    public JsonWriter write(JsonValue value) {
+        var event = new WriteEvent();
+        event.begin();
+        writeValue(value);
+        if (event.shouldCommit()) {
+            event.valueType = value.getClass().getSimpleName();
+            event.output = output();
+            event.commit();
+        }
+        return this;
+    }
+
+    private void writeValue(JsonValue value) {
+        switch (value) {
+            case JsonObject object -> {
+                beginObject();
+                for (Map.Entry<String, JsonValue> entry : object.entries.entrySet()) {
+                    name(entry.getKey());
+                    writeValue(entry.getValue());
+                }
+                endObject();
+            }
+            case JsonArray array -> {
+                beginArray();
+                if (array.elements instanceof NumberArrayList numbers && numbers.primitiveType() != null) {
+                    writeNumbers(numbers); // без создания JsonNumber для каждого элемента
+                } else {
+                    for (JsonValue element : array.elements) {
+                        writeValue(element);
+                    }
+                }
+                endArray();
+            }
+            case JsonString string -> value(string.content);
+            case JsonNumber number -> value(number.value);
+            case JsonLiteral literal -> {
+                beforeValue();
+                put(literal.toString());
+            }
+            default -> throw new IllegalArgumentException("Unexpected value: " + value);
+        }
+    }
+
+    private String output() {
+        if (builder != null) {
+            return "StringBuilder";
+        }
+        if (appendable != null) {
+            return "Appendable";
+        }
+        return stream != null ? "OutputStream" : "ByteBuffer";
+    }
+
+    private void writeNumbers(NumberArrayList numbers) {
+        Class<?> type = numbers.primitiveType();
+        for (int i = 0; i < numbers.size(); i++) {
+            if (type == double.class) {
+                value(numbers.getDouble(i));
+            } else {
+                value(numbers.getLong(i));
+            }
+        }
+    }
+
+    public JsonWriter beginObject() {
+        beforeValue();
+        put('{');
+        push();
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        pop();
+        put('}');
+        return this;
+    }
+
+    public JsonWriter beginArray() {
+        beforeValue();
+        put('[');
+        push();
+        return this;
+    }
+
+    public JsonWriter endArray() {
+        pop();
+        put(']');
+        return this;
+    }
+
+    // Ключ следующего значения в объекте
+    public JsonWriter name(String name) {
+        if (depth == 0 || afterName) {
+            throw new IllegalStateException("name outside of an object");
+        }
+        separate();
+        putQuoted(name);
+        put(colon);
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        putQuoted(value);
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        beforeValue();
+        putLong(value);
+        return this;
+    }
+
+    public JsonWriter value(double value) {
+        beforeValue();
+        put(Double.toString(value));
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        beforeValue();
+        put(value ? "true" : "false");
+        return this;
+    }
+
+    public JsonWriter value(Number value) {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            putLong(value.longValue());
+        } else {
+            put(value.toString());
+        }
+        return this;
+    }
+
+    public JsonWriter nullValue() {
+        beforeValue();
+        put("null");
+        return this;
+    }
+
+    // Сбрасывает буфер в приемник; поток (Writer, OutputStream) при этом не закрывается
+    public JsonWriter flush() {
+        flushBuffer();
+        try {
+            if (stream != null) {
+                stream.flush();
+            } else if (appendable instanceof Writer writer) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    private void beforeValue() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth > 0) {
+            separate();
+        }
+    }
+
+    // Запятая перед вторым и следующими элементами
+    private void separate() {
+        if (nonEmpty[depth - 1]) {
+            put(comma);
+        }
+        nonEmpty[depth - 1] = true;
+    }
+
+    private void push() {
+        if (depth == nonEmpty.length) {
+            nonEmpty = Arrays.copyOf(nonEmpty, depth * 2);
+        }
+        nonEmpty[depth++] = false;
+    }
+
+    private void pop() {
+        if (depth == 0 || afterName) {
+            throw new IllegalStateException("nothing to close");
+        }
+        depth--;
+    }
+
+    // Строка в кавычках, экранирование по ECMA-404, раздел 9
+    private void putQuoted(String s) {
+        put('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> put("\\\"");
+                case '\\' -> put("\\\\");
+                case '\b' -> put("\\b");
+                case '\f' -> put("\\f");
+                case '\n' -> put("\\n");
+                case '\r' -> put("\\r");
+                case '\t' -> put("\\t");
+                default -> {
+                    if (c <= '\u001F') {
+                        put("\\u00");
+                        put(HEX[c >> 4]);
+                        put(HEX[c & 0xF]);
+                    } else {
+                        put(c);
+                    }
+                }
+            }
+        }
+        put('"');
+    }
+
+    // Цифры числа пишутся в переиспользуемый массив, без Long.toString
+    private void putLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            put(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            put('-');
+            value = -value;
+        }
+        int p = digits.length;
+        do {
+            digits[--p] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        for (; p < digits.length; p++) {
+            put(digits[p]);
+        }
+    }
+
+    private void put(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            put(s.charAt(i));
+        }
+    }
+
+    private void put(char c) {
+        if (builder != null) {
+            builder.append(c);
+        } else if (chars != null) {
+            if (count == chars.length) {
+                flushBuffer();
+            }
+            chars[count++] = c;
+        } else {
+            putUtf8(c);
+        }
+    }
+
+    // Кодирует символ в UTF-8; суррогатная пара дает один 4-байтный символ, непарный суррогат - '?', как String.getBytes
+    private void putUtf8(char c) {
+        if (count > bytes.length - 4) {
+            flushBuffer();
+        }
+        if (highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int codePoint = Character.toCodePoint(high, c);
+                bytes[count++] = (byte) (0xF0 | codePoint >> 18);
+                bytes[count++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                bytes[count++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                bytes[count++] = (byte) (0x80 | codePoint & 0x3F);
+                return;
+            }
+            bytes[count++] = '?';
+            putUtf8(c);
+            return;
+        }
+        if (c < 0x80) {
+            bytes[count++] = (byte) c;
+        } else if (c < 0x800) {
+            bytes[count++] = (byte) (0xC0 | c >> 6);
+            bytes[count++] = (byte) (0x80 | c & 0x3F);
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            bytes[count++] = '?';
+        } else {
+            bytes[count++] = (byte) (0xE0 | c >> 12);
+            bytes[count++] = (byte) (0x80 | c >> 6 & 0x3F);
+            bytes[count++] = (byte) (0x80 | c & 0x3F);
+        }
+    }
+
+    // Сброс заполненного буфера без flush() самого потока
+    private void flushBuffer() {
+        if (builder != null) {
+            return;
+        }
+        try {
+            if (bytes != null) {
+                if (stream != null) {
+                    stream.write(bytes, 0, count);
+                } else {
+                    byteBuffer.put(bytes, 0, count);
+                }
+            } else if (appendable instanceof Writer writer) {
+                writer.write(chars, 0, count);
+            } else {
+                appendable.append(CharBuffer.wrap(chars, 0, count));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        count = 0;
+    }
+}
@@ -0,0 +1,249 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+// Элементы JsonArray, которые хранятся в int[], long[] или double[], пока массив однороден:
+// все числа - Integer, все - Long или все - Double (тип определяется первым элементом)
+// Первый элемент другого типа (строка, объект, число другого типа) переводит список в обычную форму -
+// ArrayList<JsonValue> - и дальше работа идет с ним
+// JsonNumber для числового элемента создается при обращении: get(i) каждый раз возвращает новый объект,
+// равный (equals) предыдущему
+public final class NumberArrayList extends AbstractList<JsonValue> implements RandomAccess {
+
+    private Class<?> type; // int.class, long.class, double.class; null - пока пуст или в обычной форме
+    private int[] ints;
+    private long[] longs;
+    private double[] doubles;
+    private int size;
+
+    private List<JsonValue> generic;
+
+    public NumberArrayList() {
+    }
+
+    public NumberArrayList(int[] values) {
+        this.type = int.class;
+        this.ints = values.clone();
+        this.size = values.length;
+    }
+
+    public NumberArrayList(long[] values) {
+        this.type = long.class;
+        this.longs = values.clone();
+        this.size = values.length;
+    }
+
+    public NumberArrayList(double[] values) {
+        this.type = double.class;
+        this.doubles = values.clone();
+        this.size = values.length;
+    }
+
+    // Тип элементов: int.class, long.class или double.class; null - пустой список или обычная форма
+    public Class<?> primitiveType() {
+        return generic == null ? type : null;
+    }
+
+    // Добавление без создания JsonNumber; false - тип не совпал, список переведен в обычную форму,
+    // и элемент нужно добавить через add(JsonValue)
+    public boolean addInt(int value) {
+        if (!accepts(int.class)) {
+            return false;
+        }
+        if (size == ints.length) {
+            ints = Arrays.copyOf(ints, Math.max(size * 2, 8));
+        }
+        ints[size++] = value;
+        modCount++;
+        return true;
+    }
+
+    public boolean addLong(long value) {
+        if (!accepts(long.class)) {
+            return false;
+        }
+        if (size == longs.length) {
+            longs = Arrays.copyOf(longs, Math.max(size * 2, 8));
+        }
+        longs[size++] = value;
+        modCount++;
+        return true;
+    }
+
+    public boolean addDouble(double value) {
+        if (!accepts(double.class)) {
+            return false;
+        }
+        if (size == doubles.length) {
+            doubles = Arrays.copyOf(doubles, Math.max(size * 2, 8));
+        }
+        doubles[size++] = value;
+        modCount++;
+        return true;
+    }
+
+    // Копии значений; тип должен совпадать с primitiveType() (пустой список подходит для любого типа)
+    public int[] toIntArray() {
+        checkType(int.class);
+        return size == 0 ? new int[0] : Arrays.copyOf(ints, size);
+    }
+
+    public long[] toLongArray() {
+        checkType(long.class);
+        return size == 0 ? new long[0] : Arrays.copyOf(longs, size);
+    }
+
+    public double[] toDoubleArray() {
+        checkType(double.class);
+        return size == 0 ? new double[0] : Arrays.copyOf(doubles, size);
+    }
+
+    // Значения без создания JsonNumber
+    public int getInt(int index) {
+        checkType(int.class);
+        return ints[checkIndex(index)];
+    }
+
+    public long getLong(int index) {
+        if (type == int.class && generic == null) {
+            return ints[checkIndex(index)];
+        }
+        checkType(long.class);
+        return longs[checkIndex(index)];
+    }
+
+    public double getDouble(int index) {
+        checkType(double.class);
+        return doubles[checkIndex(index)];
+    }
+
+    @Override
+    public JsonValue get(int index) {
+        if (generic != null) {
+            return generic.get(index);
+        }
+        checkIndex(index);
+        if (type == int.class) {
+            return new JsonNumber(ints[index]);
+        }
+        if (type == long.class) {
+            return new JsonNumber(longs[index]);
+        }
+        return new JsonNumber(doubles[index]);
+    }
+
+    @Override
+    public int size() {
+        return generic != null ? generic.size() : size;
+    }
+
+    @Override
+    public boolean add(JsonValue value) {
+        if (generic == null && value instanceof JsonNumber number) {
+            switch (number.value) {
+                case Integer x -> {
+                    if (addInt(x)) {
+                        return true;
+                    }
+                }
+                case Long x -> {
+                    if (addLong(x)) {
+                        return true;
+                    }
+                }
+                case Double x -> {
+                    if (addDouble(x)) {
+                        return true;
+                    }
+                }
+                case null, default -> {
+                }
+            }
+        }
+        modCount++;
+        return generic().add(value);
+    }
+
+    @Override
+    public JsonValue set(int index, JsonValue element) {
+        return generic().set(index, element);
+    }
+
+    @Override
+    public void add(int index, JsonValue element) {
+        generic().add(index, element);
+        modCount++;
+    }
+
+    @Override
+    public JsonValue remove(int index) {
+        JsonValue removed = generic().remove(index);
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        type = null;
+        ints = null;
+        longs = null;
+        doubles = null;
+        size = 0;
+        generic = null;
+        modCount++;
+    }
+
+    // Подходит ли значение типа valueType; первый элемент задает тип, несовпадение переводит в обычную форму
+    private boolean accepts(Class<?> valueType) {
+        if (generic != null) {
+            return false;
+        }
+        if (type == valueType) {
+            return true;
+        }
+        if (type == null) {
+            type = valueType;
+            if (valueType == int.class) {
+                ints = new int[8];
+            } else if (valueType == long.class) {
+                longs = new long[8];
+            } else {
+                doubles = new double[8];
+            }
+            return true;
+        }
+        generic();
+        return false;
+    }
+
+    private List<JsonValue> generic() {
+        if (generic == null) {
+            var list = new ArrayList<JsonValue>(Math.max(size * 2, 8));
+            for (int i = 0; i < size; i++) {
+                list.add(get(i));
+            }
+            generic = list;
+            ints = null;
+            longs = null;
+            doubles = null;
+        }
+        return generic;
+    }
+
+    private void checkType(Class<?> expected) {
+        if (generic != null || (type != expected && size > 0)) {
+            throw new IllegalStateException("elements are not " + expected);
+        }
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return index;
+    }
+}
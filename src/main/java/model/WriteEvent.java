@@ -0,0 +1,23 @@
+package model;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Событие JFR для записи значения целиком через JsonWriter.write(JsonValue), в том числе для toString()
+@Name("jsonparser.Write")
+@Label("JSON Write")
+@Category("JSON Parser")
+@Description("Serialization of a JsonValue by JsonWriter")
+@StackTrace(false)
+class WriteEvent extends jdk.jfr.Event {
+
+    @Label("Value Type")
+    String valueType;
+
+    @Label("Output")
+    @Description("StringBuilder, Appendable, OutputStream or ByteBuffer")
+    String output;
+}
@@ -0,0 +1,206 @@
+import model.JsonArray;
+import model.JsonLiteral;
+import model.JsonNumber;
+import model.JsonObject;
+import model.JsonString;
+import model.JsonValue;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Ленивый документ и лента TapeDocument против дерева Json.parse(Reader)
+class DocumentTest {
+
+    private static final List<String> CORPUS = JsonCorpus.documents(24, 1500);
+
+    @Test
+    void tapeCursorMatchesTree() {
+        for (String document : CORPUS) {
+            JsonValue expected = JsonCorpus.reference(document);
+            TapeDocument tape = Json.parseTape(document.getBytes(StandardCharsets.UTF_8));
+            checkCursor(expected, tape.root());
+            assertEquals(expected.toString(), tape.toString());
+        }
+    }
+
+    private static void checkCursor(JsonValue expected, TapeDocument.Cursor cursor) {
+        switch (expected) {
+            case JsonObject object -> {
+                assertTrue(cursor.isObject());
+                assertEquals(List.copyOf(object.entries.keySet()), cursor.keys());
+                assertEquals(object.entries.size(), cursor.size());
+                var values = new ArrayList<TapeDocument.Cursor>();
+                cursor.values().forEach(values::add);
+                int i = 0;
+                for (Map.Entry<String, JsonValue> entry : object.entries.entrySet()) {
+                    checkCursor(entry.getValue(), cursor.get(entry.getKey()));
+                    checkCursor(entry.getValue(), values.get(i++));
+                }
+                assertNull(cursor.get("no such key"));
+            }
+            case JsonArray array -> {
+                assertTrue(cursor.isArray());
+                assertEquals(array.elements.size(), cursor.size());
+                for (int i = 0; i < array.elements.size(); i++) {
+                    checkCursor(array.elements.get(i), cursor.at(i));
+                }
+                assertThrows(IndexOutOfBoundsException.class, () -> cursor.at(array.elements.size()));
+            }
+            case JsonString string -> {
+                assertTrue(cursor.isString());
+                assertEquals(string.content, cursor.asString());
+            }
+            case JsonNumber number -> {
+                assertTrue(cursor.isNumber());
+                switch (number.value) {
+                    case Integer value -> assertEquals(value, cursor.asInt());
+                    case Long value -> {
+                        assertEquals(value, cursor.asLong());
+                        assertThrows(JsonException.class, cursor::asInt);
+                    }
+                    default -> assertEquals(number.value.doubleValue(), cursor.asDouble());
+                }
+            }
+            case JsonLiteral literal -> {
+                assertEquals(literal == JsonLiteral.Null, cursor.isNull());
+                if (literal != JsonLiteral.Null) {
+                    assertEquals(literal == JsonLiteral.True, cursor.asBoolean());
+                } else {
+                    assertThrows(JsonException.class, cursor::asBoolean);
+                }
+            }
+            default -> throw new IllegalArgumentException(String.valueOf(expected));
+        }
+        JsonCorpus.assertSameValue(expected, cursor.toJsonValue());
+    }
+
+    // Повторяющиеся ключи: как в JsonObject, значение - последнее; лента сохраняет все пары
+    @Test
+    void duplicateKeysKeepTheLastValue() {
+        String document = "{\"a\": 1, \"b\": [2], \"a\": {\"c\": 3}, \"b\": 4}";
+        JsonValue expected = JsonCorpus.reference(document);
+        assertEquals("{\"a\":{\"c\":3},\"b\":4}", expected.toString().replace(" ", ""));
+
+        TapeDocument tape = Json.parseTape(document);
+        assertEquals(List.of("a", "b", "a", "b"), tape.root().keys());
+        assertEquals(4, tape.root().size());
+        assertEquals(3, tape.root().get("a").get("c").asInt());
+        assertEquals(4, tape.root().get("b").asInt());
+        JsonCorpus.assertSameValue(expected, tape.toJsonValue());
+
+        JsonCorpus.assertSameValue(expected, Json.parseLazy(document));
+        JsonCorpus.assertSameValue(expected, Json.parseJsonObject(document.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(JsonCorpus.plain(expected), Json.parseObject(document));
+    }
+
+    @Test
+    void tapeCursorRejectsWrongType() {
+        TapeDocument.Cursor root = Json.parseTape("{\"a\": [1.5, \"x\", 4294967296]}").root();
+        assertThrows(JsonException.class, () -> root.at(0));
+        TapeDocument.Cursor array = root.get("a");
+        assertThrows(JsonException.class, () -> array.get("a"));
+        assertThrows(JsonException.class, () -> array.at(0).asLong());
+        assertEquals(1.5, array.at(0).asDouble());
+        assertThrows(JsonException.class, () -> array.at(1).asDouble());
+        assertThrows(JsonException.class, () -> array.at(1).size());
+        assertEquals(4294967296L, array.at(2).asLong());
+        assertThrows(IndexOutOfBoundsException.class, () -> array.at(-1));
+    }
+
+    // Ленивый документ декодирует только то, к чему обратились, и совпадает с деревом при любом порядке обхода
+    @Test
+    void lazyDocumentPartialAccess() {
+        for (String document : CORPUS) {
+            JsonValue expected = JsonCorpus.reference(document);
+            JsonValue lazy = Json.parseLazy(document.getBytes(StandardCharsets.UTF_8));
+            JsonValue first = firstLeaf(expected);
+            JsonValue lazyFirst = firstLeaf(lazy);
+            if (first != null) {
+                JsonCorpus.assertSameValue(first, lazyFirst);
+            }
+            assertEquals(expected.toString(), lazy.toString());
+            JsonCorpus.assertSameValue(expected, lazy);
+        }
+    }
+
+    private static JsonValue firstLeaf(JsonValue value) {
+        while (true) {
+            switch (value) {
+                case JsonObject object -> {
+                    if (object.entries.isEmpty()) {
+                        return null;
+                    }
+                    value = object.entries.values().iterator().next();
+                }
+                case JsonArray array -> {
+                    if (array.elements.isEmpty()) {
+                        return null;
+                    }
+                    value = array.elements.get(array.elements.size() - 1);
+                }
+                default -> {
+                    return value;
+                }
+            }
+        }
+    }
+
+    // Изменение ленивого контейнера декодирует его целиком; остальные значения не теряются
+    @Test
+    void lazyContainersAreMutable() {
+        var object = (JsonObject) Json.parseLazy("{\"a\": {\"b\": [1, 2, 3]}, \"c\": \"d\", \"e\": null}");
+        var inner = (JsonObject) object.entries.get("a");
+        var array = (JsonArray) inner.entries.get("b");
+        array.elements.add(new JsonNumber(4));
+        array.elements.remove(0);
+        object.entries.put("f", JsonLiteral.True);
+        object.entries.remove("c");
+        assertEquals("{\"a\":{\"b\":[2,3,4]},\"e\":null,\"f\":true}", object.toString().replace(" ", ""));
+        assertFalse(object.entries.containsKey("c"));
+    }
+
+
+    // Вложенный контейнер берет границы значений из индекса документа, а не просматривает свой участок заново:
+    // обход в глубину 100 000 уровней линеен (повторный просмотр на каждом уровне - порядка 10^10 символов)
+    @Test
+    void deepTraversalIsLinear() {
+        int depth = 100_000;
+        String document = "[{\"a\": ".repeat(depth) + "1" + "}]".repeat(depth);
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            JsonValue value = Json.parseLazy(document.getBytes(StandardCharsets.UTF_8));
+            for (int i = 0; i < depth; i++) {
+                value = ((JsonObject) ((JsonArray) value).elements.get(0)).entries.get("a");
+            }
+            assertEquals(1, ((JsonNumber) value).value);
+        });
+    }
+
+    // Кэши значений заполняются без блокировок: параллельные обходы одного документа видят то же дерево
+    @Test
+    void lazyDocumentIsReadableFromManyThreads() {
+        for (String document : CORPUS.subList(0, 300)) {
+            JsonValue expected = JsonCorpus.reference(document);
+            JsonValue lazy = Json.parseLazy(document);
+            IntStream.range(0, 8).parallel().forEach(i -> JsonCorpus.assertSameValue(expected, lazy));
+        }
+    }
+
+    @Test
+    void lazyDocumentValidatesEagerly() {
+        assertThrows(JsonException.class, () -> Json.parseLazy("{\"a\": [1, 2}"));
+        assertThrows(JsonException.class, () -> Json.parseLazy("{\"a\": \"\\x\"}"));
+        assertThrows(JsonException.class, () -> Json.parseLazy("[1] 2"));
+    }
+}
@@ -0,0 +1,140 @@
+import model.JsonArray;
+import model.JsonBinary;
+import model.JsonNumber;
+import model.JsonObject;
+import model.JsonValue;
+import model.NumberArrayList;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Двоичный формат: запись и чтение дают то же дерево, испорченный вход - IllegalArgumentException (JsonException в Json)
+class JsonBinaryTest {
+
+    private static final List<String> CORPUS = JsonCorpus.documents(40, 2000);
+
+    @Test
+    void roundTripMatchesTree() {
+        for (String document : CORPUS) {
+            JsonValue expected = JsonCorpus.reference(document);
+            byte[] bytes = Json.toBinary(expected);
+            JsonCorpus.assertSameValue(expected, Json.fromBinary(bytes));
+            JsonCorpus.assertSameValue(expected, Json.fromBinary(ParseEntryPointsTest.direct(bytes)));
+            // значение в середине буфера: читается от position до limit
+            byte[] padded = new byte[bytes.length + 7];
+            System.arraycopy(bytes, 0, padded, 3, bytes.length);
+            JsonCorpus.assertSameValue(expected, Json.fromBinary(ByteBuffer.wrap(padded, 3, bytes.length)));
+        }
+    }
+
+    @Test
+    void keepsNumberTypesAndSpecialValues() {
+        Map<String, JsonValue> entries = new LinkedHashMap<>();
+        entries.put("int", new JsonNumber(Integer.MIN_VALUE));
+        entries.put("long", new JsonNumber(Long.MAX_VALUE));
+        entries.put("negativeZero", new JsonNumber(-0.0));
+        entries.put("infinity", new JsonNumber(Double.NEGATIVE_INFINITY));
+        entries.put("nan", new JsonNumber(Double.NaN));
+        entries.put("decimal", new JsonNumber(new BigDecimal("-123456789012345678901234567890.000123")));
+        entries.put("ints", new JsonArray(new NumberArrayList(new int[]{1, -1, Integer.MAX_VALUE})));
+        entries.put("longs", new JsonArray(new NumberArrayList(new long[]{Long.MIN_VALUE, 0})));
+        entries.put("doubles", new JsonArray(new NumberArrayList(new double[]{0.1, -0.0, Double.MIN_VALUE})));
+        entries.put("empty", new JsonObject(new LinkedHashMap<>()));
+        var value = new JsonObject(entries);
+
+        var copy = (JsonObject) Json.fromBinary(Json.toBinary(value));
+        JsonCorpus.assertSameValue(value, copy);
+        var doubles = assertInstanceOf(NumberArrayList.class, ((JsonArray) copy.entries.get("doubles")).elements);
+        assertEquals(double.class, doubles.primitiveType());
+        assertEquals(int.class, ((NumberArrayList) ((JsonArray) copy.entries.get("ints")).elements).primitiveType());
+    }
+
+    // Любой обрезанный или испорченный вход - IllegalArgumentException, а не другое исключение или огромный массив
+    @Test
+    void rejectsCorruptInput() {
+        var random = new Random(41);
+        for (String document : CORPUS.subList(0, 500)) {
+            byte[] bytes = JsonBinary.encode(JsonCorpus.reference(document));
+            for (int length = 0; length < bytes.length; length += 1 + length / 8) {
+                byte[] truncated = Arrays.copyOf(bytes, length);
+                assertThrows(IllegalArgumentException.class, () -> JsonBinary.decode(truncated), document);
+                assertThrows(JsonException.class, () -> Json.fromBinary(truncated), document);
+            }
+            for (int i = 0; i < 20; i++) {
+                byte[] corrupt = bytes.clone();
+                corrupt[3 + random.nextInt(corrupt.length - 3)] = (byte) random.nextInt();
+                try {
+                    JsonBinary.decode(corrupt);
+                } catch (IllegalArgumentException expected) {
+                    // испорченный вход можно отвергнуть, но только этим исключением
+                }
+            }
+            byte[] trailing = Arrays.copyOf(bytes, bytes.length + 1);
+            assertThrows(IllegalArgumentException.class, () -> JsonBinary.decode(trailing));
+        }
+    }
+
+    // Десятибайтный varint со старшим битом дает отрицательную длину или число элементов
+    @Test
+    void rejectsNegativeLengths() {
+        byte[] negative = {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80,
+                (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01};
+        for (int tag : new int[]{6, 7, 8, 9, 10, 11, 12}) {
+            byte[] input = new byte[4 + negative.length + (tag == 6 ? 1 : 0)];
+            input[0] = 'J';
+            input[1] = 'B';
+            input[2] = 1;
+            input[3] = (byte) tag;
+            if (tag == 6) {
+                input[4] = 0; // scale 0, затем длина
+                System.arraycopy(negative, 0, input, 5, negative.length);
+            } else {
+                System.arraycopy(negative, 0, input, 4, negative.length);
+            }
+            assertThrows(IllegalArgumentException.class, () -> JsonBinary.decode(input), "tag " + tag);
+        }
+        byte[] key = new byte[5 + negative.length];
+        key[0] = 'J';
+        key[1] = 'B';
+        key[2] = 1;
+        key[3] = 12;
+        key[4] = 1; // один ключ: новый, с длиной из испорченного varint
+        System.arraycopy(negative, 0, key, 5, negative.length);
+        key[5] = (byte) 0x81;
+        assertThrows(IllegalArgumentException.class, () -> JsonBinary.decode(key));
+    }
+
+    // Глубокая вложенность (массив из одного массива...) - IllegalArgumentException, а не StackOverflowError
+    @Test
+    void rejectsDeepNesting() {
+        byte[] input = new byte[3 + 400_000];
+        input[0] = 'J';
+        input[1] = 'B';
+        input[2] = 1;
+        for (int i = 3; i < input.length; i += 2) {
+            input[i] = 8; // ARRAY
+            input[i + 1] = 1; // из одного элемента
+        }
+        assertThrows(IllegalArgumentException.class, () -> JsonBinary.decode(input));
+        assertThrows(JsonException.class, () -> Json.fromBinary(input));
+    }
+
+    @Test
+    void rejectsWrongHeader() {
+        assertThrows(IllegalArgumentException.class, () -> JsonBinary.decode(new byte[]{'J', 'B'}));
+        assertThrows(IllegalArgumentException.class, () -> JsonBinary.decode(new byte[]{'J', 'S', 1, 0}));
+        assertThrows(IllegalArgumentException.class, () -> JsonBinary.decode(new byte[]{'J', 'B', 2, 0}));
+        assertThrows(IllegalArgumentException.class, () -> JsonBinary.decode(new byte[]{'J', 'B', 1, 99}));
+        assertThrows(IllegalArgumentException.class, () -> JsonBinary.decode(new byte[]{'J', 'B', 1, 12, 1, 2, 0}));
+    }
+}
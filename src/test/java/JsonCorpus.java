@@ -0,0 +1,232 @@
+import model.JsonArray;
+import model.JsonLiteral;
+import model.JsonNumber;
+import model.JsonObject;
+import model.JsonString;
+import model.JsonValue;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Генератор случайных документов JSON с фиксированным зерном и сравнение деревьев JsonValue
+// Эталон для всех входов - Json.parse(Reader): потоковый CharJsonTokenizer и парсер по умолчанию
+final class JsonCorpus {
+
+    private static final String[] WHITESPACE = {"", "", "", " ", "\n  ", "\t", "\r\n", "\f", "\u000B", " \n\t "};
+
+    private final Random random;
+    private final String[] keys; // пусто - ключи как случайные строки
+
+    JsonCorpus(long seed, String... keys) {
+        this.random = new Random(seed);
+        this.keys = keys;
+    }
+
+    // count документов с корнем-объектом или массивом
+    static List<String> documents(long seed, int count, String... keys) {
+        var corpus = new JsonCorpus(seed, keys);
+        List<String> documents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            documents.add(corpus.document());
+        }
+        return documents;
+    }
+
+    static JsonValue reference(String document) {
+        return Json.parse(new StringReader(document));
+    }
+
+    String document() {
+        String root = random.nextBoolean() ? object(0) : array(0);
+        return whitespace() + root + whitespace();
+    }
+
+    String value(int depth) {
+        return switch (random.nextInt(depth > 3 ? 6 : 9)) {
+            case 0, 1 -> string();
+            case 2, 3 -> number();
+            case 4 -> "true";
+            case 5 -> random.nextBoolean() ? "false" : "null";
+            case 6 -> numberArray();
+            case 7 -> object(depth + 1);
+            default -> array(depth + 1);
+        };
+    }
+
+    String object(int depth) {
+        var sb = new StringBuilder("{").append(whitespace());
+        int size = random.nextInt(6);
+        Set<String> used = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            String key = keys.length == 0 ? string() : '"' + keys[random.nextInt(keys.length)] + '"';
+            if (!used.add(key)) {
+                continue; // повторяющиеся ключи проверяются отдельно: в дереве остается последнее значение
+            }
+            if (used.size() > 1) {
+                sb.append(',').append(whitespace());
+            }
+            sb.append(key).append(whitespace()).append(':').append(whitespace()).append(value(depth));
+        }
+        return sb.append(whitespace()).append('}').toString();
+    }
+
+    String array(int depth) {
+        var sb = new StringBuilder("[");
+        int size = random.nextInt(6);
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(whitespace()).append(value(depth)).append(whitespace());
+        }
+        return sb.append(']').toString();
+    }
+
+    // Однородный числовой массив: разбирается в NumberArrayList; иногда тип меняется на середине
+    String numberArray() {
+        var sb = new StringBuilder("[");
+        int size = 1 + random.nextInt(12);
+        int kind = random.nextInt(3);
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(',').append(whitespace());
+            }
+            if (random.nextInt(10) == 0) {
+                kind = random.nextInt(3);
+            }
+            sb.append(switch (kind) {
+                case 0 -> Integer.toString(random.nextInt());
+                case 1 -> Long.toString(random.nextLong());
+                default -> Double.toString(random.nextGaussian() * 1e6);
+            });
+        }
+        return sb.append(']').toString();
+    }
+
+    String number() {
+        return switch (random.nextInt(12)) {
+            case 0 -> Integer.toString(random.nextInt());
+            case 1 -> Long.toString(random.nextLong());
+            case 2 -> Integer.toString(random.nextInt(100));
+            case 3 -> Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20));
+            case 4 -> (random.nextBoolean() ? "-" : "") + random.nextInt(1000) + "." + random.nextInt(100000)
+                    + (random.nextBoolean() ? "e" : "E") + (random.nextInt(60) - 30);
+            case 5 -> random.nextInt(1000000) + "." + random.nextInt(1000);
+            case 6 -> Double.toString(Double.longBitsToDouble(random.nextLong() & 0x7FEF_FFFF_FFFF_FFFFL));
+            case 7 -> "123456789012345678901234567890";
+            case 8 -> random.nextBoolean() ? "9223372036854775808" : "-9223372036854775809";
+            case 9 -> random.nextBoolean() ? "2147483648" : "-2147483649";
+            case 10 -> random.nextBoolean() ? "-0" : "-0.0";
+            default -> random.nextInt(10) + "e" + (random.nextBoolean() ? "+" : "-") + random.nextInt(400);
+        };
+    }
+
+    // Короткие строки с escape-последовательностями и не-ASCII символами, иногда - длинные строки,
+    // в которых особые символы стоят около границ блочного просмотра (8 байт SWAR, 32 символа до indexOf)
+    String string() {
+        var sb = new StringBuilder("\"");
+        int length = random.nextInt(8) == 0 ? 30 + random.nextInt(200) : random.nextInt(12);
+        int plain = random.nextInt(4);
+        for (int i = 0; i < length; i++) {
+            if (plain == 0 || random.nextInt(plain == 1 ? 3 : 40) != 0) {
+                sb.append((char) ('a' + random.nextInt(26)));
+                continue;
+            }
+            sb.append(switch (random.nextInt(12)) {
+                case 0 -> "\\n";
+                case 1 -> "\\\"";
+                case 2 -> "\\\\";
+                case 3 -> "\\u00e9";
+                case 4 -> "é";
+                case 5 -> "日本";
+                case 6 -> "😀";
+                case 7 -> "\\ud83d\\ude00";
+                case 8 -> "\\/";
+                case 9 -> "\\t\\b\\f\\r";
+                case 10 -> "\\u0000";
+                default -> "\u007F";
+            });
+        }
+        return sb.append('"').toString();
+    }
+
+    private String whitespace() {
+        return WHITESPACE[random.nextInt(WHITESPACE.length)];
+    }
+
+    // Деревья совпадают: порядок ключей и элементов, содержимое строк, значения и тип чисел (int, long, double)
+    static void assertSameValue(JsonValue expected, JsonValue actual) {
+        assertSameValue(expected, actual, "$");
+    }
+
+    private static void assertSameValue(JsonValue expected, JsonValue actual, String path) {
+        switch (expected) {
+            case JsonObject object -> {
+                if (!(actual instanceof JsonObject other)) {
+                    fail(path + ": expected object, got " + describe(actual));
+                    return;
+                }
+                assertEquals(List.copyOf(object.entries.keySet()), List.copyOf(other.entries.keySet()), path + ": keys");
+                for (Map.Entry<String, JsonValue> entry : object.entries.entrySet()) {
+                    assertSameValue(entry.getValue(), other.entries.get(entry.getKey()), path + "." + entry.getKey());
+                }
+            }
+            case JsonArray array -> {
+                if (!(actual instanceof JsonArray other)) {
+                    fail(path + ": expected array, got " + describe(actual));
+                    return;
+                }
+                assertEquals(array.elements.size(), other.elements.size(), path + ": size");
+                for (int i = 0; i < array.elements.size(); i++) {
+                    assertSameValue(array.elements.get(i), other.elements.get(i), path + "[" + i + "]");
+                }
+            }
+            case JsonString string -> {
+                if (!(actual instanceof JsonString other)) {
+                    fail(path + ": expected string, got " + describe(actual));
+                    return;
+                }
+                assertEquals(string.content, other.content, path);
+            }
+            case JsonNumber number -> {
+                if (!(actual instanceof JsonNumber other)) {
+                    fail(path + ": expected number, got " + describe(actual));
+                    return;
+                }
+                assertEquals(number.value, other.value, path);
+            }
+            case JsonLiteral literal -> assertSame(literal, actual, path);
+            default -> fail(path + ": unexpected " + describe(expected));
+        }
+    }
+
+    // Значение как обычные java объекты, как в Json.parseObject: Map, List, String, Number, Boolean, null
+    static Object plain(JsonValue value) {
+        return switch (value) {
+            case JsonObject object -> {
+                Map<String, Object> map = new LinkedHashMap<>();
+                object.entries.forEach((key, child) -> map.put(key, plain(child)));
+                yield map;
+            }
+            case JsonArray array -> array.elements.stream().map(JsonCorpus::plain).toList();
+            case JsonString string -> string.content;
+            case JsonNumber number -> number.value;
+            case JsonLiteral literal -> literal == JsonLiteral.Null ? null : literal == JsonLiteral.True;
+            default -> throw new IllegalArgumentException(String.valueOf(value));
+        };
+    }
+
+    private static String describe(JsonValue value) {
+        return value == null ? "null" : value.getClass().getSimpleName() + " " + value;
+    }
+}
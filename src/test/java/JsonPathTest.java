@@ -0,0 +1,126 @@
+import model.JsonArray;
+import model.JsonObject;
+import model.JsonValue;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// JsonPath против обхода дерева Json.parse(Reader); ключи документов - из небольшого набора, чтобы пути совпадали
+class JsonPathTest {
+
+    private static final String[] PATHS = {
+            "$", "$.a", "$['b']", "$[\"id\"]", "$.*", "$[*]", "$[0]", "$[2]", "$.a.b", "$.a[*]", "$.*.id",
+            "$[*].a", "$.*[0]", "$[*][*]", "$.a.*.b", "$[1].id[0]", "$.b[*].*", "$['a']['b']['id']"
+    };
+
+    private static final List<String> CORPUS = JsonCorpus.documents(32, 2000, "a", "b", "id", "é\\\"x");
+
+    // Шаг пути: имя поля, номер элемента или * (null)
+    private static List<Object> steps(String path) {
+        List<Object> steps = new ArrayList<>();
+        for (String part : path.substring(1).replace("[", ".[").split("\\.")) {
+            if (part.isEmpty()) {
+                continue;
+            }
+            if (part.equals("*") || part.equals("[*]")) {
+                steps.add(null);
+            } else if (part.startsWith("['") || part.startsWith("[\"")) {
+                steps.add(part.substring(2, part.length() - 2));
+            } else if (part.startsWith("[")) {
+                steps.add(Integer.parseInt(part.substring(1, part.length() - 1)));
+            } else {
+                steps.add(part);
+            }
+        }
+        return steps;
+    }
+
+    private static void evaluate(JsonValue value, List<Object> steps, int from, List<JsonValue> out) {
+        if (from == steps.size()) {
+            out.add(value);
+            return;
+        }
+        Object step = steps.get(from);
+        if (value instanceof JsonObject object) {
+            if (step == null) {
+                object.entries.values().forEach(child -> evaluate(child, steps, from + 1, out));
+            } else if (step instanceof String name && object.entries.containsKey(name)) {
+                evaluate(object.entries.get(name), steps, from + 1, out);
+            }
+        } else if (value instanceof JsonArray array) {
+            for (int i = 0; i < array.elements.size(); i++) {
+                if (step == null || step.equals(i)) {
+                    evaluate(array.elements.get(i), steps, from + 1, out);
+                }
+            }
+        }
+    }
+
+    @Test
+    void selectMatchesTreeWalk() {
+        JsonPath path = Json.compilePath(PATHS);
+        for (String document : CORPUS) {
+            JsonValue tree = JsonCorpus.reference(document);
+            byte[] bytes = document.getBytes(StandardCharsets.UTF_8);
+            Map<String, List<JsonValue>> fromString = path.select(document);
+            Map<String, List<JsonValue>> fromBytes = path.select(bytes);
+            Map<String, List<JsonValue>> fromStream = path.select(new ByteArrayInputStream(bytes));
+            Map<String, List<Object>> objects = path.selectObjects(bytes);
+            assertEquals(List.of(PATHS), List.copyOf(fromString.keySet()));
+            for (String expression : PATHS) {
+                List<JsonValue> expected = new ArrayList<>();
+                evaluate(tree, steps(expression), 0, expected);
+                String message = expression + " in " + document;
+                assertSameValues(expected, fromString.get(expression), message);
+                assertSameValues(expected, fromBytes.get(expression), message);
+                assertSameValues(expected, fromStream.get(expression), message);
+                assertEquals(expected.stream().map(JsonCorpus::plain).toList(), objects.get(expression), message);
+            }
+        }
+    }
+
+    private static void assertSameValues(List<JsonValue> expected, List<JsonValue> actual, String message) {
+        assertEquals(expected.size(), actual.size(), message);
+        for (int i = 0; i < expected.size(); i++) {
+            JsonCorpus.assertSameValue(expected.get(i), actual.get(i));
+        }
+    }
+
+    // Пути с escape-последовательностями в ключе документа сравниваются по декодированному ключу
+    @Test
+    void keysAreComparedDecoded() {
+        String document = "{\"\\u0061\": 1, \"b\\\"c\": 2, \"\\u00e9\": 3}";
+        Map<String, List<Object>> found = Json.compilePath("$.a", "$['b\"c']", "$.é").selectObjects(document);
+        assertEquals(List.of(1), found.get("$.a"));
+        assertEquals(List.of(2), found.get("$['b\"c']"));
+        assertEquals(List.of(3), found.get("$.é"));
+    }
+
+    // Документ проверяется целиком, даже если все пути уже найдены
+    @Test
+    void rejectsInvalidDocuments() {
+        JsonPath path = Json.compilePath("$.a");
+        assertThrows(JsonException.class, () -> path.select("{\"a\": 1, \"b\": [}"));
+        assertThrows(JsonException.class, () -> path.select("{\"a\": 1} {"));
+        assertThrows(JsonException.class, () -> path.selectObjects("{\"a\": 1, \"b\": \"\\q\"}"));
+        for (String document : CORPUS.subList(0, 300)) {
+            String truncated = document.strip().substring(0, document.strip().length() - 1);
+            assertThrows(JsonException.class, () -> path.select(truncated), truncated);
+        }
+    }
+
+    @Test
+    void rejectsInvalidPaths() {
+        for (String expression : new String[]{"a", "$.", "$..a", "$[", "$[x]", "$[-1]", "$['a'", "$a"}) {
+            assertThrows(JsonException.class, () -> Json.compilePath(expression), expression);
+        }
+        assertThrows(JsonException.class, Json::compilePath);
+    }
+}
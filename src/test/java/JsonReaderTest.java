@@ -0,0 +1,124 @@
+import model.JsonArray;
+import model.JsonLiteral;
+import model.JsonNumber;
+import model.JsonObject;
+import model.JsonString;
+import model.JsonValue;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// JsonReader: дерево, собранное по его токенам и значениям, против Json.parse(Reader)
+class JsonReaderTest {
+
+    private static final List<String> CORPUS = JsonCorpus.documents(28, 2000);
+
+    // Строит JsonValue по следующему значению; числа - того же типа, что у парсера (int, long, иначе double)
+    private static JsonValue read(JsonReader reader) {
+        JsonToken token = reader.nextToken();
+        return switch (token) {
+            case ObjectBegin -> {
+                Map<String, JsonValue> entries = new LinkedHashMap<>();
+                while (reader.nextToken() != JsonToken.ObjectEnd) {
+                    assertTrue(reader.isName());
+                    String key = reader.stringValue().toString();
+                    entries.put(key, read(reader));
+                }
+                yield new JsonObject(entries);
+            }
+            case ArrayBegin -> {
+                List<JsonValue> elements = new ArrayList<>();
+                while (reader.peek() != JsonToken.ArrayEnd) {
+                    elements.add(read(reader));
+                }
+                reader.nextToken();
+                yield new JsonArray(elements);
+            }
+            case String -> new JsonString(reader.stringValue().toString());
+            case Number -> number(reader);
+            case True, False -> reader.booleanValue() ? JsonLiteral.True : JsonLiteral.False;
+            case Null -> JsonLiteral.Null;
+            default -> throw new AssertionError("unexpected " + token);
+        };
+    }
+
+    private static JsonNumber number(JsonReader reader) {
+        if (reader.numberText().toString().matches("-?\\d+")) {
+            try {
+                return new JsonNumber(reader.intValue());
+            } catch (JsonException ignored) {
+                // не помещается в int
+            }
+            try {
+                return new JsonNumber(reader.longValue());
+            } catch (JsonException ignored) {
+                // не помещается в long
+            }
+        }
+        return new JsonNumber(reader.doubleValue());
+    }
+
+    private static JsonValue readDocument(JsonReader reader) {
+        JsonValue value = read(reader);
+        assertEquals(JsonToken.End, reader.nextToken());
+        return value;
+    }
+
+    @Test
+    void readerMatchesTree() {
+        for (String document : CORPUS) {
+            JsonValue expected = JsonCorpus.reference(document);
+            byte[] bytes = ParseEntryPointsTest.utf8(document);
+            JsonCorpus.assertSameValue(expected, readDocument(new JsonReader(document)));
+            JsonCorpus.assertSameValue(expected, readDocument(new JsonReader(bytes)));
+            JsonCorpus.assertSameValue(expected, readDocument(new JsonReader(ParseEntryPointsTest.direct(bytes))));
+            JsonCorpus.assertSameValue(expected, readDocument(new JsonReader(new ByteArrayInputStream(bytes))));
+            JsonCorpus.assertSameValue(expected, readDocument(new JsonReader(new StringReader(document))));
+        }
+    }
+
+    @Test
+    void readerSkipsEveryValue() {
+        for (String document : CORPUS.subList(0, 300)) {
+            var reader = new JsonReader(ParseEntryPointsTest.utf8(document));
+            reader.skipValue();
+            assertEquals(JsonToken.End, reader.nextToken());
+        }
+    }
+
+    // Целое значение дробной записи читается через BigDecimal: 1.0e3 - это 1000, 1.5 - ошибка
+    @Test
+    void readerConvertsExactIntegers() {
+        var reader = new JsonReader("[1.0e3, 1.5, 99999999999]");
+        reader.nextToken();
+        reader.nextToken();
+        assertEquals(1000, reader.intValue());
+        reader.nextToken();
+        assertThrows(JsonException.class, reader::longValue);
+        assertEquals(1.5, reader.doubleValue());
+        reader.nextToken();
+        assertEquals(99999999999L, reader.longValue());
+        assertThrows(JsonException.class, reader::intValue);
+    }
+
+    @Test
+    void rejectsMisplacedTokens() {
+        for (String document : new String[]{"[1 2]", "{\"a\" 1}", "{\"a\": 1,}", "[1,]", "{1: 2}", "]", "[1]]"}) {
+            var reader = new JsonReader(document);
+            assertThrows(JsonException.class, () -> {
+                while (reader.nextToken() != JsonToken.End) {
+                    // ошибка - на первом недопустимом токене
+                }
+            }, document);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+import model.JsonValue;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// JsonWriter: запись в Appendable, Writer и OutputStream дает тот же текст, что toString(),
+// а его разбор - то же дерево
+class JsonWriterTest {
+
+    private static final List<String> CORPUS = JsonCorpus.documents(36, 2000);
+
+    @Test
+    void writeMatchesToString() {
+        for (String document : CORPUS) {
+            JsonValue tree = JsonCorpus.reference(document);
+            String text = tree.toString();
+            if (!text.contains("Infinity")) { // 1e400 в дереве - бесконечность, которой нет в JSON
+                JsonCorpus.assertSameValue(tree, JsonCorpus.reference(text));
+            }
+
+            var builder = new StringBuilder();
+            Json.write(tree, builder);
+            assertEquals(text, builder.toString());
+            var writer = new StringWriter();
+            Json.write(tree, writer);
+            assertEquals(text, writer.toString());
+            var out = new ByteArrayOutputStream();
+            Json.write(tree, out);
+            assertEquals(text, out.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    // Управляющие символы, кавычки и обратная косая черта экранируются и в ключах, и в значениях
+    @Test
+    void escapesKeysAndValues() {
+        String document = "{\"a\\\"b\\\\c\\n\": \"\\u0000\\u001f\\t\\\"\\\\é😀\"}";
+        JsonValue tree = JsonCorpus.reference(document);
+        JsonCorpus.assertSameValue(tree, JsonCorpus.reference(tree.toString()));
+        var out = new ByteArrayOutputStream();
+        Json.write(tree, out);
+        JsonCorpus.assertSameValue(tree, JsonCorpus.reference(out.toString(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,78 @@
+import model.JsonArray;
+import model.JsonNumber;
+import model.JsonString;
+import model.JsonValue;
+import model.NumberArrayList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Однородные числовые массивы в int[] / long[] / double[]: то же дерево, что в обычном списке, и тот же тип чисел
+class NumberArrayListTest {
+
+    // Массив одного вида чисел хранится в примитивах того же типа, что у JsonNumber в дереве
+    @Test
+    void homogeneousArraysStayPrimitive() {
+        var random = new Random(19);
+        for (int n = 0; n < 2000; n++) {
+            int kind = random.nextInt(3);
+            List<String> literals = new ArrayList<>();
+            for (int i = random.nextInt(50); i >= 0; i--) {
+                literals.add(switch (kind) {
+                    case 0 -> Integer.toString(random.nextInt());
+                    case 1 -> Long.toString((random.nextBoolean() ? -1 : 1) * (random.nextLong() >>> 2 | 1L << 40));
+                    default -> Double.toString(random.nextGaussian());
+                });
+            }
+            String document = "[" + String.join(", ", literals) + "]";
+            var array = (JsonArray) JsonCorpus.reference(document);
+            for (JsonArray actual : List.of(array, Json.parseJsonArray(document),
+                    Json.parseJsonArray(ParseEntryPointsTest.utf8(document)))) {
+                var numbers = assertInstanceOf(NumberArrayList.class, actual.elements);
+                assertEquals(kind == 0 ? int.class : kind == 1 ? long.class : double.class, numbers.primitiveType());
+                assertEquals(literals.size(), numbers.size());
+                for (int i = 0; i < literals.size(); i++) {
+                    String literal = literals.get(i);
+                    Number expected = kind == 0 ? Integer.valueOf(literal)
+                            : kind == 1 ? (Number) Long.valueOf(literal) : Double.valueOf(literal);
+                    assertEquals(expected, ((JsonNumber) numbers.get(i)).value);
+                }
+            }
+        }
+    }
+
+    // Элемент другого вида (2 среди double, строка) переводит список в обычную форму без потери значений
+    @Test
+    void mixedArraysSwitchToList() {
+        var list = new NumberArrayList(new double[]{0.5, -1.5});
+        list.add(new JsonNumber(2));
+        list.add(new JsonString("x"));
+        assertNull(list.primitiveType());
+        JsonValue parsed = JsonCorpus.reference("[0.5, -1.5, 2, \"x\"]");
+        JsonCorpus.assertSameValue(parsed, new JsonArray(list));
+        JsonCorpus.assertSameValue(new JsonArray(List.of(new JsonNumber(0.5), new JsonNumber(-1.5), new JsonNumber(2),
+                new JsonString("x"))), new JsonArray(list));
+        assertNull(((NumberArrayList) ((JsonArray) parsed).elements).primitiveType());
+    }
+
+    // ObjectMapper копирует однородный массив в int[] / long[] / double[] целиком и хранит их так же
+    @Test
+    void mapperCopiesPrimitiveArrays() {
+        var mapper = new ObjectMapper();
+        int[] ints = {1, -2, Integer.MAX_VALUE};
+        long[] longs = {Long.MIN_VALUE, 0, 1L << 50};
+        double[] doubles = {0.1, -2.5e300, Double.MIN_VALUE};
+        assertArrayEquals(ints, mapper.asProvided(JsonCorpus.reference("[1, -2, 2147483647]"), int[].class));
+        assertArrayEquals(longs, mapper.asProvided(Json.parseJsonArray(Json.from(longs).toString()), long[].class));
+        assertArrayEquals(doubles, mapper.asProvided(Json.parseJsonArray(Json.from(doubles).toString()), double[].class));
+        assertArrayEquals(new double[]{1, 2, 3}, mapper.asProvided(Json.parseJsonArray("[1, 2, 3]"), double[].class));
+        assertEquals(long.class, ((NumberArrayList) ((JsonArray) Json.from(longs)).elements).primitiveType());
+    }
+}
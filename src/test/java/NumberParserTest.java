@@ -0,0 +1,116 @@
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// NumberParser (точный путь Клингера, Эйзель-Лемир, запасной Double.parseDouble) против Double.parseDouble и BigDecimal
+class NumberParserTest {
+
+    private final NumberParser parser = new NumberParser();
+
+    // Тип и значение, которые давала исходная цепочка parseInt / parseLong / parseDouble
+    private static Number expected(String text) {
+        if (text.matches("[+-]?\\d+")) {
+            var value = new BigDecimal(text);
+            try {
+                return value.intValueExact();
+            } catch (ArithmeticException ignored) {
+                // не помещается в int
+            }
+            try {
+                return value.longValueExact();
+            } catch (ArithmeticException ignored) {
+                // не помещается в long
+            }
+        }
+        return Double.parseDouble(text);
+    }
+
+    private void check(String text) {
+        assertEquals(expected(text), parser.number(text).value, text);
+        assertEquals(Double.parseDouble(text), parser.toDouble(text), text);
+    }
+
+    @Test
+    void edgeCases() {
+        String[] literals = {
+                "0", "-0", "+0", "0.0", "-0.0", "0e0", "-0e-5", "1", "-1", "1.", ".5", "-.5", "+1.5",
+                "2147483647", "2147483648", "-2147483648", "-2147483649",
+                "9223372036854775807", "9223372036854775808", "-9223372036854775808", "-9223372036854775809",
+                "18446744073709551615", "18446744073709551616", "123456789012345678901234567890",
+                "9007199254740992", "9007199254740993.0", "9007199254740995.0", "9007199254740993e0",
+                "1e22", "1e23", "1e-22", "1e-23", "123456789e22", "4.35e-5", "0.1", "0.3", "3.14159265358979323846",
+                "1.7976931348623157e308", "1.7976931348623158e308", "1.7976931348623159e308", "1e308", "1e309",
+                "1e400", "-1e400", "1e-400", "-1e-400", "2.2250738585072011e-308", "2.2250738585072014e-308",
+                "4.9e-324", "2.4703282292062327e-324", "2.4703282292062328e-324", "5e-324", "1e-323",
+                "1.00000000000000011102230246251565404236316680908203125",
+                "1.00000000000000011102230246251565404236316680908203124",
+                "1.00000000000000011102230246251565404236316680908203126",
+                "7.2057594037927933e16", "9.999999999999999e22", "8.98846567431158e307",
+                "12345678901234567890e-5", "1234567890123456789e-300", "1234567890123456789e300",
+                "0.000000000000000000000000000000000001", "100000000000000000000000000000000000000e-38",
+                "00000000000000000000000012.5", "12.50000000000000000000000000000", "1E+2", "1e-0", "1E2"
+        };
+        for (String literal : literals) {
+            check(literal);
+        }
+    }
+
+    @Test
+    void randomDoubles() {
+        var random = new Random(8);
+        for (int i = 0; i < 100_000; i++) {
+            double value = Double.longBitsToDouble(random.nextLong());
+            if (Double.isFinite(value)) {
+                check(Double.toString(value));
+                check(new BigDecimal(value).toString());
+            }
+        }
+    }
+
+    // Мантиссы от 1 до 25 цифр со случайной степенью: граница 19 цифр Эйзеля-Лемира и выход из диапазона double
+    @Test
+    void randomDigitStrings() {
+        var random = new Random(9);
+        for (int i = 0; i < 100_000; i++) {
+            var sb = new StringBuilder();
+            if (random.nextBoolean()) {
+                sb.append('-');
+            }
+            int digits = 1 + random.nextInt(25);
+            int point = random.nextInt(digits + 1);
+            for (int d = 0; d < digits; d++) {
+                if (d == point && d > 0) {
+                    sb.append('.');
+                }
+                sb.append((char) ('0' + random.nextInt(10)));
+            }
+            if (random.nextBoolean()) {
+                sb.append('e').append(random.nextInt(700) - 350);
+            }
+            check(sb.toString());
+        }
+    }
+
+    @Test
+    void integerTypes() {
+        // тип значения тот же, что у JsonNumber из исходного разбора: Integer, Long или Double
+        assertEquals(Integer.valueOf(7), parser.number("7").value);
+        assertEquals(Long.valueOf(1L << 40), parser.number(Long.toString(1L << 40)).value);
+        assertEquals(Double.valueOf(7.0), parser.number("7.0").value);
+        assertEquals(Double.valueOf(7e0), parser.number("7e0").value);
+        assertEquals(Double.valueOf(-0.0), parser.number("-0.0").value);
+        assertEquals(Integer.valueOf(0), parser.number("-0").value);
+    }
+
+    @Test
+    void rejectsMalformedLiterals() {
+        for (String literal : new String[]{"-", "+", ".", "1e", "1e+", "--1", "1.2.3", "1e5e5", "0x10", ".e1"}) {
+            assertThrows(JsonException.class, () -> parser.number(literal), literal);
+            assertThrows(JsonException.class, () -> Json.parseJsonArray("[" + literal + "]"), literal);
+        }
+    }
+}
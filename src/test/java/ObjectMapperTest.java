@@ -0,0 +1,229 @@
+import model.JsonValue;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// ObjectMapper и разбор прямо в поля (BindingObserver) против ObjectMapper.asProvided по дереву Json.parse(Reader),
+// и обратная запись: Json.toBytes (по ходу обхода) против Json.from(...).toString()
+class ObjectMapperTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    static class Item {
+        String name;
+        int count;
+        long id;
+        double price;
+        float ratio;
+        short small;
+        byte tiny;
+        boolean active;
+        BigDecimal amount;
+        int[] ints;
+        long[] longs;
+        double[] doubles;
+        String[] tags;
+        Item child;
+        Item[] children;
+        Map<String, Object> extra;
+
+        public Item() {
+        }
+    }
+
+    private static Item item(Random random, int depth) {
+        var item = new Item();
+        item.name = random.nextInt(5) == 0 ? null : "item é\"\\ " + random.nextInt(1000);
+        item.count = random.nextInt();
+        item.id = random.nextLong();
+        item.price = random.nextInt(3) == 0 ? random.nextInt(100) : random.nextGaussian() * 1e3;
+        item.ratio = random.nextFloat();
+        item.small = (short) random.nextInt();
+        item.tiny = (byte) random.nextInt();
+        item.active = random.nextBoolean();
+        item.amount = random.nextBoolean() ? null : new BigDecimal(random.nextInt(100000)).movePointLeft(2);
+        item.ints = random.ints(random.nextInt(6)).toArray();
+        item.longs = random.nextBoolean() ? null : random.longs(random.nextInt(6)).toArray();
+        item.doubles = random.doubles(random.nextInt(6)).toArray();
+        item.tags = random.nextBoolean() ? null : new String[]{"a", "日本", "\n"};
+        if (depth < 3 && random.nextBoolean()) {
+            item.child = item(random, depth + 1);
+        }
+        if (depth < 2 && random.nextBoolean()) {
+            item.children = new Item[random.nextInt(3)];
+            for (int i = 0; i < item.children.length; i++) {
+                item.children[i] = item(random, depth + 1);
+            }
+        }
+        if (random.nextBoolean()) {
+            item.extra = new LinkedHashMap<>();
+            item.extra.put("x", random.nextInt(10));
+            item.extra.put("y", "z");
+        }
+        return item;
+    }
+
+    // fromObject, запись в текст, разбор и asProvided возвращают исходные значения полей
+    @Test
+    void roundTripKeepsFields() {
+        var random = new Random(11);
+        for (int i = 0; i < 1000; i++) {
+            Item source = item(random, 0);
+            String document = Json.from(source).toString();
+            assertSameItem(source, mapper.asProvided(JsonCorpus.reference(document), Item.class));
+            assertSameItem(source, Json.parseObject(document, Item.class));
+        }
+    }
+
+    @Test
+    void bindingMatchesAsProvided() {
+        var random = new Random(12);
+        for (int i = 0; i < 1000; i++) {
+            Item source = item(random, 0);
+            String document = Json.from(source).toString();
+            Item expected = mapper.asProvided(JsonCorpus.reference(document), Item.class);
+            assertSameItem(expected, Json.parseObject(document, Item.class));
+            assertSameItem(expected, Json.parseObject(document.getBytes(StandardCharsets.UTF_8), Item.class));
+        }
+    }
+
+    // Json.toBytes пишет поля в порядке объявления, Json.from - в своем; после разбора значения совпадают
+    @Test
+    void streamingWriteMatchesTree() {
+        var random = new Random(13);
+        for (int i = 0; i < 1000; i++) {
+            Item source = item(random, 0);
+            JsonValue tree = Json.from(source);
+            byte[] written = Json.toBytes(source);
+            assertEquals(JsonCorpus.plain(JsonCorpus.reference(tree.toString())),
+                    JsonCorpus.plain(Json.parse(new ByteArrayInputStream(written))));
+        }
+    }
+
+    private static void assertSameItem(Item expected, Item actual) {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+        assertEquals(expected.name, actual.name);
+        assertEquals(expected.count, actual.count);
+        assertEquals(expected.id, actual.id);
+        assertEquals(expected.price, actual.price);
+        assertEquals(expected.ratio, actual.ratio);
+        assertEquals(expected.small, actual.small);
+        assertEquals(expected.tiny, actual.tiny);
+        assertEquals(expected.active, actual.active);
+        assertEquals(expected.amount == null ? null : expected.amount.stripTrailingZeros(),
+                actual.amount == null ? null : actual.amount.stripTrailingZeros());
+        assertArrayEquals(expected.ints, actual.ints);
+        assertArrayEquals(expected.longs, actual.longs);
+        assertArrayEquals(expected.doubles, actual.doubles);
+        assertArrayEquals(expected.tags, actual.tags);
+        assertSameItem(expected.child, actual.child);
+        if (expected.children == null) {
+            assertNull(actual.children);
+        } else {
+            assertEquals(expected.children.length, actual.children.length);
+            for (int i = 0; i < expected.children.length; i++) {
+                assertSameItem(expected.children[i], actual.children[i]);
+            }
+        }
+        assertEquals(expected.extra, actual.extra);
+    }
+
+    // null в примитивном поле - IllegalArgumentException от Field.set, как до кэша ClassCodec
+    @Test
+    void rejectsNullPrimitives() {
+        for (String document : new String[]{"{\"count\": null}", "{\"active\": null}", "{\"price\": null}",
+                "{\"tiny\": null}"}) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> mapper.asProvided(JsonCorpus.reference(document), Item.class), document);
+        }
+    }
+
+    // Ошибки те же, что у asProvided: тот же класс исключения для null, значения не того типа и неизвестного поля
+    @Test
+    void errorsMatchAsProvided() {
+        String[] documents = {
+                "{\"count\": null}", "{\"active\": null}", "{\"price\": null}", "{\"count\": \"1\"}",
+                "{\"name\": 1}", "{\"unknown\": 1}", "{\"ints\": [1, null]}", "{\"ints\": {}}",
+                "{\"child\": [1]}", "{\"active\": 1}",
+                "{\"price\": true}",
+                // дробное число в целом поле, выход за диапазон, бесконечность
+                "{\"count\": 1.5}", "{\"tiny\": 300}", "{\"count\": 2147483648}", "{\"id\": 1e30}",
+                "{\"small\": 1e9}", "{\"ints\": [1.5]}", "{\"longs\": [0.5]}", "{\"price\": 1e400}",
+                "{\"doubles\": [-1e400]}", "{\"amount\": 1e400}"
+        };
+        for (String document : documents) {
+            Class<? extends Throwable> expected = thrown(input -> mapper.asProvided(JsonCorpus.reference(input), Item.class),
+                    document);
+            assertThrows(expected, () -> Json.parseObject(document, Item.class), document);
+            assertThrows(expected, () -> Json.parseObject(document.getBytes(StandardCharsets.UTF_8), Item.class),
+                    document);
+        }
+    }
+
+    static class Numbers {
+        int i;
+        long l;
+        double d;
+        float f;
+        short s;
+        byte b;
+        BigDecimal m;
+
+        public Numbers() {
+        }
+    }
+
+    // Любой числовой литерал в любом числовом поле: то же значение или то же исключение, что у asProvided
+    // (дробное число в целом поле, выход за диапазон, бесконечность, -0.0, округление float)
+    @Test
+    void numberFieldsMatchAsProvided() throws ReflectiveOperationException {
+        var random = new Random(14);
+        String[] fields = {"i", "l", "d", "f", "s", "b", "m"};
+        for (int n = 0; n < 50_000; n++) {
+            String literal = switch (random.nextInt(7)) {
+                case 0 -> Long.toString(random.nextLong() >> random.nextInt(64));
+                case 1 -> Double.toString(Double.longBitsToDouble(random.nextLong() & 0x7FEF_FFFF_FFFF_FFFFL));
+                case 2 -> random.nextInt(1000) + "." + random.nextInt(10) + "e" + (random.nextInt(40) - 20);
+                case 3 -> random.nextBoolean() ? "-0.0" : "-0";
+                case 4 -> "9007199254740993.0";
+                case 5 -> "1e" + random.nextInt(400);
+                default -> Float.toString(Float.intBitsToFloat(random.nextInt() & 0x7F7F_FFFF));
+            };
+            String field = fields[random.nextInt(fields.length)];
+            String document = "{\"" + field + "\": " + literal + "}";
+            Numbers expected;
+            try {
+                expected = mapper.asProvided(JsonCorpus.reference(document), Numbers.class);
+            } catch (RuntimeException e) {
+                assertThrows(e.getClass(), () -> Json.parseObject(document, Numbers.class), document);
+                continue;
+            }
+            Numbers actual = Json.parseObject(document, Numbers.class);
+            var property = Numbers.class.getDeclaredField(field);
+            assertEquals(property.get(expected), property.get(actual), document);
+        }
+    }
+
+    private static Class<? extends Throwable> thrown(Function<String, Object> action, String input) {
+        try {
+            action.apply(input);
+        } catch (RuntimeException e) {
+            return e.getClass();
+        }
+        throw new AssertionError("no exception for " + input);
+    }
+}
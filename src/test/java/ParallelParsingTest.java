@@ -0,0 +1,186 @@
+import model.JsonArray;
+import model.JsonObject;
+import model.JsonValue;
+import model.NumberArrayList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Параллельный разбор большого массива и NDJSON против последовательного Json.parse(Reader)
+class ParallelParsingTest {
+
+    private static final String[] SEPARATORS = {",", ", ", ",\n", " ,\t", ",\f", "\u000B,\r\n"};
+
+    // Массив верхнего уровня больше порога параллельного разбора; между элементами - все виды пробелов
+    private static String largeArray(long seed) {
+        var corpus = new JsonCorpus(seed);
+        var random = new Random(seed);
+        var sb = new StringBuilder("\f[\u000B");
+        for (int i = 0; sb.length() < ParallelArrayParser.PARALLEL_THRESHOLD + 100_000; i++) {
+            if (i > 0) {
+                sb.append(SEPARATORS[random.nextInt(SEPARATORS.length)]);
+            }
+            sb.append(random.nextInt(4) == 0 ? corpus.value(0) : corpus.document());
+        }
+        return sb.append("\u000B]\f ").toString();
+    }
+
+    @Test
+    void largeArrayMatchesReader() {
+        for (long seed = 0; seed < 3; seed++) {
+            String document = largeArray(seed);
+            JsonValue expected = JsonCorpus.reference(document);
+            JsonCorpus.assertSameValue(expected, Json.parseJsonArrayParallel(document));
+            byte[] bytes = document.getBytes(StandardCharsets.UTF_8);
+            JsonCorpus.assertSameValue(expected, Json.parseJsonArrayParallel(bytes));
+            byte[] bom = new byte[bytes.length + 3];
+            bom[0] = (byte) 0xEF;
+            bom[1] = (byte) 0xBB;
+            bom[2] = (byte) 0xBF;
+            System.arraycopy(bytes, 0, bom, 3, bytes.length);
+            JsonCorpus.assertSameValue(expected, Json.parseJsonArrayParallel(bom));
+        }
+    }
+
+    // Однородный числовой массив собирается в NumberArrayList того же типа, что и при последовательном разборе
+    @Test
+    void numbersStayPrimitive() {
+        var random = new Random(3);
+        for (String kind : new String[]{"int", "long", "double"}) {
+            var sb = new StringBuilder("[");
+            while (sb.length() < ParallelArrayParser.PARALLEL_THRESHOLD + 1000) {
+                if (sb.length() > 1) {
+                    sb.append(SEPARATORS[random.nextInt(SEPARATORS.length)]);
+                }
+                sb.append(switch (kind) {
+                    case "int" -> random.nextInt();
+                    case "long" -> random.nextLong();
+                    default -> random.nextDouble();
+                });
+            }
+            String document = sb.append(']').toString();
+            JsonArray expected = (JsonArray) JsonCorpus.reference(document);
+            JsonArray actual = Json.parseJsonArrayParallel(document.getBytes(StandardCharsets.UTF_8));
+            JsonCorpus.assertSameValue(expected, actual);
+            var numbers = assertInstanceOf(NumberArrayList.class, actual.elements);
+            assertEquals(((NumberArrayList) expected.elements).primitiveType(), numbers.primitiveType(), kind);
+        }
+    }
+
+
+    @Test
+    void rejectsMalformedLargeArrays() {
+        String document = largeArray(7);
+        String body = document.strip();
+        String[] broken = {
+                body.substring(0, body.length() - 1),    // нет закрывающей скобки
+                body + " 1",                             // данные после массива
+                body.substring(0, body.length() - 1) + ",]", // пустой последний элемент
+                "{\"a\": " + body + "}",                 // корень - не массив
+                body.substring(0, body.length() / 2) + "\"" + body.substring(body.length() / 2)
+        };
+        for (String input : broken) {
+            assertThrows(JsonException.class, () -> Json.parseJsonArrayParallel(input));
+            assertThrows(JsonException.class, () -> Json.parseJsonArrayParallel(input.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    // Вход меньше PARALLEL_THRESHOLD разбирается последовательно, но корень - не массив - та же ошибка JsonException
+    @Test
+    void rejectsSmallNonArrays() {
+        for (String input : new String[]{"{\"a\": [1]}", "1", "\"[]\"", "null", " {} "}) {
+            assertThrows(JsonException.class, () -> Json.parseJsonArrayParallel(input), input);
+            assertThrows(JsonException.class, () -> Json.parseJsonArrayParallel(input.getBytes(StandardCharsets.UTF_8)),
+                    input);
+        }
+    }
+
+    // NDJSON: объекты корпуса по одному на строку, с пустыми строками и CRLF, порциями больше CHUNK_SIZE
+    private static List<String> lines(long seed, int count) {
+        var corpus = new JsonCorpus(seed);
+        List<String> lines = new ArrayList<>(count);
+        while (lines.size() < count) {
+            String line = corpus.object(0);
+            lines.add(line.replace('\n', ' ').replace('\r', ' '));
+        }
+        return lines;
+    }
+
+    private static String join(List<String> lines, Random random) {
+        var sb = new StringBuilder();
+        for (String line : lines) {
+            sb.append(line).append(random.nextBoolean() ? "\n" : "\r\n");
+            if (random.nextInt(10) == 0) {
+                sb.append(random.nextBoolean() ? "\n" : " \t\f\u000B\r\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    @Test
+    void linesMatchReader(@TempDir Path directory) throws IOException {
+        List<String> lines = lines(5, 20_000);
+        String input = join(lines, new Random(6));
+        assertTrue(input.length() > 4 * JsonLinesSpliterator.CHUNK_SIZE);
+        List<JsonValue> expected = lines.stream().map(JsonCorpus::reference).toList();
+
+        List<JsonObject> ordered;
+        try (Stream<JsonObject> stream = Json.parseLines(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)))) {
+            ordered = stream.toList();
+        }
+        assertEquals(expected.size(), ordered.size());
+        for (int i = 0; i < expected.size(); i++) {
+            JsonCorpus.assertSameValue(expected.get(i), ordered.get(i));
+        }
+
+        Path file = directory.resolve("lines.ndjson");
+        Files.writeString(file, input);
+        List<String> unordered;
+        try (Stream<JsonObject> stream = Json.parseLines(file, false)) {
+            unordered = stream.map(JsonObject::toString).sorted().toList();
+        }
+        assertEquals(expected.stream().map(JsonValue::toString).sorted().toList(), unordered);
+    }
+
+    @Test
+    void rejectsBrokenLines() {
+        List<String> lines = new ArrayList<>(lines(8, 5000));
+        lines.set(4000, "[1, 2]");
+        String notObject = join(lines, new Random(9));
+        assertThrows(JsonException.class, () -> Json.parseLines(
+                new ByteArrayInputStream(notObject.getBytes(StandardCharsets.UTF_8))).forEach(line -> { }));
+        lines.set(4000, "{\"a\": 1");
+        String truncated = join(lines, new Random(9));
+        assertThrows(JsonException.class, () -> Json.parseLines(
+                new ByteArrayInputStream(truncated.getBytes(StandardCharsets.UTF_8))).count());
+    }
+
+    // Последняя строка без перевода строки и строка длиннее порции
+    @Test
+    void lastLineAndLongLines() {
+        String longValue = "x".repeat(3 * JsonLinesSpliterator.CHUNK_SIZE);
+        String input = "{\"a\": 1}\n{\"long\": \"" + longValue + "\"}\n{\"b\": 2}";
+        List<JsonObject> objects = Json.parseLines(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)))
+                .toList();
+        assertEquals(3, objects.size());
+        assertEquals(longValue.length(), objects.get(1).entries.get("long").toString().length() - 2);
+        assertEquals("{\"b\": 2}", objects.get(2).toString());
+        assertEquals(List.of(), Json.parseLines(new ByteArrayInputStream(new byte[0])).toList());
+        assertEquals(List.of(), Json.parseLines(new ByteArrayInputStream("\n \n\r\n".getBytes(StandardCharsets.UTF_8)))
+                .toList());
+    }
+}
@@ -0,0 +1,261 @@
+import model.JsonArray;
+import model.JsonObject;
+import model.JsonValue;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Каждый вход, токенайзер и движок разбора сравнивается с Json.parse(Reader) на одном и том же корпусе
+class ParseEntryPointsTest {
+
+    private static final List<String> CORPUS = JsonCorpus.documents(16, 3000);
+
+    // Все пути разбора документа целиком
+    private static Map<String, Function<String, JsonValue>> entryPoints() {
+        Map<String, Function<String, JsonValue>> entries = new LinkedHashMap<>();
+        entries.put("parseJson(String)", input -> isObject(input)
+                ? Json.parseJsonObject(input) : Json.parseJsonArray(input));
+        entries.put("parseJson(byte[])", input -> isObject(input)
+                ? Json.parseJsonObject(utf8(input)) : Json.parseJsonArray(utf8(input)));
+        entries.put("parseJson(heap ByteBuffer)", input -> isObject(input)
+                ? Json.parseJsonObject(ByteBuffer.wrap(utf8(input))) : Json.parseJsonArray(ByteBuffer.wrap(utf8(input))));
+        entries.put("parseJson(direct ByteBuffer)", input -> isObject(input)
+                ? Json.parseJsonObject(direct(utf8(input))) : Json.parseJsonArray(direct(utf8(input))));
+        entries.put("parse(InputStream)", input -> Json.parse(new ByteArrayInputStream(utf8(input))));
+        entries.put("Reader, window 16", input -> parse(new CharJsonTokenizer(new StringReader(input), 16)));
+        entries.put("InputStream, window 16", input -> parse(
+                new Utf8JsonTokenizer(new ByteArrayInputStream(utf8(input))::read, 16)));
+        entries.put("char[] slice", input -> {
+            char[] chars = ("[" + input + "]").toCharArray();
+            return parse(new CharJsonTokenizer(chars, 1, chars.length - 1));
+        });
+        entries.put("byte[] slice", input -> {
+            byte[] bytes = utf8("[" + input + "]");
+            return parse(new Utf8JsonTokenizer(bytes, 1, bytes.length - 1));
+        });
+        entries.put("Regex tokenizer", input -> parse(JsonTokenizer.of(input, JsonTokenizer.Engine.Regex)));
+        for (StructuralIndexer.Mode mode : StructuralIndexer.Mode.values()) {
+            entries.put("byte[], index " + mode, input -> parse(JsonTokenizer.of(utf8(input), mode)));
+        }
+        for (JsonParser.Engine engine : JsonParser.Engine.values()) {
+            entries.put(engine + ", String", input -> new JsonParser<>(
+                    JsonTokenizer.of(input), new JsonObserver(), engine).parse());
+            entries.put(engine + ", byte[]", input -> new JsonParser<>(
+                    JsonTokenizer.of(utf8(input)), new JsonObserver(), engine).parse());
+        }
+        entries.put("parseLazy(String)", Json::parseLazy);
+        entries.put("parseLazy(byte[])", input -> Json.parseLazy(utf8(input)));
+        entries.put("parseTape(String)", input -> Json.parseTape(input).toJsonValue());
+        entries.put("parseTape(byte[])", input -> Json.parseTape(utf8(input)).root().toJsonValue());
+        JsonParserSession session = Json.newSession();
+        entries.put("session.parse(String)", session::parse);
+        entries.put("session.parse(byte[])", input -> session.parse(utf8(input)));
+        entries.put("JsonPath $", input -> Json.compilePath("$").select(input).get("$").getFirst());
+        return entries;
+    }
+
+    @TestFactory
+    Stream<DynamicTest> matchesReaderOnCorpus() {
+        return entryPoints().entrySet().stream().map(entry -> DynamicTest.dynamicTest(entry.getKey(), () -> {
+            for (String document : CORPUS) {
+                JsonCorpus.assertSameValue(JsonCorpus.reference(document), entry.getValue().apply(document));
+            }
+        }));
+    }
+
+    // Незаконченный документ - ошибка на любом входе, а не усеченное дерево
+    @TestFactory
+    Stream<DynamicTest> rejectsTruncatedDocuments() {
+        var random = new Random(17);
+        List<String> truncated = new ArrayList<>();
+        for (String document : CORPUS.subList(0, 500)) {
+            String trimmed = document.strip();
+            truncated.add(trimmed.substring(0, random.nextInt(trimmed.length())));
+        }
+        return entryPoints().entrySet().stream()
+                .filter(entry -> !entry.getKey().equals("Regex tokenizer")) // исходный токенайзер пропускает мусор
+                .map(entry -> DynamicTest.dynamicTest(entry.getKey(), () -> {
+                    for (String document : truncated) {
+                        assertThrows(JsonException.class, () -> JsonCorpus.reference(document), document);
+                        assertThrows(JsonException.class, () -> entry.getValue().apply(document), document);
+                    }
+                }));
+    }
+
+    // Обычные java объекты: Map, List, String, Number, Boolean, null - те же значения и типы чисел, что и в дереве
+    @TestFactory
+    Stream<DynamicTest> plainObjectsMatchTree() {
+        Map<String, Function<String, Object>> entries = new LinkedHashMap<>();
+        entries.put("String", input -> isObject(input) ? Json.parseObject(input) : Json.parseArray(input));
+        entries.put("byte[]", input -> isObject(input) ? Json.parseObject(utf8(input)) : Json.parseArray(utf8(input)));
+        JsonParserSession session = Json.newSession();
+        entries.put("session", input -> isObject(input) ? session.parseObject(input) : session.parseArray(input));
+        return entries.entrySet().stream().map(entry -> DynamicTest.dynamicTest(entry.getKey(), () -> {
+            for (String document : CORPUS) {
+                assertEquals(JsonCorpus.plain(JsonCorpus.reference(document)), entry.getValue().apply(document));
+            }
+        }));
+    }
+
+    @Test
+    void parseFileMatchesReader(@TempDir Path directory) throws IOException {
+        for (int i = 0; i < 200; i++) {
+            String document = CORPUS.get(i);
+            Path file = directory.resolve(i + ".json");
+            Files.writeString(file, document);
+            JsonCorpus.assertSameValue(JsonCorpus.reference(document), Json.parseFile(file));
+        }
+    }
+
+    // Участки отображения и окно токенайзера меньше токенов: числа, строки и символы UTF-8
+    // разрезаются и границей участка, и границей окна
+    @Test
+    void parseFileAcrossChunkBoundaries(@TempDir Path directory) throws IOException {
+        for (int i = 0; i < 200; i++) {
+            String document = CORPUS.get(i);
+            Path file = directory.resolve(i + ".json");
+            Files.writeString(file, document);
+            try (var source = new MappedFileSource(file, 7)) {
+                JsonValue parsed = new JsonParser<>(new Utf8JsonTokenizer(source, 16), new JsonObserver()).parse();
+                JsonCorpus.assertSameValue(JsonCorpus.reference(document), parsed);
+            }
+        }
+    }
+
+    // Ключи повторяются в каждом элементе массива: в дереве это один и тот же экземпляр String
+    @Test
+    void repeatedKeysShareOneString() {
+        String document = "[{\"name\": 1, \"id\": 2}, {\"id\": 3, \"name\": 4}, {\"n\\u0061me\": 5}]";
+        for (JsonValue value : List.of(Json.parseJsonArray(document), Json.parseJsonArray(utf8(document)))) {
+            var elements = ((JsonArray) value).elements;
+            List<String> names = new ArrayList<>();
+            for (JsonValue element : elements) {
+                for (String key : ((JsonObject) element).entries.keySet()) {
+                    if (key.equals("name")) {
+                        names.add(key);
+                    }
+                }
+            }
+            assertEquals(3, names.size());
+            assertSame(names.get(0), names.get(1));
+            assertSame(names.get(0), names.get(2));
+        }
+    }
+
+    @Test
+    void parseAllKeepsOrderAndErrors() {
+        List<Object> inputs = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String document = CORPUS.get(i);
+            inputs.add(i % 3 == 0 ? utf8(document) : i % 7 == 0 ? document + "]" : document);
+        }
+        inputs.add(null);
+        inputs.add(42);
+        List<ParseResult> results = Json.parseAll(inputs);
+        assertEquals(inputs.size(), results.size());
+        for (int i = 0; i < 1000; i++) {
+            ParseResult result = results.get(i);
+            if (i % 3 != 0 && i % 7 == 0) {
+                assertTrue(result.failed(), CORPUS.get(i));
+                assertThrows(JsonException.class, result::get);
+            } else {
+                JsonCorpus.assertSameValue(JsonCorpus.reference(CORPUS.get(i)), result.get());
+            }
+        }
+        assertTrue(results.get(1000).failed());
+        assertTrue(results.get(1001).failed());
+    }
+
+    // Сессия для пула отпускает вход; после большого документа ее буферы слишком велики, и в пул она не попадает
+    @Test
+    void sessionClearKeepsOnlySmallBuffers() {
+        String small = CORPUS.get(0);
+        JsonParserSession session = Json.newSession();
+        session.parse(small);
+        assertTrue(session.clear());
+        assertThrows(JsonException.class, () -> session.parse("{\"a\": [1, 2"));
+        assertTrue(session.clear());
+        session.parse("[\"" + "x".repeat(JsonParserSession.MAX_POOLED_BUFFER) + "\"]");
+        assertFalse(session.clear());
+        JsonCorpus.assertSameValue(JsonCorpus.reference(small), session.parse(small));
+
+        JsonParserSession bytes = Json.newSession();
+        bytes.parse(utf8("[\"" + "\\n".repeat(JsonParserSession.MAX_POOLED_BUFFER) + "\"]"));
+        assertFalse(bytes.clear());
+        JsonCorpus.assertSameValue(JsonCorpus.reference(small), bytes.parse(utf8(small)));
+    }
+
+    @Test
+    void sessionSurvivesErrors() {
+        JsonParserSession session = Json.newSession();
+        for (String document : CORPUS.subList(0, 300)) {
+            assertThrows(JsonException.class, () -> session.parse(document + "{"));
+            JsonCorpus.assertSameValue(JsonCorpus.reference(document), session.parse(document));
+            assertEquals(JsonCorpus.plain(JsonCorpus.reference(document)),
+                    isObject(document) ? session.parseObject(document) : session.parseArray(document));
+        }
+    }
+
+    @Test
+    void metricsCountDocumentsAndErrors() {
+        boolean enabled = JsonMetrics.isEnabled();
+        JsonMetrics.setEnabled(true);
+        JsonMetrics.reset();
+        try {
+            long bytes = 0;
+            for (String document : CORPUS.subList(0, 100)) {
+                Json.parse(new ByteArrayInputStream(utf8(document)));
+                bytes += utf8(document).length;
+            }
+            assertThrows(JsonException.class, () -> Json.parseJsonArray("[1,"));
+            JsonMetrics.Snapshot snapshot = JsonMetrics.snapshot();
+            assertEquals(101, snapshot.documents());
+            assertEquals(1, snapshot.errors());
+            assertTrue(snapshot.bytes() >= bytes);
+            assertEquals(101, Arrays.stream(snapshot.latency()).sum());
+        } finally {
+            JsonMetrics.reset();
+            JsonMetrics.setEnabled(enabled);
+        }
+    }
+
+    private static JsonValue parse(JsonTokenizer tokenizer) {
+        return new JsonParser<>(tokenizer, new JsonObserver()).parse();
+    }
+
+    // Корень документа корпуса - объект или массив; пробелы вокруг него - те же, что отбрасывает strip()
+    private static boolean isObject(String input) {
+        return input.strip().startsWith("{");
+    }
+
+    static byte[] utf8(String input) {
+        return input.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static ByteBuffer direct(byte[] bytes) {
+        return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    }
+}
@@ -0,0 +1,160 @@
+import model.JsonArray;
+import model.JsonString;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Строки на всех токенайзерах: обычные символы до и после блочного просмотра (SWAR по 8 байт,
+// 32 символа перед String.indexOf), escape-последовательности и не-ASCII на каждой позиции, границы токенов
+class TokenizerTest {
+
+    // Фрагмент JSON внутри строки и его значение
+    private static final String[][] SPECIALS = {
+            {"\\\"", "\""}, {"\\\\", "\\"}, {"\\/", "/"}, {"\\n", "\n"}, {"\\t", "\t"}, {"\\b", "\b"},
+            {"\\f", "\f"}, {"\\r", "\r"}, {"\\u0041", "A"}, {"\\u00e9", "é"}, {"\\u0000", "\0"},
+            {"\\ud83d\\ude00", "😀"}, {"é", "é"}, {"ж", "ж"}, {"日", "日"}, {"😀", "😀"}, {"\u007F", "\u007F"}
+    };
+
+    private static Map<String, Function<String, JsonTokenizer>> tokenizers() {
+        Map<String, Function<String, JsonTokenizer>> tokenizers = new LinkedHashMap<>();
+        tokenizers.put("String", input -> JsonTokenizer.of(input, JsonTokenizer.Engine.Scanner));
+        tokenizers.put("Regex", input -> JsonTokenizer.of(input, JsonTokenizer.Engine.Regex));
+        tokenizers.put("char[]", input -> new CharJsonTokenizer(input.toCharArray(), 0, input.length()));
+        tokenizers.put("Reader, window 16", input -> new CharJsonTokenizer(new StringReader(input), 16));
+        tokenizers.put("byte[]", input -> JsonTokenizer.of(utf8(input), StructuralIndexer.Mode.Off));
+        tokenizers.put("byte[], index Scalar", input -> JsonTokenizer.of(utf8(input), StructuralIndexer.Mode.Scalar));
+        tokenizers.put("byte[], index Vector", input -> JsonTokenizer.of(utf8(input), StructuralIndexer.Mode.Vector));
+        tokenizers.put("direct ByteBuffer", input -> JsonTokenizer.of(ParseEntryPointsTest.direct(utf8(input))));
+        tokenizers.put("InputStream, window 16", input -> new Utf8JsonTokenizer(
+                new ByteArrayInputStream(utf8(input))::read, 16));
+        return tokenizers;
+    }
+
+    private static List<String> strings(String document, JsonTokenizer tokenizer) {
+        var array = (JsonArray) new JsonParser<>(tokenizer, new JsonObserver()).parse();
+        return array.elements.stream().map(value -> ((JsonString) value).content).toList();
+    }
+
+    @Test
+    void specialCharacterAtEveryPosition() {
+        for (var tokenizer : tokenizers().entrySet()) {
+            for (int length = 0; length <= 80; length++) {
+                for (String[] special : SPECIALS) {
+                    for (int at = 0; at <= length; at += Math.max(1, length / 10)) {
+                        String plain = "x".repeat(length);
+                        String json = "[\"" + plain.substring(0, at) + special[0] + plain.substring(at) + "\",\""
+                                + plain + "\"]";
+                        String expected = plain.substring(0, at) + special[1] + plain.substring(at);
+                        assertEquals(List.of(expected, plain), strings(json, tokenizer.getValue().apply(json)),
+                                tokenizer.getKey() + " " + json);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void longStringsWithoutEscapes() {
+        var sb = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            sb.append((char) ('a' + i % 26));
+            if (i % 700 == 0) {
+                sb.append("ёж");
+            }
+        }
+        String text = sb.toString();
+        String json = "[\"" + text + "\", \"" + text + "\\n\"]";
+        for (var tokenizer : tokenizers().entrySet()) {
+            if (tokenizer.getKey().equals("Regex")) {
+                continue; // выражение исходного токенайзера рекурсивно по длине строки: StackOverflowError
+            }
+            assertEquals(List.of(text, text + "\n"), strings(json, tokenizer.getValue().apply(json)), tokenizer.getKey());
+        }
+    }
+
+    @Test
+    void rejectsBrokenStrings() {
+        String[] broken = {"[\"abc]", "[\"abc\\\"]", "[\"\\x\"]", "[\"\\u12\"]", "[\"\\u12g4\"]", "[\"abc\\",
+                "[\"" + "a".repeat(100)};
+        for (var tokenizer : tokenizers().entrySet()) {
+            if (tokenizer.getKey().equals("Regex")) {
+                continue; // исходный токенайзер пропускает то, что не совпало с выражением
+            }
+            for (String json : broken) {
+                assertThrows(JsonException.class, () -> strings(json, tokenizer.getValue().apply(json)),
+                        tokenizer.getKey() + " " + json);
+            }
+        }
+    }
+
+    @Test
+    void rejectsInvalidUtf8() {
+        byte[][] broken = {
+                {'[', '"', (byte) 0xFF, '"', ']'},
+                {'[', '"', (byte) 0xC3, '"', ']'},                           // нет продолжения
+                {'[', '"', (byte) 0xE6, (byte) 0x97, '"', ']'},              // оборванная 3-байтная последовательность
+                {'[', '"', (byte) 0x80, '"', ']'},                           // продолжение без начала
+                {'[', '"', (byte) 0xC0, (byte) 0xAF, '"', ']'},              // избыточная запись '/'
+                {'[', '"', (byte) 0xED, (byte) 0xA0, (byte) 0x80, '"', ']'}, // суррогат
+                {'[', '"', (byte) 0xF4, (byte) 0x90, (byte) 0x80, (byte) 0x80, '"', ']'} // больше U+10FFFF
+        };
+        for (byte[] json : broken) {
+            String name = Arrays.toString(json);
+            assertThrows(JsonException.class, () -> Json.parseJsonArray(json), name);
+            assertThrows(JsonException.class, () -> Json.parse(new ByteArrayInputStream(json)), name);
+            assertThrows(JsonException.class, () -> strings("", Utf8JsonTokenizer.indexed(
+                    json, 0, json.length, StructuralIndexer.Mode.Scalar)), name);
+        }
+    }
+
+    // Участок входа [tokenOffset(), position()) - текст токена целиком: по нему строится ленивый документ
+    @Test
+    void tokenBoundsCoverTheToken() {
+        for (String document : JsonCorpus.documents(20, 300)) {
+            checkBounds(JsonTokenizer.of(document, JsonTokenizer.Engine.Scanner), document::substring);
+            checkBounds(JsonTokenizer.of(document, JsonTokenizer.Engine.Regex), document::substring);
+            byte[] bytes = utf8(document);
+            Slicer slicer = (from, to) -> new String(bytes, from, to - from, StandardCharsets.UTF_8);
+            checkBounds(JsonTokenizer.of(bytes, StructuralIndexer.Mode.Off), slicer);
+            checkBounds(JsonTokenizer.of(bytes, StructuralIndexer.Mode.Scalar), slicer);
+        }
+    }
+
+    private interface Slicer {
+        String slice(int from, int to);
+    }
+
+    private static void checkBounds(JsonTokenizer tokenizer, Slicer input) {
+        while (tokenizer.hasNext()) {
+            JsonToken token = tokenizer.next();
+            if (token == JsonToken.End) {
+                break;
+            }
+            String text = input.slice(tokenizer.tokenOffset(), tokenizer.position());
+            String value = token == JsonToken.String ? tokenizer.getString().content
+                    : token == JsonToken.Number ? tokenizer.getNumberText().toString() : null;
+            JsonTokenizer single = JsonTokenizer.of(text);
+            assertEquals(token, single.next(), text);
+            if (token == JsonToken.String) {
+                assertEquals(value, single.getString().content, text);
+            } else if (token == JsonToken.Number) {
+                assertEquals(value, single.getNumberText().toString(), text);
+            }
+            assertEquals(JsonToken.End, single.next(), text);
+        }
+    }
+
+    private static byte[] utf8(String input) {
+        return input.getBytes(StandardCharsets.UTF_8);
+    }
+}